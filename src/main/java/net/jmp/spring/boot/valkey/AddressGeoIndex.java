@@ -0,0 +1,464 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)AddressGeoIndex.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.GlideString;
+
+import glide.api.models.commands.geospatial.GeoUnit;
+import glide.api.models.commands.geospatial.GeospatialData;
+
+import static glide.api.models.GlideString.gs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import java.util.concurrent.CompletableFuture;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The address geo index class. It keeps the
+/// coordinates of the addresses of persons in one
+/// geo set, `geo:addresses`, so that radius and box
+/// queries run on the server instead of over every
+/// address loaded here.
+///
+/// The member of an address is `<person id>:<n>`,
+/// where n is its position in the person's list.
+/// Coordinates are supplied or resolved from the
+/// zip code by the [ZipCodeLocator]; addresses that
+/// cannot be placed are left out. The members of a
+/// person are replaced in one script call, so a
+/// query never sees half of an update.
+///
+/// A query stores its whole result, with distances,
+/// in `geo:results:<query>` for
+/// `valkey.geo.resultSeconds` and answers each page
+/// with a range of it. Pages of a query are thus
+/// consistent with one another, but an index change
+/// is not seen by a query until its result expires.
+/// A result holds at most `valkey.geo.maxResults`
+/// addresses, the nearest ones.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class AddressGeoIndex {
+    /// The geo set.
+    private static final GlideString GEO_KEY = KeyTemplate.intern("geo:addresses");
+
+    /// The number of members of each person.
+    private static final GlideString COUNTS_KEY = KeyTemplate.intern("geo:counts");
+
+    /// The result keys.
+    private static final KeyTemplate RESULTS = KeyTemplate.of("geo", "results");
+
+    /// The largest longitude that can be indexed.
+    private static final double MAX_LONGITUDE = 180.0;
+
+    /// The largest latitude that can be indexed, the limit of the Web Mercator projection.
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The script registry.
+    private final ScriptRegistry scriptRegistry;
+
+    /// The zip code locator.
+    private final ZipCodeLocator zipCodeLocator;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The seconds a query result is kept.
+    @Value("${valkey.geo.resultSeconds:60}")
+    private long resultSeconds;
+
+    /// The most addresses a query result holds.
+    @Value("${valkey.geo.maxResults:1000}")
+    private int maxResults;
+
+    /// The constructor.
+    ///
+    /// @param  scriptRegistry  net.jmp.spring.boot.valkey.ScriptRegistry
+    /// @param  zipCodeLocator  net.jmp.spring.boot.valkey.ZipCodeLocator
+    /// @param  lifecycle       net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public AddressGeoIndex(final ScriptRegistry scriptRegistry,
+                           final ZipCodeLocator zipCodeLocator,
+                           final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.scriptRegistry = scriptRegistry;
+        this.zipCodeLocator = zipCodeLocator;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Index the addresses of a person, resolving
+    /// their coordinates from their zip codes.
+    ///
+    /// @param  personId    java.lang.String
+    /// @param  addresses   java.util.List<net.jmp.spring.boot.valkey.Address>
+    /// @return             java.util.concurrent.CompletableFuture<java.lang.Long>  The number of addresses placed
+    public CompletableFuture<Long> index(final String personId, final List<Address> addresses) {
+        final List<GeospatialData> coordinates = new ArrayList<>();
+
+        if (addresses != null) {
+            for (final Address address : addresses) {
+                coordinates.add(this.zipCodeLocator.locate(address).orElse(null));
+            }
+        }
+
+        return this.place(personId, coordinates);
+    }
+
+    /// Place the addresses of a person at supplied
+    /// coordinates. The coordinates are in the order
+    /// of the addresses; a null leaves that address
+    /// out.
+    ///
+    /// @param  personId    java.lang.String
+    /// @param  coordinates java.util.List<glide.api.models.commands.geospatial.GeospatialData>
+    /// @return             java.util.concurrent.CompletableFuture<java.lang.Long>  The number of addresses placed
+    /// @throws             java.lang.IllegalArgumentException  When a coordinate cannot be indexed
+    public CompletableFuture<Long> place(final String personId, final List<GeospatialData> coordinates) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(personId, coordinates));
+        }
+
+        Objects.requireNonNull(personId, "personId");
+
+        final List<GlideString> args = new ArrayList<>();
+
+        args.add(gs(personId));
+        args.add(gs(Integer.toString(coordinates.size())));
+
+        for (int i = 0; i < coordinates.size(); i++) {
+            final GeospatialData data = coordinates.get(i);
+
+            if (data != null) {
+                if (!(Math.abs(data.getLongitude()) <= MAX_LONGITUDE) || !(Math.abs(data.getLatitude()) <= MAX_LATITUDE)) {
+                    throw new IllegalArgumentException("Invalid coordinates for address " + i + " of " + personId + ": "
+                            + data.getLongitude() + ", " + data.getLatitude());
+                }
+
+                args.add(gs(Integer.toString(i)));
+                args.add(gs(Double.toString(data.getLongitude())));
+                args.add(gs(Double.toString(data.getLatitude())));
+            }
+        }
+
+        final CompletableFuture<Long> placed = this.lifecycle.submit(() -> this.scriptRegistry.invoke(ServerScript.GEO_REPLACE,
+                        new GlideString[] { GEO_KEY, COUNTS_KEY },
+                        args.toArray(GlideString[]::new))
+                .thenApply(reply -> (long) (args.size() - 2) / 3));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(placed));
+        }
+
+        return placed;
+    }
+
+    /// Remove the addresses of a person.
+    ///
+    /// @param  personId    java.lang.String
+    /// @return             java.util.concurrent.CompletableFuture<java.lang.Long>
+    public CompletableFuture<Long> remove(final String personId) {
+        return this.place(personId, Collections.emptyList());
+    }
+
+    /// Find the addresses within a radius of a point,
+    /// nearest first.
+    ///
+    /// @param  longitude   double
+    /// @param  latitude    double
+    /// @param  radius      double
+    /// @param  unit        glide.api.models.commands.geospatial.GeoUnit
+    /// @param  offset      int     The rank of the first match of the page
+    /// @param  limit       int     The most matches of the page
+    /// @return             java.util.concurrent.CompletableFuture<net.jmp.spring.boot.valkey.AddressGeoIndex.Page>
+    public CompletableFuture<Page> radius(final double longitude,
+                                          final double latitude,
+                                          final double radius,
+                                          final GeoUnit unit,
+                                          final int offset,
+                                          final int limit) {
+        return this.search(offset, limit,
+                "FROMLONLAT", Double.toString(longitude), Double.toString(latitude),
+                "BYRADIUS", Double.toString(radius), unit.getValkeyAPI());
+    }
+
+    /// Find the addresses within a box centered on a
+    /// point, nearest first.
+    ///
+    /// @param  longitude   double
+    /// @param  latitude    double
+    /// @param  width       double
+    /// @param  height      double
+    /// @param  unit        glide.api.models.commands.geospatial.GeoUnit
+    /// @param  offset      int     The rank of the first match of the page
+    /// @param  limit       int     The most matches of the page
+    /// @return             java.util.concurrent.CompletableFuture<net.jmp.spring.boot.valkey.AddressGeoIndex.Page>
+    public CompletableFuture<Page> box(final double longitude,
+                                       final double latitude,
+                                       final double width,
+                                       final double height,
+                                       final GeoUnit unit,
+                                       final int offset,
+                                       final int limit) {
+        return this.search(offset, limit,
+                "FROMLONLAT", Double.toString(longitude), Double.toString(latitude),
+                "BYBOX", Double.toString(width), Double.toString(height), unit.getValkeyAPI());
+    }
+
+    /// Find the addresses within a radius of an
+    /// indexed address, nearest first. The address
+    /// itself is the first match.
+    ///
+    /// @param  personId    java.lang.String
+    /// @param  index       int     The position of the address in the person's list
+    /// @param  radius      double
+    /// @param  unit        glide.api.models.commands.geospatial.GeoUnit
+    /// @param  offset      int     The rank of the first match of the page
+    /// @param  limit       int     The most matches of the page
+    /// @return             java.util.concurrent.CompletableFuture<net.jmp.spring.boot.valkey.AddressGeoIndex.Page>
+    public CompletableFuture<Page> near(final String personId,
+                                        final int index,
+                                        final double radius,
+                                        final GeoUnit unit,
+                                        final int offset,
+                                        final int limit) {
+        return this.search(offset, limit,
+                "FROMMEMBER", personId + ":" + index,
+                "BYRADIUS", Double.toString(radius), unit.getValkeyAPI());
+    }
+
+    /// Search and return a page of the result.
+    ///
+    /// @param  offset  int
+    /// @param  limit   int
+    /// @param  shape   java.lang.String[]  The origin and shape arguments of GEOSEARCHSTORE
+    /// @return         java.util.concurrent.CompletableFuture<net.jmp.spring.boot.valkey.AddressGeoIndex.Page>
+    private CompletableFuture<Page> search(final int offset, final int limit, final String... shape) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(offset, limit, shape));
+        }
+
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("The offset must not be negative and the limit must be positive");
+        }
+
+        /* The result key is named by the query so every page of it reads the same stored result */
+
+        final GlideString resultKey = RESULTS.key(String.join(":", shape));
+        final List<GlideString> args = new ArrayList<>();
+
+        args.add(gs(Long.toString(this.resultSeconds)));
+        args.add(gs(Integer.toString(offset)));
+        args.add(gs(Integer.toString(offset + limit - 1)));
+
+        for (final String arg : shape) {
+            args.add(gs(arg));
+        }
+
+        args.add(gs("ASC"));
+        args.add(gs("COUNT"));
+        args.add(gs(Integer.toString(this.maxResults)));
+        args.add(gs("STOREDIST"));
+
+        final CompletableFuture<Page> page = this.lifecycle.submit(() -> this.scriptRegistry.invoke(ServerScript.GEO_SEARCH_PAGE,
+                        new GlideString[] { GEO_KEY, resultKey },
+                        args.toArray(GlideString[]::new))
+                .thenApply(reply -> toPage(offset, reply)));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(page));
+        }
+
+        return page;
+    }
+
+    /// Make a page from the reply of the search
+    /// script, which is the size of the result and
+    /// the members of the page each followed by its
+    /// distance.
+    ///
+    /// @param  offset  int
+    /// @param  reply   java.lang.Object
+    /// @return         net.jmp.spring.boot.valkey.AddressGeoIndex.Page
+    private static Page toPage(final int offset, final Object reply) {
+        final Object[] parts = (Object[]) reply;
+        final Object[] range = (Object[]) parts[1];
+        final List<Match> matches = new ArrayList<>(range.length / 2);
+
+        for (int i = 0; i + 1 < range.length; i += 2) {
+            final String member = range[i].toString();
+            final int separator = member.lastIndexOf(':');
+
+            matches.add(new Match(member.substring(0, separator),
+                    Integer.parseInt(member.substring(separator + 1)),
+                    Double.parseDouble(range[i + 1].toString())));
+        }
+
+        return new Page(((Number) parts[0]).longValue(), offset, matches);
+    }
+
+    /// A match: an address and its distance from the
+    /// origin of the query in the unit of the query.
+    public static final class Match {
+        /// The person ID.
+        private final String personId;
+
+        /// The position of the address in the person's list.
+        private final int index;
+
+        /// The distance.
+        private final double distance;
+
+        /// The constructor.
+        ///
+        /// @param  personId    java.lang.String
+        /// @param  index       int
+        /// @param  distance    double
+        Match(final String personId, final int index, final double distance) {
+            super();
+
+            this.personId = personId;
+            this.index = index;
+            this.distance = distance;
+        }
+
+        /// Get the person ID.
+        ///
+        /// @return java.lang.String
+        public String getPersonId() {
+            return this.personId;
+        }
+
+        /// Get the position of the address in the person's list.
+        ///
+        /// @return int
+        public int getIndex() {
+            return this.index;
+        }
+
+        /// Get the distance.
+        ///
+        /// @return double
+        public double getDistance() {
+            return this.distance;
+        }
+
+        /// The default toString method.
+        ///
+        /// @return     java.lang.String
+        @Override
+        public String toString() {
+            return "Match{" +
+                    "personId='" + this.personId + '\'' +
+                    ", index=" + this.index +
+                    ", distance=" + this.distance +
+                    '}';
+        }
+    }
+
+    /// A page of the matches of a query.
+    public static final class Page {
+        /// The number of matches of the whole query.
+        private final long total;
+
+        /// The rank of the first match of the page.
+        private final int offset;
+
+        /// The matches of the page.
+        private final List<Match> matches;
+
+        /// The constructor.
+        ///
+        /// @param  total   long
+        /// @param  offset  int
+        /// @param  matches java.util.List<net.jmp.spring.boot.valkey.AddressGeoIndex.Match>
+        Page(final long total, final int offset, final List<Match> matches) {
+            super();
+
+            this.total = total;
+            this.offset = offset;
+            this.matches = List.copyOf(matches);
+        }
+
+        /// Get the number of matches of the whole query.
+        ///
+        /// @return long
+        public long getTotal() {
+            return this.total;
+        }
+
+        /// Get the rank of the first match of the page.
+        ///
+        /// @return int
+        public int getOffset() {
+            return this.offset;
+        }
+
+        /// Get the matches of the page.
+        ///
+        /// @return java.util.List<net.jmp.spring.boot.valkey.AddressGeoIndex.Match>
+        public List<Match> getMatches() {
+            return this.matches;
+        }
+
+        /// Tell if there are matches after this page.
+        ///
+        /// @return boolean
+        public boolean hasNext() {
+            return this.offset + this.matches.size() < this.total;
+        }
+
+        /// The default toString method.
+        ///
+        /// @return     java.lang.String
+        @Override
+        public String toString() {
+            return "Page{" +
+                    "total=" + this.total +
+                    ", offset=" + this.offset +
+                    ", matches=" + this.matches +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)AddressSerializer.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+
+/// The address serializer class.
+///
+/// Version 1: street name, city, state, zip code.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class AddressSerializer extends VersionedSerializer<Address> {
+    /// The current version.
+    public static final int VERSION = 1;
+
+    /// The default constructor.
+    public AddressSerializer() {
+        super(VERSION);
+    }
+
+    /// Write the fields of an address.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  output  com.esotericsoftware.kryo.kryo5.io.Output
+    /// @param  address net.jmp.spring.boot.valkey.Address
+    @Override
+    protected void writeFields(final Kryo kryo, final Output output, final Address address) {
+        output.writeString(address.getStreetName());
+        output.writeString(address.getCity());
+        output.writeString(address.getState());
+        output.writeString(address.getZipCode());
+    }
+
+    /// Read the fields of an address.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  input   com.esotericsoftware.kryo.kryo5.io.Input
+    /// @param  version int
+    /// @return         net.jmp.spring.boot.valkey.Address
+    @Override
+    protected Address readFields(final Kryo kryo, final Input input, final int version) {
+        final Address address = new Address();
+
+        address.setStreetName(input.readString());
+        address.setCity(input.readString());
+        address.setState(input.readString());
+        address.setZipCode(input.readString());
+
+        return address;
+    }
+}
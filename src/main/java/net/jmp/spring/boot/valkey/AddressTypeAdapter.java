@@ -0,0 +1,117 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)AddressTypeAdapter.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.TypeAdapter;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/// The address type adapter class. It writes and
+/// reads addresses as a stream of tokens, with the
+/// same field names as Gson's reflective adapter,
+/// so documents written by either can be read by
+/// the other.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class AddressTypeAdapter extends TypeAdapter<Address> {
+    /// The default constructor.
+    public AddressTypeAdapter() {
+        super();
+    }
+
+    /// Write an address.
+    ///
+    /// @param  out     com.google.gson.stream.JsonWriter
+    /// @param  address net.jmp.spring.boot.valkey.Address
+    /// @throws         java.io.IOException When an I/O error occurs
+    @Override
+    public void write(final JsonWriter out, final Address address) throws IOException {
+        if (address == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("streetName").value(address.getStreetName());
+        out.name("city").value(address.getCity());
+        out.name("state").value(address.getState());
+        out.name("zipCode").value(address.getZipCode());
+        out.endObject();
+    }
+
+    /// Read an address.
+    ///
+    /// @param  in  com.google.gson.stream.JsonReader
+    /// @return     net.jmp.spring.boot.valkey.Address
+    /// @throws     java.io.IOException When an I/O error occurs
+    @Override
+    public Address read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final Address address = new Address();
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "streetName" -> address.setStreetName(nextString(in));
+                case "city" -> address.setCity(nextString(in));
+                case "state" -> address.setState(nextString(in));
+                case "zipCode" -> address.setZipCode(nextString(in));
+                default -> in.skipValue();
+            }
+        }
+
+        in.endObject();
+
+        return address;
+    }
+
+    /// Read a string that may be null.
+    ///
+    /// @param  in  com.google.gson.stream.JsonReader
+    /// @return     java.lang.String
+    /// @throws     java.io.IOException When an I/O error occurs
+    static String nextString(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return in.nextString();
+    }
+}
@@ -1,6 +1,7 @@
 package net.jmp.spring.boot.valkey;
 
 /*
+ * (#)AnimalSerializer.java 0.4.0   10/19/2026
  * (#)AnimalSerializer.java 0.2.0   05/07/2025
  *
  * @author   Jonathan Parker
@@ -29,47 +30,51 @@ package net.jmp.spring.boot.valkey;
  */
 
 import com.esotericsoftware.kryo.kryo5.Kryo;
-import com.esotericsoftware.kryo.kryo5.Serializer;
 import com.esotericsoftware.kryo.kryo5.io.Input;
 import com.esotericsoftware.kryo.kryo5.io.Output;
 
 /// The animal serializer class.
 ///
-/// @version    0.2.0
+/// Version 1: type, name, color, age.
+///
+/// @version    0.4.0
 /// @since      0.2.0
-public class AnimalSerializer extends Serializer<Animal> {
+public class AnimalSerializer extends VersionedSerializer<Animal> {
+    /// The current version.
+    public static final int VERSION = 1;
+
     /// The default constructor.
     public AnimalSerializer() {
-        super();
+        super(VERSION);
     }
 
-    /// The default write method.
+    /// Write the fields of an animal.
     ///
     /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
     /// @param  output  com.esotericsoftware.kryo.kryo5.io.Output
     /// @param  animal  net.jmp.spring.boot.valkey.Animal
     @Override
-    public void write(final Kryo kryo, final Output output, final Animal animal) {
+    protected void writeFields(final Kryo kryo, final Output output, final Animal animal) {
         output.writeString(animal.getType());
         output.writeString(animal.getName());
         output.writeString(animal.getColor());
-        output.writeInt(animal.getAge());
+        output.writeVarInt(animal.getAge(), false);
     }
 
-    /// The default read method.
+    /// Read the fields of an animal.
     ///
     /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
     /// @param  input   com.esotericsoftware.kryo.kryo5.io.Input
-    /// @param  type    java.lang.Class<? extends net.jmp.spring.boot.valkey.Animal>
+    /// @param  version int
     /// @return         net.jmp.spring.boot.valkey.Animal
     @Override
-    public Animal read(final Kryo kryo, final Input input, final Class<? extends Animal> type) {
+    protected Animal readFields(final Kryo kryo, final Input input, final int version) {
         final Animal animal = new Animal();
 
         animal.setType(input.readString());
         animal.setName(input.readString());
         animal.setColor(input.readString());
-        animal.setAge(input.readInt());
+        animal.setAge(input.readVarInt(false));
 
         return animal;
     }
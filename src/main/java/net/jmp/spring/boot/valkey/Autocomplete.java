@@ -0,0 +1,647 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)Autocomplete.java     0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+
+import static glide.api.models.GlideString.gs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import java.util.function.Supplier;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The autocomplete class. It completes prefixes
+/// of terms, such as names, from a vocabulary kept
+/// in a sorted set per index, `complete:<index>`,
+/// where every member has the score zero. Such a
+/// set is ordered by the bytes of its members, so
+/// the terms with a prefix are one `ZRANGE BYLEX`
+/// range whose cost grows with the log of the
+/// vocabulary and the size of the page only.
+///
+/// A member is the term stripped and in lower case,
+/// a zero byte and then the term as it was added,
+/// so matching ignores case and a completion keeps
+/// the case it was added with.
+///
+/// Ranked completions order the first
+/// `valkey.complete.candidates` terms of a prefix
+/// by their weights in `complete:<index>:weights`,
+/// which [#select(String, String)] increments when
+/// a completion is chosen.
+///
+/// Adds and removes are gathered locally and sent
+/// every `valkey.complete.flushMillis` with one
+/// `ZADD` and one `ZREM` per index; until then they
+/// are not seen by completions. The completions of
+/// recent prefixes are kept locally for
+/// `valkey.complete.cacheMillis`, and an index's
+/// are dropped once its changes are written; a
+/// read that was in flight then is not cached.
+///
+/// The terms of an index that many owners share,
+/// such as the names of persons, are counted
+/// instead with [#reference(String, String)] and
+/// [#release(String, String)]. The changes of the
+/// counts are gathered the same way and applied in
+/// one script call per index, which keeps a term
+/// while its count in `complete:<index>:counts` is
+/// positive and removes it when the count falls to
+/// zero. Changes that fail to be sent are kept for
+/// the next flush, so after a timeout a change may
+/// be applied twice. An index is either counted or
+/// changed with add and remove, not both.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class Autocomplete {
+    /// The separator of the normalized and the original term.
+    private static final byte SEPARATOR = 0;
+
+    /// The keys of the vocabularies.
+    private static final KeyTemplate KEYS = KeyTemplate.of("complete");
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The script registry.
+    private final ScriptRegistry scriptRegistry;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The pending changes of each index: true to add a term and false to remove it.
+    private final ConcurrentMap<String, Map<String, Boolean>> pending = new ConcurrentHashMap<>();
+
+    /// The pending changes of the counts of each counted index.
+    private final ConcurrentMap<String, Map<String, Long>> pendingCounts = new ConcurrentHashMap<>();
+
+    /// The number of times the cached completions of each index were dropped; guarded by the cache.
+    private final Map<String, Long> generations = new HashMap<>();
+
+    /// The completions of recent prefixes, least recently used first.
+    private final Map<String, Completions> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /// The number of completions answered from the cache.
+    private final LongAdder cacheHits = new LongAdder();
+
+    /// The number of completions read from the server.
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /// The scheduler of the flushes.
+    private ScheduledExecutorService scheduler;
+
+    /// The interval in milliseconds between flushes.
+    @Value("${valkey.complete.flushMillis:1000}")
+    private long flushMillis;
+
+    /// The most terms ranked for one prefix.
+    @Value("${valkey.complete.candidates:100}")
+    private int candidates;
+
+    /// The most prefixes whose completions are kept locally.
+    @Value("${valkey.complete.cacheSize:1024}")
+    private int cacheSize;
+
+    /// The milliseconds completions are kept locally.
+    @Value("${valkey.complete.cacheMillis:2000}")
+    private long cacheMillis;
+
+    /// The constructor.
+    ///
+    /// @param  client          glide.api.GlideClient
+    /// @param  scriptRegistry  net.jmp.spring.boot.valkey.ScriptRegistry
+    /// @param  lifecycle       net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public Autocomplete(final GlideClient client,
+                        final ScriptRegistry scriptRegistry,
+                        final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.client = client;
+        this.scriptRegistry = scriptRegistry;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Start flushing.
+    @PostConstruct
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("valkey-complete")
+                .daemon(true)
+                .factory());
+
+        this.scheduler.scheduleWithFixedDelay(() -> this.flush().whenComplete((done, throwable) -> {
+            if (throwable != null) {
+                this.logger.warn("Unable to flush autocomplete changes: {}", throwable.getMessage());
+            }
+        }), this.flushMillis, this.flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /// Stop flushing and send what is left.
+    @PreDestroy
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+
+        try {
+            this.flush().join();
+        } catch (final CompletionException e) {
+            this.logger.warn("Unable to flush autocomplete changes at shutdown: {}", e.getMessage());
+        }
+    }
+
+    /// Add a term to an index.
+    ///
+    /// @param  index   java.lang.String    For example person:lastName
+    /// @param  term    java.lang.String
+    public void add(final String index, final String term) {
+        this.change(index, term, true);
+    }
+
+    /// Remove a term from an index.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  term    java.lang.String
+    public void remove(final String index, final String term) {
+        this.change(index, term, false);
+    }
+
+    /// Count one more owner of a term of a counted
+    /// index, adding the term if it is the first.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  term    java.lang.String
+    public void reference(final String index, final String term) {
+        this.count(index, term, 1);
+    }
+
+    /// Count one less owner of a term of a counted
+    /// index, removing the term if it was the last.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  term    java.lang.String
+    public void release(final String index, final String term) {
+        this.count(index, term, -1);
+    }
+
+    /// Record that a completion was chosen, which
+    /// ranks it higher.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  term    java.lang.String
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Double>    The new weight
+    public CompletableFuture<Double> select(final String index, final String term) {
+        return this.lifecycle.submit(() -> this.client.zincrby(this.weightsKey(index), 1, member(term)));
+    }
+
+    /// Send the changes gathered since the last flush.
+    ///
+    /// @return java.util.concurrent.CompletableFuture<java.lang.Void>
+    public CompletableFuture<Void> flush() {
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+
+        for (final String index : this.pending.keySet()) {
+            final Map<String, Boolean> changes = this.pending.remove(index);
+
+            if (changes == null || changes.isEmpty()) {
+                continue;
+            }
+
+            final Map<GlideString, Double> added = new HashMap<>();
+            final List<GlideString> removed = new ArrayList<>();
+
+            changes.forEach((term, add) -> {
+                if (add) {
+                    added.put(member(term), 0.0);
+                } else {
+                    removed.add(member(term));
+                }
+            });
+
+            final GlideString key = KEYS.key(index);
+            final List<CompletableFuture<Long>> writes = new ArrayList<>();
+
+            if (!added.isEmpty()) {
+                writes.add(this.client.zadd(key, added));
+            }
+
+            if (!removed.isEmpty()) {
+                final GlideString[] members = removed.toArray(GlideString[]::new);
+
+                writes.add(this.client.zrem(key, members));
+                writes.add(this.client.zrem(this.weightsKey(index), members));
+            }
+
+            futures.add(CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new))
+                    .whenComplete((done, throwable) -> this.evict(index)));
+        }
+
+        for (final String index : this.pendingCounts.keySet()) {
+            final Map<String, Long> changes = this.pendingCounts.remove(index);
+
+            if (changes == null) {
+                continue;
+            }
+
+            final List<GlideString> args = new ArrayList<>();
+
+            changes.forEach((term, change) -> {
+                if (change != 0) {
+                    args.add(member(term));
+                    args.add(gs(Long.toString(change)));
+                }
+            });
+
+            if (args.isEmpty()) {
+                continue;
+            }
+
+            futures.add(this.scriptRegistry.invoke(ServerScript.COMPLETE_COUNT,
+                            new GlideString[] { KEYS.key(index), this.countsKey(index), this.weightsKey(index) },
+                            args.toArray(GlideString[]::new))
+                    .whenComplete((size, throwable) -> {
+                        if (throwable != null) {
+                            changes.forEach((term, change) -> this.count(index, term, change));
+                        }
+
+                        this.evict(index);
+                    }));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+
+    /// Complete a prefix in the order of the terms.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  prefix  java.lang.String
+    /// @param  limit   int     The most completions
+    /// @return         java.util.concurrent.CompletableFuture<java.util.List<java.lang.String>>
+    public CompletableFuture<List<String>> complete(final String index, final String prefix, final int limit) {
+        return this.cached(index, prefix, limit, false, () -> this.range(index, prefix, limit)
+                .thenApply(Autocomplete::terms));
+    }
+
+    /// Complete a prefix in the order of the weights
+    /// of the terms, heaviest first. Only the first
+    /// `valkey.complete.candidates` terms of the
+    /// prefix are ranked.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  prefix  java.lang.String
+    /// @param  limit   int     The most completions
+    /// @return         java.util.concurrent.CompletableFuture<java.util.List<java.lang.String>>
+    public CompletableFuture<List<String>> completeRanked(final String index, final String prefix, final int limit) {
+        return this.cached(index, prefix, limit, true, () -> this.range(index, prefix, this.candidates)
+                .thenCompose(members -> members.length == 0
+                        ? CompletableFuture.completedFuture(List.of())
+                        : this.client.zmscore(this.weightsKey(index), members)
+                                .thenApply(weights -> rank(members, weights, limit))));
+    }
+
+    /// Get the number of completions answered from
+    /// the local cache.
+    ///
+    /// @return long
+    public long getCacheHits() {
+        return this.cacheHits.sum();
+    }
+
+    /// Get the number of completions read from the
+    /// server.
+    ///
+    /// @return long
+    public long getCacheMisses() {
+        return this.cacheMisses.sum();
+    }
+
+    /// Record a change of a term. The last change of
+    /// a term before a flush wins.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  term    java.lang.String
+    /// @param  add     boolean
+    private void change(final String index, final String term, final boolean add) {
+        if (term == null || term.isBlank()) {
+            return;
+        }
+
+        /* Compute is atomic per key, so a flush either takes the change or leaves it for the next one */
+
+        this.pending.compute(index, (key, changes) -> {
+            final Map<String, Boolean> map = changes == null ? new ConcurrentHashMap<>() : changes;
+
+            map.put(term.strip(), add);
+
+            return map;
+        });
+    }
+
+    /// Record a change of the count of a term.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  term    java.lang.String
+    /// @param  change  long
+    private void count(final String index, final String term, final long change) {
+        if (term == null || term.isBlank()) {
+            return;
+        }
+
+        this.pendingCounts.compute(index, (key, changes) -> {
+            final Map<String, Long> map = changes == null ? new ConcurrentHashMap<>() : changes;
+
+            map.merge(term.strip(), change, Long::sum);
+
+            return map;
+        });
+    }
+
+    /// Answer a completion from the local cache or
+    /// read and cache it. A read is not cached if the
+    /// index's completions are dropped while it is in
+    /// flight, as it may predate the changes.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  prefix  java.lang.String
+    /// @param  limit   int
+    /// @param  ranked  boolean
+    /// @param  reader  java.util.function.Supplier<java.util.concurrent.CompletableFuture<java.util.List<java.lang.String>>>
+    /// @return         java.util.concurrent.CompletableFuture<java.util.List<java.lang.String>>
+    private CompletableFuture<List<String>> cached(final String index,
+                                                   final String prefix,
+                                                   final int limit,
+                                                   final boolean ranked,
+                                                   final Supplier<CompletableFuture<List<String>>> reader) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit must be positive");
+        }
+
+        final String cacheKey = index + '\0' + normalize(prefix) + '\0' + limit + (ranked ? "r" : "");
+        final long now = System.currentTimeMillis();
+        final long generation;
+
+        synchronized (this.cache) {
+            final Completions completions = this.cache.get(cacheKey);
+
+            if (completions != null && completions.expires > now) {
+                this.cacheHits.increment();
+
+                return CompletableFuture.completedFuture(completions.terms);
+            }
+
+            generation = this.generations.getOrDefault(index, 0L);
+        }
+
+        this.cacheMisses.increment();
+
+        return this.lifecycle.submit(reader).thenApply(terms -> {
+            final Completions completions = new Completions(terms, now + this.cacheMillis);
+
+            synchronized (this.cache) {
+                if (this.generations.getOrDefault(index, 0L) == generation) {
+                    this.cache.put(cacheKey, completions);
+
+                    if (this.cache.size() > this.cacheSize) {
+                        this.cache.remove(this.cache.keySet().iterator().next());
+                    }
+                }
+            }
+
+            return completions.terms;
+        });
+    }
+
+    /// Drop the cached completions of an index.
+    ///
+    /// @param  index   java.lang.String
+    private void evict(final String index) {
+        final String start = index + '\0';
+
+        synchronized (this.cache) {
+            this.generations.merge(index, 1L, Long::sum);
+            this.cache.keySet().removeIf(key -> key.startsWith(start));
+        }
+    }
+
+    /// Read the members of an index that start with
+    /// a prefix.
+    ///
+    /// @param  index   java.lang.String
+    /// @param  prefix  java.lang.String
+    /// @param  limit   int
+    /// @return         java.util.concurrent.CompletableFuture<glide.api.models.GlideString[]>
+    private CompletableFuture<GlideString[]> range(final String index, final String prefix, final int limit) {
+        final GlideString[] bounds = bounds(prefix);
+
+        return this.client.customCommand(new GlideString[] {
+                KeyTemplate.intern("ZRANGE"),
+                KEYS.key(index),
+                bounds[0],
+                bounds[1],
+                KeyTemplate.intern("BYLEX"),
+                KeyTemplate.intern("LIMIT"),
+                KeyTemplate.intern("0"),
+                gs(Integer.toString(limit))
+        }).thenApply(reply -> Arrays.stream((Object[]) reply)
+                .map(GlideString.class::cast)
+                .toArray(GlideString[]::new));
+    }
+
+    /// Get the lexical bounds of the members that
+    /// start with a prefix: from `[prefix` to `(prefix`
+    /// followed by the byte 0xFF, which no UTF-8 text
+    /// contains.
+    ///
+    /// @param  prefix  java.lang.String
+    /// @return         glide.api.models.GlideString[]  The start and the end
+    static GlideString[] bounds(final String prefix) {
+        final byte[] bytes = normalize(prefix).getBytes(StandardCharsets.UTF_8);
+        final byte[] start = new byte[bytes.length + 1];
+        final byte[] end = new byte[bytes.length + 2];
+
+        start[0] = '[';
+        end[0] = '(';
+        System.arraycopy(bytes, 0, start, 1, bytes.length);
+        System.arraycopy(bytes, 0, end, 1, bytes.length);
+        end[end.length - 1] = (byte) 0xFF;
+
+        return new GlideString[] { gs(start), gs(end) };
+    }
+
+    /// Get the key of the weights of an index.
+    ///
+    /// @param  index   java.lang.String
+    /// @return         glide.api.models.GlideString
+    private GlideString weightsKey(final String index) {
+        return KEYS.key(index + ":weights");
+    }
+
+    /// Get the key of the counts of an index.
+    ///
+    /// @param  index   java.lang.String
+    /// @return         glide.api.models.GlideString
+    private GlideString countsKey(final String index) {
+        return KEYS.key(index + ":counts");
+    }
+
+    /// Normalize a term or prefix.
+    ///
+    /// @param  term    java.lang.String
+    /// @return         java.lang.String
+    private static String normalize(final String term) {
+        return term.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /// Make the member of a term.
+    ///
+    /// @param  term    java.lang.String
+    /// @return         glide.api.models.GlideString
+    static GlideString member(final String term) {
+        final String original = term.strip();
+        final byte[] normalized = normalize(original).getBytes(StandardCharsets.UTF_8);
+        final byte[] display = original.getBytes(StandardCharsets.UTF_8);
+        final byte[] member = new byte[normalized.length + 1 + display.length];
+
+        System.arraycopy(normalized, 0, member, 0, normalized.length);
+        member[normalized.length] = SEPARATOR;
+        System.arraycopy(display, 0, member, normalized.length + 1, display.length);
+
+        return gs(member);
+    }
+
+    /// Get the term of a member.
+    ///
+    /// @param  member  glide.api.models.GlideString
+    /// @return         java.lang.String
+    static String term(final GlideString member) {
+        final byte[] bytes = member.getBytes();
+        int separator = 0;
+
+        while (separator < bytes.length && bytes[separator] != SEPARATOR) {
+            separator++;
+        }
+
+        return separator == bytes.length
+                ? new String(bytes, StandardCharsets.UTF_8)
+                : new String(bytes, separator + 1, bytes.length - separator - 1, StandardCharsets.UTF_8);
+    }
+
+    /// Get the terms of members.
+    ///
+    /// @param  members glide.api.models.GlideString[]
+    /// @return         java.util.List<java.lang.String>
+    private static List<String> terms(final GlideString[] members) {
+        final List<String> terms = new ArrayList<>(members.length);
+
+        for (final GlideString member : members) {
+            terms.add(term(member));
+        }
+
+        return terms;
+    }
+
+    /// Rank members by weight, heaviest first and
+    /// then in their order.
+    ///
+    /// @param  members glide.api.models.GlideString[]
+    /// @param  weights java.lang.Double[]  Null for a member never chosen
+    /// @param  limit   int
+    /// @return         java.util.List<java.lang.String>
+    static List<String> rank(final GlideString[] members, final Double[] weights, final int limit) {
+        final Integer[] order = new Integer[members.length];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+
+        /* The sort is stable, so terms of equal weight stay in lexical order */
+
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> weights[i] == null ? 0.0 : weights[i]).reversed());
+
+        final List<String> terms = new ArrayList<>(Math.min(limit, order.length));
+
+        for (int i = 0; i < order.length && i < limit; i++) {
+            terms.add(term(members[order[i]]));
+        }
+
+        return terms;
+    }
+
+    /// The completions of a prefix and when they
+    /// expire.
+    private static final class Completions {
+        /// The terms.
+        private final List<String> terms;
+
+        /// The time they expire in epoch milliseconds.
+        private final long expires;
+
+        /// The constructor.
+        ///
+        /// @param  terms   java.util.List<java.lang.String>
+        /// @param  expires long
+        private Completions(final List<String> terms, final long expires) {
+            super();
+
+            this.terms = List.copyOf(terms);
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,633 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)Benchmark.java      0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.Gson;
+
+import glide.api.GlideClient;
+
+import static glide.api.models.GlideString.gs;
+
+import glide.api.models.GlideString;
+import glide.api.models.PubSubMessage;
+
+import glide.api.models.commands.RangeOptions;
+
+import glide.api.models.commands.scan.ScanOptions;
+
+import glide.api.models.configuration.StandaloneSubscriptionConfiguration;
+
+import static glide.api.models.configuration.StandaloneSubscriptionConfiguration.PubSubChannelMode.EXACT;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import java.nio.ByteBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.*;
+
+import java.util.concurrent.*;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import java.util.function.LongSupplier;
+
+import java.util.stream.IntStream;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The benchmark class. It drives a configurable
+/// workload through the application's own Glide
+/// client and codec, records latencies in HDR
+/// histograms and reports them as percentiles.
+///
+/// Each of the concurrent workers keeps up to the
+/// pipeline depth of commands outstanding until the
+/// duration has passed. Every setting is a
+/// `valkey.benchmark.*` property, so any of them can
+/// be given on the command line, e.g.
+/// `--valkey.benchmark.workload=zset`.
+///
+/// The JSON workload sends no commands. Running it
+/// once as is and once with
+/// `--valkey.benchmark.jsonReflection=true` compares
+/// the streaming domain adapters with Gson's
+/// reflective ones.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class Benchmark {
+    /// The workloads.
+    public enum Workload {
+        /// GET and SET of string values.
+        GET_SET,
+        /// HGET and HSET of hash fields.
+        HASH,
+        /// RPOP and LPUSH of list elements.
+        LIST,
+        /// ZRANGE and ZADD of sorted set members.
+        ZSET,
+        /// GET and SET of persons encoded with the value codec.
+        OBJECT,
+        /// PUBLISH to a channel with a number of subscribers.
+        PUBSUB,
+        /// Decoding and encoding of persons as JSON, without Valkey.
+        JSON
+    }
+
+    /// The key distributions.
+    public enum Distribution {
+        /// Every key is equally likely.
+        UNIFORM,
+        /// A few keys get most of the traffic.
+        ZIPFIAN
+    }
+
+    /// The pub/sub channel.
+    private static final GlideString CHANNEL = KeyTemplate.intern("bench:channel");
+
+    /// The number of fields per hash, lists and sorted sets.
+    private static final int FANOUT = 100;
+
+    /// The string keys.
+    private static final KeyTemplate STRING_KEYS = KeyTemplate.of("bench", "s");
+
+    /// The hash keys.
+    private static final KeyTemplate HASH_KEYS = KeyTemplate.of("bench", "h");
+
+    /// The list keys.
+    private static final KeyTemplate LIST_KEYS = KeyTemplate.of("bench", "l");
+
+    /// The sorted set keys.
+    private static final KeyTemplate ZSET_KEYS = KeyTemplate.of("bench", "z");
+
+    /// The object keys.
+    private static final KeyTemplate OBJECT_KEYS = KeyTemplate.of("bench", "o");
+
+    /// The sorted set members.
+    private static final KeyTemplate MEMBERS = new KeyTemplate("m");
+
+    /// The hash fields.
+    private static final GlideString[] FIELDS = IntStream.range(0, FANOUT)
+            .mapToObj(i -> KeyTemplate.intern("f" + i))
+            .toArray(GlideString[]::new);
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The Glide client factory.
+    private final GlideClientFactory glideClientFactory;
+
+    /// The value codec.
+    private final ValueCodec codec;
+
+    /// The application's Gson, with the streaming domain adapters.
+    private final Gson gson;
+
+    /// A Gson with only the reflective adapters.
+    private final Gson reflectiveGson = new Gson();
+
+    /// The workload.
+    @Value("${valkey.benchmark.workload:GET_SET}")
+    private Workload workload;
+
+    /// The number of concurrent workers.
+    @Value("${valkey.benchmark.concurrency:16}")
+    private int concurrency;
+
+    /// The number of commands each worker keeps outstanding.
+    @Value("${valkey.benchmark.pipelineDepth:8}")
+    private int pipelineDepth;
+
+    /// The number of distinct keys.
+    @Value("${valkey.benchmark.keyCount:100000}")
+    private long keyCount;
+
+    /// The key distribution.
+    @Value("${valkey.benchmark.distribution:UNIFORM}")
+    private Distribution distribution;
+
+    /// The Zipfian skew.
+    @Value("${valkey.benchmark.zipfianTheta:0.99}")
+    private double zipfianTheta;
+
+    /// The fraction of commands that are reads.
+    @Value("${valkey.benchmark.readRatio:0.8}")
+    private double readRatio;
+
+    /// The size in bytes of written values.
+    @Value("${valkey.benchmark.valueSize:100}")
+    private int valueSize;
+
+    /// The run time in seconds.
+    @Value("${valkey.benchmark.durationSeconds:30}")
+    private long durationSeconds;
+
+    /// The interval in seconds between reports.
+    @Value("${valkey.benchmark.reportSeconds:5}")
+    private long reportSeconds;
+
+    /// The number of subscribers for the pub/sub workload.
+    @Value("${valkey.benchmark.subscribers:4}")
+    private int subscribers;
+
+    /// True to write every key before the run starts.
+    @Value("${valkey.benchmark.preload:true}")
+    private boolean preload;
+
+    /// True to delete the benchmark keys after the run.
+    @Value("${valkey.benchmark.cleanup:true}")
+    private boolean cleanup;
+
+    /// True for the JSON workload to use Gson's reflective adapters.
+    @Value("${valkey.benchmark.jsonReflection:false}")
+    private boolean jsonReflection;
+
+    /// The prefix of the HDR histogram output files; empty for none.
+    @Value("${valkey.benchmark.output:}")
+    private String output;
+
+    /// The constructor.
+    ///
+    /// @param  client              glide.api.GlideClient
+    /// @param  glideClientFactory  net.jmp.spring.boot.valkey.GlideClientFactory
+    /// @param  codec               net.jmp.spring.boot.valkey.ValueCodec
+    /// @param  gson                com.google.gson.Gson
+    public Benchmark(final GlideClient client,
+                     final GlideClientFactory glideClientFactory,
+                     final ValueCodec codec,
+                     final Gson gson) {
+        super();
+
+        this.client = client;
+        this.glideClientFactory = glideClientFactory;
+        this.codec = codec;
+        this.gson = gson;
+    }
+
+    /// Run the benchmark.
+    ///
+    /// @throws java.lang.InterruptedException  When interrupted while running
+    /// @throws java.io.IOException             When the histograms cannot be written
+    public void run() throws InterruptedException, IOException {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        this.logger.info("Benchmark {}: concurrency {}, pipeline depth {}, {} {} keys, read ratio {}, {} byte values, {} seconds",
+                this.workload, this.concurrency, this.pipelineDepth, this.keyCount, this.distribution,
+                this.readRatio, this.valueSize, this.durationSeconds);
+
+        final LongSupplier keys = this.distribution == Distribution.ZIPFIAN
+                ? new ZipfianGenerator(this.keyCount, this.zipfianTheta)::next
+                : () -> ThreadLocalRandom.current().nextLong(this.keyCount);
+        final Operations operations = new Operations();
+        final List<GlideClient> subscriberClients = new ArrayList<>();
+
+        try {
+            if (this.workload == Workload.PUBSUB) {
+                for (int i = 0; i < this.subscribers; i++) {
+                    subscriberClients.add(this.subscribe(operations.delivery));
+                }
+            } else if (this.workload != Workload.JSON && this.preload && this.readRatio > 0) {
+                this.preload();
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(this.durationSeconds);
+            final long start = System.nanoTime();
+
+            try (final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+                 final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                reporter.scheduleAtFixedRate(() -> operations.report("interval", this.reportSeconds),
+                        this.reportSeconds,
+                        this.reportSeconds,
+                        TimeUnit.SECONDS);
+
+                for (int i = 0; i < this.concurrency; i++) {
+                    workers.submit(() -> this.work(deadline, keys, operations));
+                }
+
+                workers.shutdown();
+                workers.awaitTermination(this.durationSeconds + 60, TimeUnit.SECONDS);
+                reporter.shutdownNow();
+            }
+
+            operations.accumulate();
+            operations.report("total", (System.nanoTime() - start) / 1e9);
+
+            if (!this.output.isBlank()) {
+                operations.write(this.output);
+            }
+        } finally {
+            for (final GlideClient subscriberClient : subscriberClients) {
+                try {
+                    subscriberClient.close();
+                } catch (final ExecutionException e) {
+                    this.logger.warn("Unable to close a subscriber: {}", e.getMessage(), e);
+                }
+            }
+
+            if (this.cleanup) {
+                this.cleanup();
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// The work of one worker.
+    ///
+    /// @param  deadline    long    The time to stop
+    /// @param  keys        java.util.function.LongSupplier
+    /// @param  operations  net.jmp.spring.boot.valkey.Benchmark.Operations
+    private void work(final long deadline, final LongSupplier keys, final Operations operations) {
+        final Semaphore window = new Semaphore(this.pipelineDepth);
+        final Person person = this.newPerson();
+        final byte[] value = this.workload == Workload.JSON
+                ? this.json().toJson(person).getBytes(StandardCharsets.UTF_8)
+                : this.newValue();
+
+        try {
+            while (System.nanoTime() < deadline) {
+                window.acquire();
+
+                final boolean read = this.workload != Workload.PUBSUB
+                        && ThreadLocalRandom.current().nextDouble() < this.readRatio;
+                final long key = keys.getAsLong();
+                final Operation operation = read ? operations.read : operations.write;
+                final long start = System.nanoTime();
+
+                final CompletableFuture<?> future;
+
+                try {
+                    future = this.execute(read, key, value, person);
+                } catch (final RuntimeException e) {
+                    operation.errors.increment();
+                    window.release();
+                    continue;
+                }
+
+                future.whenComplete((result, throwable) -> {
+                    operation.recorder.recordValue(System.nanoTime() - start);
+
+                    if (throwable != null) {
+                        operation.errors.increment();
+                    }
+
+                    window.release();
+                });
+            }
+
+            window.acquire(this.pipelineDepth);     // Wait for the outstanding commands
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /// Execute one command of the workload.
+    ///
+    /// @param  read    boolean
+    /// @param  key     long
+    /// @param  value   byte[]
+    /// @param  person  net.jmp.spring.boot.valkey.Person
+    /// @return         java.util.concurrent.CompletableFuture<?>
+    private CompletableFuture<?> execute(final boolean read, final long key, final byte[] value, final Person person) {
+        return switch (this.workload) {
+            case GET_SET -> read
+                    ? this.client.get(STRING_KEYS.key(key))
+                    : this.client.set(STRING_KEYS.key(key), gs(value));
+            case HASH -> read
+                    ? this.client.hget(HASH_KEYS.key(key / FANOUT), FIELDS[(int) (key % FANOUT)])
+                    : this.client.hset(HASH_KEYS.key(key / FANOUT), Map.of(FIELDS[(int) (key % FANOUT)], gs(value)));
+            case LIST -> read
+                    ? this.client.rpop(LIST_KEYS.key(key % FANOUT))
+                    : this.client.lpush(LIST_KEYS.key(key % FANOUT), new GlideString[] { gs(value) });
+            case ZSET -> read
+                    ? this.client.zrange(ZSET_KEYS.key(key % FANOUT), new RangeOptions.RangeByIndex(0, 9))
+                    : this.client.zadd(ZSET_KEYS.key(key % FANOUT), Map.of(MEMBERS.key(key), (double) key));
+            case OBJECT -> read
+                    ? this.client.get(OBJECT_KEYS.key(key)).thenApply(v -> v == null ? null : this.codec.decode(v.getBytes()))
+                    : this.client.set(OBJECT_KEYS.key(key), gs(this.codec.encode(person)));
+            case PUBSUB -> this.client.publish(gs(this.timestamped(value)), CHANNEL);
+            case JSON -> CompletableFuture.completedFuture(read
+                    ? this.json().fromJson(new String(value, StandardCharsets.UTF_8), Person.class)
+                    : this.json().toJson(person));
+        };
+    }
+
+    /// Write every key so that reads hit.
+    ///
+    /// @throws java.lang.InterruptedException  When interrupted while waiting
+    private void preload() throws InterruptedException {
+        final int window = this.concurrency * this.pipelineDepth;
+        final Semaphore inFlight = new Semaphore(window);
+        final LongAdder errors = new LongAdder();
+        final byte[] value = this.newValue();
+        final Person person = this.newPerson();
+
+        this.logger.info("Preloading {} keys", this.keyCount);
+
+        for (long key = 0; key < this.keyCount; key++) {
+            inFlight.acquire();
+
+            this.execute(false, key, value, person).whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    errors.increment();
+                }
+
+                inFlight.release();
+            });
+        }
+
+        inFlight.acquire(window);
+
+        if (errors.sum() > 0) {
+            this.logger.warn("{} preload writes failed", errors.sum());
+        }
+    }
+
+    /// Connect a subscriber that records the
+    /// latency of each message it receives.
+    ///
+    /// @param  delivery    net.jmp.spring.boot.valkey.Benchmark.Operation
+    /// @return             glide.api.GlideClient
+    private GlideClient subscribe(final Operation delivery) {
+        final StandaloneSubscriptionConfiguration config = StandaloneSubscriptionConfiguration.builder()
+                .subscription(EXACT, CHANNEL)
+                .callback((PubSubMessage message, Object context) -> {
+                    final long sent = ByteBuffer.wrap(message.getMessage().getBytes()).getLong();
+
+                    delivery.recorder.recordValue(Math.max(0, System.nanoTime() - sent));
+                })
+                .build();
+
+        return this.glideClientFactory.connect(config);
+    }
+
+    /// Delete the benchmark keys.
+    private void cleanup() {
+        final ScanOptions options = ScanOptions.builder()
+                .matchPattern("bench:*")
+                .count(1000L)
+                .build();
+        final List<CompletableFuture<Long>> unlinks = new ArrayList<>();
+
+        GlideString cursor = gs("0");
+
+        do {
+            final Object[] result = this.client.scan(cursor, options).join();
+            final Object[] keys = (Object[]) result[1];
+
+            cursor = (GlideString) result[0];
+
+            if (keys.length > 0) {
+                unlinks.add(this.client.unlink(Arrays.copyOf(keys, keys.length, GlideString[].class)));
+            }
+        } while (!"0".equals(cursor.getString()));
+
+        this.logger.info("Deleted {} benchmark keys", unlinks.stream().mapToLong(CompletableFuture::join).sum());
+    }
+
+    /// Get the Gson of the JSON workload.
+    ///
+    /// @return com.google.gson.Gson
+    private Gson json() {
+        return this.jsonReflection ? this.reflectiveGson : this.gson;
+    }
+
+    /// Build a pub/sub message that starts with the time it was sent.
+    ///
+    /// @param  value   byte[]
+    /// @return         byte[]
+    private byte[] timestamped(final byte[] value) {
+        return ByteBuffer.allocate(Long.BYTES + value.length)
+                .putLong(System.nanoTime())
+                .put(value)
+                .array();
+    }
+
+    /// Create a random value.
+    ///
+    /// @return byte[]
+    private byte[] newValue() {
+        final byte[] value = new byte[this.valueSize];
+
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) ('a' + ThreadLocalRandom.current().nextInt(26));
+        }
+
+        return value;
+    }
+
+    /// Create a person.
+    ///
+    /// @return net.jmp.spring.boot.valkey.Person
+    private Person newPerson() {
+        final Address address = new Address();
+
+        address.setStreetName("1 Main Street");
+        address.setCity("Baltimore");
+        address.setState("MD");
+        address.setZipCode("21201");
+
+        final Person person = new Person();
+
+        person.setFirstName("First");
+        person.setLastName("Last");
+        person.setAge(42);
+        person.setAddresses(List.of(address));
+        person.setPhoneNumbers(List.of("410-555-0100"));
+
+        return person;
+    }
+
+    /// The latencies and errors of one kind of operation.
+    private static final class Operation {
+        /// The name.
+        private final String name;
+
+        /// The recorder.
+        private final Recorder recorder = new Recorder(3);
+
+        /// The latencies of the whole run.
+        private final Histogram total = new Histogram(3);
+
+        /// The number of errors.
+        private final LongAdder errors = new LongAdder();
+
+        /// A constructor.
+        ///
+        /// @param  name    java.lang.String
+        private Operation(final String name) {
+            super();
+
+            this.name = name;
+        }
+    }
+
+    /// The operations of a run.
+    private final class Operations {
+        /// The reads.
+        private final Operation read = new Operation("read");
+
+        /// The writes.
+        private final Operation write = new Operation("write");
+
+        /// The pub/sub deliveries.
+        private final Operation delivery = new Operation("delivery");
+
+        /// Report the interval since the last report and
+        /// add it to the totals. This is only called by
+        /// one thread at a time.
+        ///
+        /// @param  label   java.lang.String
+        /// @param  seconds double  The length of the interval
+        private void report(final String label, final double seconds) {
+            for (final Operation operation : List.of(this.read, this.write, this.delivery)) {
+                final Histogram histogram = "total".equals(label) ? operation.total : this.drain(operation);
+
+                if (histogram.getTotalCount() > 0) {
+                    logger.info("{} {}: {} ops, {} ops/s, p50 {} us, p90 {} us, p99 {} us, p99.9 {} us, p99.99 {} us, max {} us, {} errors",
+                            label,
+                            operation.name,
+                            histogram.getTotalCount(),
+                            Math.round(histogram.getTotalCount() / seconds),
+                            histogram.getValueAtPercentile(50) / 1000,
+                            histogram.getValueAtPercentile(90) / 1000,
+                            histogram.getValueAtPercentile(99) / 1000,
+                            histogram.getValueAtPercentile(99.9) / 1000,
+                            histogram.getValueAtPercentile(99.99) / 1000,
+                            histogram.getMaxValue() / 1000,
+                            operation.errors.sum());
+                }
+            }
+        }
+
+        /// Add what has been recorded since the last
+        /// report to the totals.
+        private void accumulate() {
+            for (final Operation operation : List.of(this.read, this.write, this.delivery)) {
+                this.drain(operation);
+            }
+        }
+
+        /// Write the percentile distribution of each
+        /// operation in microseconds to an .hgrm file.
+        ///
+        /// @param  prefix  java.lang.String
+        /// @throws         java.io.IOException When a file cannot be written
+        private void write(final String prefix) throws IOException {
+            for (final Operation operation : List.of(this.read, this.write, this.delivery)) {
+                if (operation.total.getTotalCount() > 0) {
+                    final Path path = Path.of(prefix + "-" + operation.name + ".hgrm");
+
+                    try (final PrintStream stream = new PrintStream(Files.newOutputStream(path))) {
+                        operation.total.outputPercentileDistribution(stream, 1000.0);
+                    }
+
+                    logger.info("Wrote {}", path);
+                }
+            }
+        }
+
+        /// Take the interval histogram of an operation
+        /// and add it to the operation's totals.
+        ///
+        /// @param  operation   net.jmp.spring.boot.valkey.Benchmark.Operation
+        /// @return             org.HdrHistogram.Histogram
+        private Histogram drain(final Operation operation) {
+            final Histogram interval = operation.recorder.getIntervalHistogram();
+
+            operation.total.add(interval);
+
+            return interval;
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)BloomFilter.java    0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+
+import static glide.api.models.GlideString.gs;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import java.nio.ByteOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import java.util.concurrent.CompletableFuture;
+
+/// The Bloom filter class. Its bits are kept in
+/// Valkey bitmaps, so every instance of the
+/// application shares one filter, and it answers
+/// whether an item might have been added: a false
+/// answer is certain, a true answer is wrong with
+/// about the configured probability.
+///
+/// The number of bits and hash functions follow
+/// from the expected number of items and the
+/// false positive rate. The bits are split over
+/// segment keys of at most a configured size,
+/// which keeps each bitmap well under the 512 MB
+/// limit of a string. Each item sets or reads its
+/// bits with one `BITFIELD` or `BITFIELD_RO` per
+/// segment for a whole batch; the segments' commands
+/// are sent together, so a batch costs one round
+/// trip.
+///
+/// A mirrored filter also keeps a local copy of
+/// the bits, refreshed by [BloomFilters], and
+/// answers checks from it. Bits are never cleared,
+/// so the copy can only miss items added by other
+/// instances since the last refresh; use it for
+/// filters that are read far more than written.
+///
+/// Every instance must create a filter with the
+/// same expected items and false positive rate.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class BloomFilter {
+    /// The view of a byte array as little-endian longs.
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /// The seed of the first hash.
+    private static final long SEED_1 = 0x9747b28cL;
+
+    /// The seed of the second hash.
+    private static final long SEED_2 = 0x5bd1e995L;
+
+    /// The bitfield argument of a one-bit unsigned integer.
+    private static final GlideString U1 = KeyTemplate.intern("u1");
+
+    /// The bitfield set value.
+    private static final GlideString ONE = KeyTemplate.intern("1");
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The name.
+    private final String name;
+
+    /// The number of bits.
+    private final long bits;
+
+    /// The number of hash functions.
+    private final int hashes;
+
+    /// The number of bits in a segment.
+    private final long segmentBits;
+
+    /// The key of each segment.
+    private final GlideString[] segmentKeys;
+
+    /// The local copy of each segment; null when the filter is not mirrored.
+    private volatile byte[][] mirror;
+
+    /// The lock of changes to the local copy.
+    private final Object mirrorLock = new Object();
+
+    /// The offsets of the adds not yet acknowledged by the server.
+    private final List<long[][]> unacknowledged = new ArrayList<>();
+
+    /// The offsets added locally during each refresh in flight.
+    private final List<List<long[]>> refreshes = new ArrayList<>();
+
+    /// The constructor.
+    ///
+    /// @param  client              glide.api.GlideClient
+    /// @param  lifecycle           net.jmp.spring.boot.valkey.ValkeyLifecycle
+    /// @param  name                java.lang.String
+    /// @param  expectedItems       long
+    /// @param  falsePositiveRate   double  Between zero and one
+    /// @param  segmentBits         long    The most bits in one key, up to 2^32
+    /// @param  mirrored            boolean True to answer checks from a local copy
+    /// @throws                     java.lang.IllegalArgumentException  When a size or rate is out of range
+    public BloomFilter(final GlideClient client,
+                       final ValkeyLifecycle lifecycle,
+                       final String name,
+                       final long expectedItems,
+                       final double falsePositiveRate,
+                       final long segmentBits,
+                       final boolean mirrored) {
+        super();
+
+        if (expectedItems <= 0) {
+            throw new IllegalArgumentException("Expected items must be positive: " + expectedItems);
+        }
+
+        if (falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+
+        if (segmentBits <= 0 || segmentBits > 1L << 32) {
+            throw new IllegalArgumentException("Segment bits must be from 1 to 2^32: " + segmentBits);
+        }
+
+        final double ln2 = Math.log(2);
+
+        this.client = client;
+        this.lifecycle = lifecycle;
+        this.name = name;
+        this.bits = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.hashes = Math.max(1, (int) Math.round((double) this.bits / expectedItems * ln2));
+        this.segmentBits = Math.min(segmentBits, this.bits);
+
+        final KeyTemplate keys = KeyTemplate.of("bloom", name);
+        final int segments = (int) ((this.bits + this.segmentBits - 1) / this.segmentBits);
+
+        this.segmentKeys = new GlideString[segments];
+
+        for (int i = 0; i < segments; i++) {
+            this.segmentKeys[i] = keys.key(i);
+        }
+
+        if (mirrored) {
+            this.mirror = new byte[segments][];
+
+            Arrays.fill(this.mirror, new byte[0]);
+        }
+    }
+
+    /// Add an item.
+    ///
+    /// @param  item    byte[]
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Boolean>   True if the item was not already present
+    public CompletableFuture<Boolean> add(final byte[] item) {
+        return this.addAll(List.of(item)).thenApply(added -> added[0]);
+    }
+
+    /// Add items in one round trip.
+    ///
+    /// @param  items   java.util.List<byte[]>
+    /// @return         java.util.concurrent.CompletableFuture<boolean[]>   True for each item that was not already present
+    public CompletableFuture<boolean[]> addAll(final List<byte[]> items) {
+        final long[][] offsets = this.offsets(items);
+
+        if (this.mirror != null) {
+            synchronized (this.mirrorLock) {
+                for (final long[] itemOffsets : offsets) {
+                    this.setLocal(this.mirror, itemOffsets);
+                }
+
+                for (final List<long[]> added : this.refreshes) {
+                    added.addAll(Arrays.asList(offsets));
+                }
+
+                this.unacknowledged.add(offsets);
+            }
+        }
+
+        return this.lifecycle.submit(() -> this.bitfield(KeyTemplate.intern("BITFIELD"), KeyTemplate.intern("SET"), offsets))
+                .whenComplete((previous, throwable) -> {
+                    if (this.mirror != null) {
+                        synchronized (this.mirrorLock) {
+                            this.unacknowledged.remove(offsets);
+                        }
+                    }
+                })
+                .thenApply(previous -> anyZero(previous, items.size()));
+    }
+
+    /// Check whether an item might have been added.
+    ///
+    /// @param  item    byte[]
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Boolean>
+    public CompletableFuture<Boolean> mightContain(final byte[] item) {
+        return this.mightContainAll(List.of(item)).thenApply(present -> present[0]);
+    }
+
+    /// Check whether items might have been added,
+    /// in one round trip or none when the filter is
+    /// mirrored.
+    ///
+    /// @param  items   java.util.List<byte[]>
+    /// @return         java.util.concurrent.CompletableFuture<boolean[]>
+    public CompletableFuture<boolean[]> mightContainAll(final List<byte[]> items) {
+        final long[][] offsets = this.offsets(items);
+        final byte[][] localBits = this.mirror;
+
+        if (localBits != null) {
+            final boolean[] present = new boolean[offsets.length];
+
+            for (int i = 0; i < offsets.length; i++) {
+                present[i] = true;
+
+                for (final long offset : offsets[i]) {
+                    if (!this.isSetLocal(localBits, offset)) {
+                        present[i] = false;
+
+                        break;
+                    }
+                }
+            }
+
+            return CompletableFuture.completedFuture(present);
+        }
+
+        return this.lifecycle.submit(() -> this.bitfield(KeyTemplate.intern("BITFIELD_RO"), KeyTemplate.intern("GET"), offsets))
+                .thenApply(values -> {
+                    final boolean[] absent = anyZero(values, items.size());
+
+                    for (int i = 0; i < absent.length; i++) {
+                        absent[i] = !absent[i];
+                    }
+
+                    return absent;
+                });
+    }
+
+    /// Read the segments into the local copy. Does
+    /// nothing when the filter is not mirrored. The
+    /// items this instance adds while the segments
+    /// are read, or had added but the server had
+    /// not yet acknowledged, are set again in the
+    /// new copy, as the reads may have missed them.
+    ///
+    /// @return java.util.concurrent.CompletableFuture<java.lang.Void>
+    public CompletableFuture<Void> refreshMirror() {
+        if (this.mirror == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        final List<long[]> added = new ArrayList<>();
+
+        synchronized (this.mirrorLock) {
+            for (final long[][] offsets : this.unacknowledged) {
+                added.addAll(Arrays.asList(offsets));
+            }
+
+            this.refreshes.add(added);
+        }
+
+        final byte[][] segments = new byte[this.segmentKeys.length][];
+        final CompletableFuture<?>[] reads = new CompletableFuture<?>[this.segmentKeys.length];
+
+        for (int i = 0; i < this.segmentKeys.length; i++) {
+            final int segment = i;
+
+            reads[i] = this.client.get(this.segmentKeys[i])
+                    .thenAccept(value -> segments[segment] = value == null ? new byte[0] : value.getBytes());
+        }
+
+        return CompletableFuture.allOf(reads).whenComplete((done, throwable) -> {
+            synchronized (this.mirrorLock) {
+                this.refreshes.remove(added);
+
+                if (throwable == null) {
+                    for (final long[] itemOffsets : added) {
+                        this.setLocal(segments, itemOffsets);
+                    }
+
+                    this.mirror = segments;
+                }
+            }
+        });
+    }
+
+    /// Delete the filter's keys.
+    ///
+    /// @return java.util.concurrent.CompletableFuture<java.lang.Long>
+    public CompletableFuture<Long> delete() {
+        if (this.mirror != null) {
+            final byte[][] empty = new byte[this.segmentKeys.length][];
+
+            Arrays.fill(empty, new byte[0]);
+
+            synchronized (this.mirrorLock) {
+                this.mirror = empty;
+            }
+        }
+
+        return this.lifecycle.submit(() -> this.client.del(this.segmentKeys));
+    }
+
+    /// Return the name.
+    ///
+    /// @return java.lang.String
+    public String getName() {
+        return this.name;
+    }
+
+    /// Return the number of bits.
+    ///
+    /// @return long
+    public long getBits() {
+        return this.bits;
+    }
+
+    /// Return the number of hash functions.
+    ///
+    /// @return int
+    public int getHashes() {
+        return this.hashes;
+    }
+
+    /// Return the number of segment keys.
+    ///
+    /// @return int
+    public int getSegments() {
+        return this.segmentKeys.length;
+    }
+
+    /// Return true when checks are answered from a local copy.
+    ///
+    /// @return boolean
+    public boolean isMirrored() {
+        return this.mirror != null;
+    }
+
+    /// Send one bitfield command per segment for the
+    /// bits of all the items, and return the values
+    /// in item and hash order.
+    ///
+    /// @param  command     glide.api.models.GlideString
+    /// @param  operation   glide.api.models.GlideString
+    /// @param  offsets     long[][]
+    /// @return             java.util.concurrent.CompletableFuture<long[]>
+    private CompletableFuture<long[]> bitfield(final GlideString command,
+                                               final GlideString operation,
+                                               final long[][] offsets) {
+        final boolean set = operation.equals(KeyTemplate.intern("SET"));
+        final int width = set ? 4 : 3;
+        final List<List<GlideString>> arguments = new ArrayList<>(this.segmentKeys.length);
+        final List<List<Integer>> positions = new ArrayList<>(this.segmentKeys.length);
+
+        for (int i = 0; i < this.segmentKeys.length; i++) {
+            arguments.add(new ArrayList<>(List.of(command, this.segmentKeys[i])));
+            positions.add(new ArrayList<>());
+        }
+
+        int position = 0;
+
+        for (final long[] itemOffsets : offsets) {
+            for (final long offset : itemOffsets) {
+                final int segment = (int) (offset / this.segmentBits);
+                final List<GlideString> segmentArguments = arguments.get(segment);
+
+                segmentArguments.add(operation);
+                segmentArguments.add(U1);
+                segmentArguments.add(gs(Long.toString(offset % this.segmentBits)));
+
+                if (set) {
+                    segmentArguments.add(ONE);
+                }
+
+                positions.get(segment).add(position++);
+            }
+        }
+
+        final long[] values = new long[position];
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < this.segmentKeys.length; i++) {
+            final List<Integer> segmentPositions = positions.get(i);
+
+            if (segmentPositions.isEmpty()) {
+                continue;
+            }
+
+            futures.add(this.client.customCommand(arguments.get(i).toArray(new GlideString[2 + segmentPositions.size() * width]))
+                    .thenAccept(result -> {
+                        final Object[] replies = (Object[]) result;
+
+                        for (int j = 0; j < replies.length; j++) {
+                            values[segmentPositions.get(j)] = (Long) replies[j];
+                        }
+                    }));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(done -> values);
+    }
+
+    /// Return the bit offsets of each item.
+    ///
+    /// @param  items   java.util.List<byte[]>
+    /// @return         long[][]
+    long[][] offsets(final List<byte[]> items) {
+        final long[][] offsets = new long[items.size()][this.hashes];
+
+        for (int i = 0; i < offsets.length; i++) {
+            final byte[] item = items.get(i);
+            final long hash1 = hash(item, SEED_1);
+            final long hash2 = hash(item, SEED_2) | 1;     // Odd, so successive offsets differ
+
+            for (int j = 0; j < this.hashes; j++) {
+                offsets[i][j] = Math.floorMod(hash1 + j * hash2, this.bits);
+            }
+        }
+
+        return offsets;
+    }
+
+    /// Return, for each item, true if any of its
+    /// values is zero.
+    ///
+    /// @param  values  long[]  The values in item and hash order
+    /// @param  items   int
+    /// @return         boolean[]
+    private boolean[] anyZero(final long[] values, final int items) {
+        final boolean[] zero = new boolean[items];
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == 0) {
+                zero[i / this.hashes] = true;
+            }
+        }
+
+        return zero;
+    }
+
+    /// Set the bits of an item in a local copy. The
+    /// caller holds the mirror lock.
+    ///
+    /// @param  localBits   byte[][]
+    /// @param  offsets     long[]
+    private void setLocal(final byte[][] localBits, final long[] offsets) {
+        for (final long offset : offsets) {
+            final int segment = (int) (offset / this.segmentBits);
+            final long bit = offset % this.segmentBits;
+            final int index = (int) (bit >>> 3);
+
+            if (localBits[segment].length <= index) {
+                localBits[segment] = Arrays.copyOf(localBits[segment], index + 1);
+            }
+
+            localBits[segment][index] |= (byte) (0x80 >>> (bit & 7));     // Bit zero is the high bit, as in Valkey
+        }
+    }
+
+    /// Return true if a bit is set in the local copy.
+    ///
+    /// @param  localBits   byte[][]
+    /// @param  offset      long
+    /// @return             boolean
+    private boolean isSetLocal(final byte[][] localBits, final long offset) {
+        final byte[] segment = localBits[(int) (offset / this.segmentBits)];
+        final long bit = offset % this.segmentBits;
+        final int index = (int) (bit >>> 3);
+
+        return index < segment.length && (segment[index] & (0x80 >>> (bit & 7))) != 0;
+    }
+
+    /// Hash bytes to 64 bits with MurmurHash64A.
+    ///
+    /// @param  data    byte[]
+    /// @param  seed    long
+    /// @return         long
+    static long hash(final byte[] data, final long seed) {
+        final long m = 0xc6a4a7935bd1e995L;
+        final int r = 47;
+        final int end = data.length & ~7;
+
+        long h = seed ^ (data.length * m);
+
+        for (int i = 0; i < end; i += 8) {
+            long k = (long) LONGS.get(data, i);
+
+            k *= m;
+            k ^= k >>> r;
+            k *= m;
+
+            h ^= k;
+            h *= m;
+        }
+
+        if (end < data.length) {
+            long tail = 0;
+
+            for (int i = data.length - 1; i >= end; i--) {
+                tail = (tail << 8) | (data[i] & 0xff);
+            }
+
+            h ^= tail;
+            h *= m;
+        }
+
+        h ^= h >>> r;
+        h *= m;
+        h ^= h >>> r;
+
+        return h;
+    }
+}
@@ -0,0 +1,169 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)BloomFilters.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The Bloom filters class. It creates the
+/// application's [BloomFilter]s on the shared
+/// client, one per name, and refreshes the local
+/// copies of the mirrored ones every
+/// `valkey.bloom.mirrorRefreshSeconds`.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class BloomFilters {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The filters by name.
+    private final ConcurrentMap<String, BloomFilter> filters = new ConcurrentHashMap<>();
+
+    /// The scheduler of the mirror refreshes.
+    private ScheduledExecutorService scheduler;
+
+    /// The most bits in one segment key.
+    @Value("${valkey.bloom.segmentBits:134217728}")
+    private long segmentBits;
+
+    /// The interval in seconds between refreshes of the mirrored filters.
+    @Value("${valkey.bloom.mirrorRefreshSeconds:30}")
+    private long mirrorRefreshSeconds;
+
+    /// The constructor.
+    ///
+    /// @param  client      glide.api.GlideClient
+    /// @param  lifecycle   net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public BloomFilters(final GlideClient client, final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.client = client;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Return the filter of a name, creating it the
+    /// first time.
+    ///
+    /// @param  name                java.lang.String
+    /// @param  expectedItems       long
+    /// @param  falsePositiveRate   double
+    /// @return                     net.jmp.spring.boot.valkey.BloomFilter
+    public BloomFilter filter(final String name, final long expectedItems, final double falsePositiveRate) {
+        return this.filters.computeIfAbsent(name,
+                key -> new BloomFilter(this.client, this.lifecycle, key, expectedItems, falsePositiveRate, this.segmentBits, false));
+    }
+
+    /// Return the mirrored filter of a name,
+    /// creating it and loading its local copy the
+    /// first time.
+    ///
+    /// @param  name                java.lang.String
+    /// @param  expectedItems       long
+    /// @param  falsePositiveRate   double
+    /// @return                     net.jmp.spring.boot.valkey.BloomFilter
+    public BloomFilter mirrored(final String name, final long expectedItems, final double falsePositiveRate) {
+        return this.filters.computeIfAbsent(name, key -> {
+            final BloomFilter filter = new BloomFilter(this.client,
+                    this.lifecycle,
+                    key,
+                    expectedItems,
+                    falsePositiveRate,
+                    this.segmentBits,
+                    true);
+
+            filter.refreshMirror().join();
+
+            this.startRefreshing();
+
+            return filter;
+        });
+    }
+
+    /// Stop refreshing the mirrors.
+    @PreDestroy
+    public void stop() {
+        synchronized (this.filters) {
+            if (this.scheduler != null) {
+                this.scheduler.shutdownNow();
+            }
+        }
+    }
+
+    /// Start refreshing the mirrors unless already started.
+    private void startRefreshing() {
+        synchronized (this.filters) {
+            if (this.scheduler == null) {
+                this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                        .name("valkey-bloom")
+                        .daemon(true)
+                        .factory());
+
+                this.scheduler.scheduleWithFixedDelay(this::refresh,
+                        this.mirrorRefreshSeconds,
+                        this.mirrorRefreshSeconds,
+                        TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /// Refresh the mirrored filters.
+    private void refresh() {
+        for (final BloomFilter filter : this.filters.values()) {
+            if (filter.isMirrored()) {
+                filter.refreshMirror().whenComplete((done, throwable) -> {
+                    if (throwable != null) {
+                        this.logger.warn("Unable to refresh Bloom filter {}: {}", filter.getName(), throwable.getMessage());
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)BulkImporter.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.Gson;
+
+import glide.api.GlideClient;
+
+import static glide.api.models.GlideString.gs;
+
+import glide.api.models.GlideString;
+
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.*;
+
+import java.util.concurrent.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The bulk importer class. It streams person
+/// records from a file into Valkey.
+///
+/// The file is read through a fixed direct buffer
+/// and split into batches of records. Each batch
+/// is decoded on a worker thread and written with
+/// one MSET, and the number of batches that are
+/// read but not yet written is bounded, so memory
+/// stays constant whatever the size of the file.
+///
+/// Records are stored under the key prefix followed
+/// by the record's position in the file.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class BulkImporter {
+    /// The file formats.
+    public enum Format {
+        /// One JSON person per line.
+        NDJSON,
+        /// Each record is a four byte big-endian length
+        /// followed by that many bytes of an encoded value.
+        /// The bytes are stored as they are.
+        KRYO
+    }
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The value codec.
+    private final ValueCodec codec;
+
+    /// The GSON object.
+    private final Gson gson;
+
+    /// The number of records per batch.
+    @Value("${valkey.import.batchSize:1000}")
+    private int batchSize;
+
+    /// The maximum number of batches read but not yet written.
+    @Value("${valkey.import.maxInFlightBatches:8}")
+    private int maxInFlightBatches;
+
+    /// The number of decoding threads; zero means one per processor.
+    @Value("${valkey.import.decodeThreads:0}")
+    private int decodeThreads;
+
+    /// The size of the read buffer. No NDJSON line can be larger.
+    @Value("${valkey.import.bufferSize:1048576}")
+    private int bufferSize;
+
+    /// The interval in seconds between progress reports.
+    @Value("${valkey.import.progressSeconds:5}")
+    private long progressSeconds;
+
+    /// The constructor.
+    ///
+    /// @param  client  glide.api.GlideClient
+    /// @param  codec   net.jmp.spring.boot.valkey.ValueCodec
+    /// @param  gson    com.google.gson.Gson
+    public BulkImporter(final GlideClient client, final ValueCodec codec, final Gson gson) {
+        super();
+
+        this.client = client;
+        this.codec = codec;
+        this.gson = gson;
+    }
+
+    /// Import a file.
+    ///
+    /// @param  path        java.nio.file.Path
+    /// @param  format      net.jmp.spring.boot.valkey.BulkImporter.Format
+    /// @param  keyPrefix   java.lang.String
+    /// @return             long    The number of records imported
+    /// @throws             java.io.IOException             When the file cannot be read
+    /// @throws             java.lang.InterruptedException  When interrupted waiting on a batch
+    public long importFile(final Path path, final Format format, final String keyPrefix)
+            throws IOException, InterruptedException {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(path, format, keyPrefix));
+        }
+
+        final int threads = this.decodeThreads > 0 ? this.decodeThreads : Runtime.getRuntime().availableProcessors();
+        final Semaphore inFlight = new Semaphore(this.maxInFlightBatches);
+        final Progress progress = new Progress();
+
+        this.logger.info("Importing {} ({}) with {} decode threads and {} batches in flight",
+                path, format, threads, this.maxInFlightBatches);
+
+        try (final ExecutorService decoders = Executors.newFixedThreadPool(threads);
+             final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+             final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            reporter.scheduleAtFixedRate(() -> this.report(progress, "progress"),
+                    this.progressSeconds,
+                    this.progressSeconds,
+                    TimeUnit.SECONDS);
+
+            final ChannelReader reader = new ChannelReader(channel, this.bufferSize);
+
+            long ordinal = 0;
+            List<byte[]> batch = new ArrayList<>(this.batchSize);
+            byte[] record;
+
+            while ((record = this.nextRecord(reader, format)) != null) {
+                batch.add(record);
+
+                if (batch.size() == this.batchSize) {
+                    inFlight.acquire();
+                    this.submit(decoders, batch, ordinal, format, keyPrefix, inFlight, progress);
+
+                    ordinal += batch.size();
+                    batch = new ArrayList<>(this.batchSize);
+                }
+
+                progress.bytesRead.set(reader.getBytesRead());
+            }
+
+            if (!batch.isEmpty()) {
+                inFlight.acquire();
+                this.submit(decoders, batch, ordinal, format, keyPrefix, inFlight, progress);
+            }
+
+            inFlight.acquire(this.maxInFlightBatches);  // Wait for every batch to be written
+            inFlight.release(this.maxInFlightBatches);
+
+            reporter.shutdownNow();
+        }
+
+        this.report(progress, "complete");
+
+        final long imported = progress.written.get();
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(imported));
+        }
+
+        return imported;
+    }
+
+    /// Read the next record.
+    ///
+    /// @param  reader  net.jmp.spring.boot.valkey.ChannelReader
+    /// @param  format  net.jmp.spring.boot.valkey.BulkImporter.Format
+    /// @return         byte[]  The record or null at the end of the file
+    /// @throws         java.io.IOException When the file cannot be read or a record is malformed
+    private byte[] nextRecord(final ChannelReader reader, final Format format) throws IOException {
+        return switch (format) {
+            case NDJSON -> reader.readLine();
+            case KRYO -> reader.hasMore() ? reader.readBytes(reader.readInt()) : null;
+        };
+    }
+
+    /// Decode and write a batch. The permit is
+    /// released once the write completes.
+    ///
+    /// @param  decoders    java.util.concurrent.ExecutorService
+    /// @param  batch       java.util.List<byte[]>
+    /// @param  ordinal     long    The position of the first record of the batch
+    /// @param  format      net.jmp.spring.boot.valkey.BulkImporter.Format
+    /// @param  keyPrefix   java.lang.String
+    /// @param  inFlight    java.util.concurrent.Semaphore
+    /// @param  progress    net.jmp.spring.boot.valkey.BulkImporter.Progress
+    private void submit(final ExecutorService decoders,
+                        final List<byte[]> batch,
+                        final long ordinal,
+                        final Format format,
+                        final String keyPrefix,
+                        final Semaphore inFlight,
+                        final Progress progress) {
+        CompletableFuture.supplyAsync(() -> this.decode(batch, ordinal, format, keyPrefix), decoders)
+                .thenCompose(this.client::msetBinary)
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        progress.failed.addAndGet(batch.size());
+                        this.logger.error("Batch starting at record {} failed: {}", ordinal, throwable.getMessage(), throwable);
+                    } else {
+                        progress.written.addAndGet(batch.size());
+                    }
+
+                    inFlight.release();
+                });
+    }
+
+    /// Decode a batch into the keys and values to write.
+    ///
+    /// @param  batch       java.util.List<byte[]>
+    /// @param  ordinal     long
+    /// @param  format      net.jmp.spring.boot.valkey.BulkImporter.Format
+    /// @param  keyPrefix   java.lang.String
+    /// @return             java.util.Map<glide.api.models.GlideString, glide.api.models.GlideString>
+    private Map<GlideString, GlideString> decode(final List<byte[]> batch,
+                                                 final long ordinal,
+                                                 final Format format,
+                                                 final String keyPrefix) {
+        final Map<GlideString, GlideString> values = HashMap.newHashMap(batch.size());
+
+        long position = ordinal;
+
+        for (final byte[] record : batch) {
+            final byte[] value = switch (format) {
+                case NDJSON -> this.codec.encode(this.gson.fromJson(new String(record, StandardCharsets.UTF_8), Person.class));
+                case KRYO -> record;
+            };
+
+            values.put(gs(keyPrefix + position++), gs(value));
+        }
+
+        return values;
+    }
+
+    /// Log the progress of an import.
+    ///
+    /// @param  progress    net.jmp.spring.boot.valkey.BulkImporter.Progress
+    /// @param  stage       java.lang.String
+    private void report(final Progress progress, final String stage) {
+        final double seconds = Math.max(1, System.nanoTime() - progress.startNanos) / 1e9;
+        final long written = progress.written.get();
+
+        this.logger.info("Import {}: {} records written, {} failed, {} MB read, {} records/s",
+                stage,
+                written,
+                progress.failed.get(),
+                progress.bytesRead.get() / (1024 * 1024),
+                Math.round(written / seconds));
+    }
+
+    /// The progress of an import.
+    private static final class Progress {
+        /// The start time.
+        private final long startNanos = System.nanoTime();
+
+        /// The number of bytes read.
+        private final AtomicLong bytesRead = new AtomicLong();
+
+        /// The number of records written.
+        private final AtomicLong written = new AtomicLong();
+
+        /// The number of records in failed batches.
+        private final AtomicLong failed = new AtomicLong();
+    }
+}
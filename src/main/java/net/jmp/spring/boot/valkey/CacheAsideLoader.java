@@ -0,0 +1,424 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)CacheAsideLoader.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import static glide.api.models.GlideString.gs;
+
+import glide.api.models.GlideString;
+import glide.api.models.commands.SetOptions;
+
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+
+import java.util.UUID;
+
+import java.util.concurrent.*;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The cache-aside loader class. A value is read
+/// from Valkey and, on a miss, computed by a loader
+/// and written back with a time-to-live.
+///
+/// Concurrent misses for the same key in this JVM
+/// share one load. When the lock is enabled a short
+/// lock key coalesces loads across JVMs as well:
+/// the JVM that takes the lock computes the value
+/// while the others poll for it until the lock
+/// would have expired.
+///
+/// Each value is stored with the time it took to
+/// compute and the time it expires. A read close to
+/// expiry may refresh the value early in the
+/// background (the XFetch algorithm) while callers
+/// keep getting the current value, so hot keys do
+/// not all expire on a cliff.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class CacheAsideLoader {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The value codec.
+    private final ValueCodec codec;
+
+    /// The loads in flight.
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+
+    /// The early refreshes in flight.
+    private final SingleFlight<String, Object> refreshes = new SingleFlight<>();
+
+    /// The executor that runs the loaders.
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /// The script registry.
+    private final ScriptRegistry scriptRegistry;
+
+    /// The slow command log.
+    private final SlowCommandLog slowCommandLog;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// True when loads are coalesced across JVMs.
+    @Value("${valkey.cacheAside.lock.enabled:false}")
+    private boolean lockEnabled;
+
+    /// The suffix appended to a key to form its lock key.
+    @Value("${valkey.cacheAside.lock.suffix::lock}")
+    private String lockSuffix;
+
+    /// The lock time-to-live in milliseconds.
+    @Value("${valkey.cacheAside.lock.ttlMillis:5000}")
+    private long lockTtlMillis;
+
+    /// The interval in milliseconds between polls by a JVM waiting on another's load.
+    @Value("${valkey.cacheAside.lock.pollMillis:25}")
+    private long lockPollMillis;
+
+    /// True when values are refreshed before they expire.
+    @Value("${valkey.cacheAside.xfetch.enabled:true}")
+    private boolean xfetchEnabled;
+
+    /// The XFetch beta; values above 1.0 favor earlier refreshes.
+    @Value("${valkey.cacheAside.xfetch.beta:1.0}")
+    private double xfetchBeta;
+
+    /// The constructor.
+    ///
+    /// @param  client          glide.api.GlideClient
+    /// @param  codec           net.jmp.spring.boot.valkey.ValueCodec
+    /// @param  scriptRegistry  net.jmp.spring.boot.valkey.ScriptRegistry
+    /// @param  slowCommandLog  net.jmp.spring.boot.valkey.SlowCommandLog
+    /// @param  lifecycle       net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public CacheAsideLoader(final GlideClient client,
+                            final ValueCodec codec,
+                            final ScriptRegistry scriptRegistry,
+                            final SlowCommandLog slowCommandLog,
+                            final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.client = client;
+        this.codec = codec;
+        this.scriptRegistry = scriptRegistry;
+        this.slowCommandLog = slowCommandLog;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Get a value, loading it on a miss.
+    ///
+    /// @param  <T>     The type of the value
+    /// @param  key     java.lang.String
+    /// @param  clazz   java.lang.Class<T>
+    /// @param  ttl     java.time.Duration
+    /// @param  loader  java.util.concurrent.Callable<T>
+    /// @return         T
+    /// @throws         java.lang.IllegalArgumentException          When the time to live is under a millisecond
+    /// @throws         java.util.concurrent.CompletionException    When the value cannot be read or loaded
+    public <T> T get(final String key, final Class<T> clazz, final Duration ttl, final Callable<T> loader) {
+        return this.getAsync(key, clazz, ttl, loader).join();
+    }
+
+    /// Get a value asynchronously, loading it on a miss.
+    ///
+    /// @param  <T>     The type of the value
+    /// @param  key     java.lang.String
+    /// @param  clazz   java.lang.Class<T>
+    /// @param  ttl     java.time.Duration
+    /// @param  loader  java.util.concurrent.Callable<T>
+    /// @return         java.util.concurrent.CompletableFuture<T>
+    /// @throws         java.lang.IllegalArgumentException              When the time to live is under a millisecond
+    /// @throws         java.util.concurrent.RejectedExecutionException When shutting down
+    public <T> CompletableFuture<T> getAsync(final String key,
+                                             final Class<T> clazz,
+                                             final Duration ttl,
+                                             final Callable<T> loader) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(key, clazz, ttl));
+        }
+
+        /* SET with PX rejects anything below one millisecond */
+
+        if (ttl.toMillis() <= 0) {
+            throw new IllegalArgumentException("The time to live must be at least a millisecond: " + ttl);
+        }
+
+        final GlideString valkeyKey = gs(key);
+
+        final CompletableFuture<T> future = this.lifecycle.submit(() -> this.slowCommandLog.time(this.logger,
+                "GET",
+                key,
+                System.nanoTime(),
+                this.client.get(valkeyKey)).thenCompose(value -> {
+            if (value != null) {
+                final CachedValue cachedValue = CachedValue.fromBytes(value.getBytes());
+
+                if (this.xfetchEnabled && cachedValue.shouldRefresh(System.currentTimeMillis(),
+                        this.xfetchBeta,
+                        1.0 - ThreadLocalRandom.current().nextDouble())) {
+                    this.refreshInBackground(valkeyKey, ttl, loader);
+                }
+
+                return CompletableFuture.completedFuture(this.codec.decode(cachedValue.getValue(), clazz));
+            }
+
+            return this.singleFlight.execute(key,
+                            () -> CompletableFuture.supplyAsync(() -> this.load(valkeyKey, ttl, loader), this.executor))
+                    .thenApply(clazz::cast);
+        }));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(future));
+        }
+
+        return future;
+    }
+
+    /// Remove a value so that the next get loads it.
+    ///
+    /// @param  key java.lang.String
+    /// @return     boolean     True if the value was present
+    public boolean invalidate(final String key) {
+        return this.client.del(new GlideString[] { gs(key) }).join() > 0;
+    }
+
+    /// Get the number of loads that were executed.
+    ///
+    /// @return long
+    public long getLoads() {
+        return this.singleFlight.getExecuted();
+    }
+
+    /// Get the number of misses that joined a load in flight.
+    ///
+    /// @return long
+    public long getCoalescedLoads() {
+        return this.singleFlight.getCoalesced();
+    }
+
+    /// Get the number of early refreshes that were started.
+    ///
+    /// @return long
+    public long getEarlyRefreshes() {
+        return this.refreshes.getExecuted();
+    }
+
+    /// Stop the loader executor.
+    @PreDestroy
+    public void close() {
+        this.executor.close();
+    }
+
+    /// Load a value. This runs on the loader executor.
+    ///
+    /// @param  key     glide.api.models.GlideString
+    /// @param  ttl     java.time.Duration
+    /// @param  loader  java.util.concurrent.Callable<?>
+    /// @return         java.lang.Object
+    private Object load(final GlideString key, final Duration ttl, final Callable<?> loader) {
+        /* Another load may have stored the value since the miss */
+
+        final GlideString current = this.client.get(key).join();
+
+        if (current != null) {
+            return this.decode(current);
+        }
+
+        if (!this.lockEnabled) {
+            return this.loadAndStore(key, ttl, loader);
+        }
+
+        final GlideString lockKey = this.lockKey(key);
+        final GlideString token = this.tryLock(lockKey);
+
+        if (token == null) {
+            return this.awaitPeer(key, ttl, loader);
+        }
+
+        try {
+            return this.loadAndStore(key, ttl, loader);
+        } finally {
+            this.releaseLock(lockKey, token);
+        }
+    }
+
+    /// Refresh a value in the background. Only one
+    /// refresh per key runs at a time in this JVM and,
+    /// when the lock is enabled, across JVMs.
+    ///
+    /// @param  key     glide.api.models.GlideString
+    /// @param  ttl     java.time.Duration
+    /// @param  loader  java.util.concurrent.Callable<?>
+    private void refreshInBackground(final GlideString key, final Duration ttl, final Callable<?> loader) {
+        this.refreshes.execute(key.getString(), () -> CompletableFuture.supplyAsync(() -> {
+            if (!this.lockEnabled) {
+                return this.loadAndStore(key, ttl, loader);
+            }
+
+            final GlideString lockKey = this.lockKey(key);
+            final GlideString token = this.tryLock(lockKey);
+
+            if (token == null) {
+                return null;    // Another JVM is refreshing it
+            }
+
+            try {
+                return this.loadAndStore(key, ttl, loader);
+            } finally {
+                this.releaseLock(lockKey, token);
+            }
+        }, this.executor)).exceptionally(throwable -> {
+            this.logger.warn("Early refresh of {} failed: {}", key, throwable.getMessage(), throwable);
+            return null;
+        });
+    }
+
+    /// Build the lock key for a key.
+    ///
+    /// @param  key glide.api.models.GlideString
+    /// @return     glide.api.models.GlideString
+    private GlideString lockKey(final GlideString key) {
+        return gs(key.getString() + this.lockSuffix);
+    }
+
+    /// Try to take a lock.
+    ///
+    /// @param  lockKey glide.api.models.GlideString
+    /// @return         glide.api.models.GlideString    The lock token or null if the lock is held
+    private GlideString tryLock(final GlideString lockKey) {
+        final GlideString token = gs(UUID.randomUUID().toString());
+
+        final SetOptions lockOptions = SetOptions.builder()
+                .conditionalSetOnlyIfNotExist()
+                .expiry(SetOptions.Expiry.Milliseconds(this.lockTtlMillis))
+                .build();
+
+        return this.client.set(lockKey, token, lockOptions).join() == null ? null : token;
+    }
+
+    /// Release a lock if it still holds the token.
+    ///
+    /// @param  lockKey glide.api.models.GlideString
+    /// @param  token   glide.api.models.GlideString
+    private void releaseLock(final GlideString lockKey, final GlideString token) {
+        this.scriptRegistry.invoke(ServerScript.COMPARE_AND_DELETE,
+                        new GlideString[] { lockKey },
+                        new GlideString[] { token })
+                .exceptionally(throwable -> {
+                    this.logger.warn("Unable to release lock {}: {}", lockKey, throwable.getMessage());
+                    return null;
+                });
+    }
+
+    /// Wait for the JVM holding the lock to store
+    /// the value. If it does not do so before the
+    /// lock would have expired, load it here.
+    ///
+    /// @param  key     glide.api.models.GlideString
+    /// @param  ttl     java.time.Duration
+    /// @param  loader  java.util.concurrent.Callable<?>
+    /// @return         java.lang.Object
+    private Object awaitPeer(final GlideString key, final Duration ttl, final Callable<?> loader) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.lockTtlMillis);
+
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(this.lockPollMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+
+            final GlideString value = this.client.get(key).join();
+
+            if (value != null) {
+                return this.decode(value);
+            }
+        }
+
+        this.logger.warn("Timed out waiting on the lock for {}; loading locally", key);
+
+        return this.loadAndStore(key, ttl, loader);
+    }
+
+    /// Call the loader and store its value along
+    /// with the time the loader took. A null value
+    /// is returned but not stored.
+    ///
+    /// @param  key     glide.api.models.GlideString
+    /// @param  ttl     java.time.Duration
+    /// @param  loader  java.util.concurrent.Callable<?>
+    /// @return         java.lang.Object
+    private Object loadAndStore(final GlideString key, final Duration ttl, final Callable<?> loader) {
+        final long start = System.nanoTime();
+        final Object value;
+
+        try {
+            value = loader.call();
+        } catch (final Exception e) {
+            throw new CompletionException(e);
+        }
+
+        if (value != null) {
+            final long computeMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            final long expiresAtMillis = System.currentTimeMillis() + ttl.toMillis();
+            final CachedValue cachedValue = new CachedValue(this.codec.encode(value), computeMicros, expiresAtMillis);
+
+            this.client.set(key,
+                            gs(cachedValue.toBytes()),
+                            SetOptions.builder().expiry(SetOptions.Expiry.Milliseconds(ttl.toMillis())).build())
+                    .join();
+        }
+
+        return value;
+    }
+
+    /// Decode a stored value.
+    ///
+    /// @param  value   glide.api.models.GlideString
+    /// @return         java.lang.Object
+    private Object decode(final GlideString value) {
+        return this.codec.decode(CachedValue.fromBytes(value.getBytes()).getValue());
+    }
+}
@@ -0,0 +1,122 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)CacheConfiguration.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import java.time.Duration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.cache.CacheManager;
+
+import org.springframework.cache.annotation.EnableCaching;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/// The cache configuration class. It enables
+/// Spring's cache annotations and backs them
+/// with the Glide cache manager.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+    /// The value codec name, either kryo or java.
+    @Value("${valkey.cache.codec:kryo}")
+    private String codecName;
+
+    /// The default time-to-live in seconds.
+    @Value("${valkey.cache.defaultTtlSeconds:600}")
+    private long defaultTtlSeconds;
+
+    /// The time-to-live in seconds of each configured
+    /// cache, e.g. `persons=3600,animals=300`.
+    @Value("${valkey.cache.ttlSeconds:}")
+    private String ttlSeconds;
+
+    /// The prefix of every cache key.
+    @Value("${valkey.cache.keyPrefix:cache:}")
+    private String keyPrefix;
+
+    /// The maximum number of keys deleted per command.
+    @Value("${valkey.cache.evictionBatchSize:500}")
+    private int evictionBatchSize;
+
+    /// True if null values can be cached.
+    @Value("${valkey.cache.allowNullValues:true}")
+    private boolean allowNullValues;
+
+    /// The default constructor.
+    public CacheConfiguration() {
+        super();
+    }
+
+    /// Create the cache manager.
+    ///
+    /// @param  glideClient glide.api.GlideClient
+    /// @return             org.springframework.cache.CacheManager
+    @Bean
+    public CacheManager cacheManager(final GlideClient glideClient) {
+        return new GlideCacheManager(glideClient,
+                ValueCodec.forName(this.codecName),
+                Duration.ofSeconds(this.defaultTtlSeconds),
+                this.parseTtls(),
+                this.keyPrefix,
+                this.evictionBatchSize,
+                this.allowNullValues);
+    }
+
+    /// Parse the time-to-live of each configured cache.
+    ///
+    /// @return java.util.Map<java.lang.String, java.time.Duration>
+    /// @throws java.lang.IllegalArgumentException  When an entry is malformed
+    private Map<String, Duration> parseTtls() {
+        final Map<String, Duration> ttls = new LinkedHashMap<>();
+
+        for (final String entry : this.ttlSeconds.split(",")) {
+            if (!entry.isBlank()) {
+                final String[] parts = entry.split("=");
+
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Malformed cache time-to-live: " + entry);
+                }
+
+                ttls.put(parts[0].trim(), Duration.ofSeconds(Long.parseLong(parts[1].trim())));
+            }
+        }
+
+        return ttls;
+    }
+}
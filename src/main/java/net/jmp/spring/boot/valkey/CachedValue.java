@@ -0,0 +1,148 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)CachedValue.java    0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/// The cached value class. It is what the cache-aside
+/// loader stores: the encoded value together with the
+/// time it took to compute and the time it expires.
+///
+/// The layout is a format byte, the compute time in
+/// microseconds, the expiry in epoch milliseconds,
+/// and then the encoded value. The compute time is
+/// kept in microseconds so that a loader faster
+/// than a millisecond still counts in the XFetch
+/// test.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class CachedValue {
+    /// The format of the layout.
+    private static final byte FORMAT = 1;
+
+    /// The size of the header.
+    private static final int HEADER_SIZE = Byte.BYTES + Long.BYTES + Long.BYTES;
+
+    /// The encoded value.
+    private final byte[] value;
+
+    /// The time in microseconds it took to compute the value.
+    private final long computeMicros;
+
+    /// The time the value expires in epoch milliseconds.
+    private final long expiresAtMillis;
+
+    /// A constructor.
+    ///
+    /// @param  value           byte[]
+    /// @param  computeMicros   long
+    /// @param  expiresAtMillis long
+    CachedValue(final byte[] value, final long computeMicros, final long expiresAtMillis) {
+        super();
+
+        this.value = value;
+        this.computeMicros = computeMicros;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    /// Get the encoded value.
+    ///
+    /// @return byte[]
+    byte[] getValue() {
+        return this.value;
+    }
+
+    /// Get the time in microseconds it took to compute the value.
+    ///
+    /// @return long
+    long getComputeMicros() {
+        return this.computeMicros;
+    }
+
+    /// Get the time the value expires in epoch milliseconds.
+    ///
+    /// @return long
+    long getExpiresAtMillis() {
+        return this.expiresAtMillis;
+    }
+
+    /// Decide whether the value should be refreshed
+    /// before it expires. This is the XFetch test:
+    /// the chance of a refresh rises as expiry gets
+    /// closer and is higher for values that are
+    /// expensive to compute.
+    ///
+    /// @param  nowMillis   long    The current time in epoch milliseconds
+    /// @param  beta        double  Values above 1.0 favor earlier refreshes
+    /// @param  random      double  A uniformly distributed number in (0, 1]
+    /// @return             boolean
+    boolean shouldRefresh(final long nowMillis, final double beta, final double random) {
+        return nowMillis - this.computeMicros / 1000.0 * beta * Math.log(random) >= this.expiresAtMillis;
+    }
+
+    /// Encode into the stored layout.
+    ///
+    /// @return byte[]
+    byte[] toBytes() {
+        return ByteBuffer.allocate(HEADER_SIZE + this.value.length)
+                .put(FORMAT)
+                .putLong(this.computeMicros)
+                .putLong(this.expiresAtMillis)
+                .put(this.value)
+                .array();
+    }
+
+    /// Decode from the stored layout.
+    ///
+    /// @param  bytes   byte[]
+    /// @return         net.jmp.spring.boot.valkey.CachedValue
+    /// @throws         net.jmp.spring.boot.valkey.CodecException   When the layout is not recognized
+    static CachedValue fromBytes(final byte[] bytes) {
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            final byte format = buffer.get();
+
+            if (format != FORMAT) {
+                throw new CodecException("Unknown cached value format: " + format);
+            }
+
+            final long computeMicros = buffer.getLong();
+            final long expiresAtMillis = buffer.getLong();
+            final byte[] value = new byte[buffer.remaining()];
+
+            buffer.get(value);
+
+            return new CachedValue(value, computeMicros, expiresAtMillis);
+        } catch (final BufferUnderflowException e) {
+            throw new CodecException("Truncated cached value", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ChannelHandler.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.PubSubMessage;
+
+/// The channel handler interface. A handler is
+/// registered with a [ChannelRouter] for a channel
+/// or a pattern and is called with each message
+/// published to a matching channel.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@FunctionalInterface
+public interface ChannelHandler {
+    /// Handle a message.
+    ///
+    /// @param  message glide.api.models.PubSubMessage
+    /// @param  context java.lang.Object    The context given to the subscription or null
+    void handle(PubSubMessage message, Object context);
+}
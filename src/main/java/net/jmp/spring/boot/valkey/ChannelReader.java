@@ -0,0 +1,232 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ChannelReader.java  0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.ReadableByteChannel;
+
+/// The channel reader class. It reads lines and
+/// big-endian primitives from a channel through
+/// one reusable direct buffer, so the memory used
+/// does not depend on the size of the input.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class ChannelReader {
+    /// The channel.
+    private final ReadableByteChannel channel;
+
+    /// The buffer.
+    private final ByteBuffer buffer;
+
+    /// The number of bytes read from the channel.
+    private long bytesRead;
+
+    /// True when the channel is exhausted.
+    private boolean endOfInput;
+
+    /// A constructor.
+    ///
+    /// @param  channel     java.nio.channels.ReadableByteChannel
+    /// @param  bufferSize  int
+    ChannelReader(final ReadableByteChannel channel, final int bufferSize) {
+        super();
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).flip();
+    }
+
+    /// Get the number of bytes read from the channel.
+    ///
+    /// @return long
+    long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    /// Test whether there is more input.
+    ///
+    /// @return boolean
+    /// @throws java.io.IOException When the channel cannot be read
+    boolean hasMore() throws IOException {
+        return this.buffer.hasRemaining() || this.fill();
+    }
+
+    /// Read the next non-blank line. No line
+    /// can be longer than the buffer.
+    ///
+    /// @return byte[]  The line without its newline or null at the end of the input
+    /// @throws         java.io.IOException When the channel cannot be read or a line is too long
+    byte[] readLine() throws IOException {
+        int scanned = 0;    // Bytes after the position already known not to be a newline
+
+        while (true) {
+            for (int i = this.buffer.position() + scanned; i < this.buffer.limit(); i++) {
+                if (this.buffer.get(i) == '\n') {
+                    final byte[] line = this.readBytes(i - this.buffer.position());
+
+                    this.buffer.get();  // Skip the newline
+
+                    if (!isBlank(line)) {
+                        return line;
+                    }
+
+                    i = this.buffer.position() - 1;
+                }
+            }
+
+            scanned = this.buffer.remaining();
+
+            if (!this.fill()) {
+                final byte[] line = this.readBytes(this.buffer.remaining());
+
+                return isBlank(line) ? null : line;
+            }
+        }
+    }
+
+    /// Read a big-endian int.
+    ///
+    /// @return int
+    /// @throws java.io.IOException When the channel cannot be read or is exhausted
+    int readInt() throws IOException {
+        this.require(Integer.BYTES);
+
+        return this.buffer.getInt();
+    }
+
+    /// Read a big-endian long.
+    ///
+    /// @return long
+    /// @throws java.io.IOException When the channel cannot be read or is exhausted
+    long readLong() throws IOException {
+        this.require(Long.BYTES);
+
+        return this.buffer.getLong();
+    }
+
+    /// Read a number of bytes. A count larger than
+    /// the buffer is read straight from the channel.
+    ///
+    /// @param  count   int
+    /// @return         byte[]
+    /// @throws         java.io.IOException When the channel cannot be read or is exhausted
+    byte[] readBytes(final int count) throws IOException {
+        if (count < 0) {
+            throw new IOException("Negative length: " + count);
+        }
+
+        final byte[] bytes = new byte[count];
+
+        if (count <= this.buffer.capacity()) {
+            this.require(count);
+            this.buffer.get(bytes);
+        } else {
+            final int buffered = this.buffer.remaining();
+
+            this.buffer.get(bytes, 0, buffered);
+
+            final ByteBuffer rest = ByteBuffer.wrap(bytes, buffered, count - buffered);
+
+            while (rest.hasRemaining()) {
+                final int read = this.channel.read(rest);
+
+                if (read < 0) {
+                    throw new IOException("Input ended " + rest.remaining() + " bytes short");
+                }
+
+                this.bytesRead += read;
+            }
+        }
+
+        return bytes;
+    }
+
+    /// Make sure the buffer holds at least the number
+    /// of bytes asked for, reading more if it does not.
+    ///
+    /// @param  count   int
+    /// @throws         java.io.IOException When the channel cannot be read or is exhausted
+    private void require(final int count) throws IOException {
+        while (this.buffer.remaining() < count) {
+            if (!this.fill()) {
+                throw new IOException("Input ended " + (count - this.buffer.remaining()) + " bytes short");
+            }
+        }
+    }
+
+    /// Read more of the channel into the buffer,
+    /// keeping the bytes not yet consumed.
+    ///
+    /// @return boolean     False if nothing more could be read
+    /// @throws java.io.IOException When the channel cannot be read or the buffer is full
+    private boolean fill() throws IOException {
+        if (this.endOfInput) {
+            return false;
+        }
+
+        this.buffer.compact();
+
+        if (!this.buffer.hasRemaining()) {
+            this.buffer.flip();
+
+            throw new IOException("A record exceeds the buffer size " + this.buffer.capacity());
+        }
+
+        final int count = this.channel.read(this.buffer);
+
+        this.buffer.flip();
+
+        if (count < 0) {
+            this.endOfInput = true;
+
+            return false;
+        }
+
+        this.bytesRead += count;
+
+        return true;
+    }
+
+    /// Test whether a line holds only white space.
+    ///
+    /// @param  line    byte[]
+    /// @return         boolean
+    private static boolean isBlank(final byte[] line) {
+        for (final byte b : line) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,242 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ChannelRouter.java  0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.GlideString;
+import glide.api.models.PubSubMessage;
+
+import glide.api.models.configuration.BaseSubscriptionConfiguration;
+
+import static glide.api.models.GlideString.gs;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/// The channel router class. It is the callback of
+/// a subscriber client and hands each message to
+/// the handlers registered for the subscription
+/// that delivered it.
+///
+/// The server delivers a message once for every
+/// subscription of the client that it matches, and
+/// tells which: a message from a `PSUBSCRIBE`
+/// carries its pattern and one from a `SUBSCRIBE`
+/// carries none. A message is therefore given only
+/// to the handlers of its pattern, or only to the
+/// handlers of its channel when it has no pattern,
+/// so a handler is called once per delivery even
+/// when a channel and a pattern, or two patterns,
+/// overlap. Both lookups are by the exact bytes of
+/// the name, so a channel whose name holds glob
+/// characters can be registered as a channel.
+///
+/// Handlers may be registered and unregistered
+/// while messages are routed. Each handler is
+/// called on the client's callback thread and one
+/// that throws does not stop the others.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class ChannelRouter implements BaseSubscriptionConfiguration.MessageCallback {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The handlers of each channel.
+    private final Map<GlideString, List<ChannelHandler>> channelHandlers = new ConcurrentHashMap<>();
+
+    /// The handlers of each pattern.
+    private final Map<GlideString, List<ChannelHandler>> patternHandlers = new ConcurrentHashMap<>();
+
+    /// The number of messages routed to no handler.
+    private final LongAdder unrouted = new LongAdder();
+
+    /// The number of handlers that threw.
+    private final LongAdder failures = new LongAdder();
+
+    /// The default constructor.
+    public ChannelRouter() {
+        super();
+    }
+
+    /// Register a handler for the messages of a
+    /// channel subscribed to with `SUBSCRIBE`. A
+    /// handler registered more than once is called
+    /// once for each registration.
+    ///
+    /// @param  channel java.lang.String    The channel name, taken literally
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    public void register(final String channel, final ChannelHandler handler) {
+        add(this.channelHandlers, gs(channel), handler);
+    }
+
+    /// Register a handler for the messages of a
+    /// pattern subscribed to with `PSUBSCRIBE`.
+    ///
+    /// @param  pattern java.lang.String    The glob, as it was subscribed
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    public void registerPattern(final String pattern, final ChannelHandler handler) {
+        add(this.patternHandlers, gs(pattern), handler);
+    }
+
+    /// Unregister a handler from a channel.
+    ///
+    /// @param  channel java.lang.String
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return         boolean     True if the handler was registered
+    public boolean unregister(final String channel, final ChannelHandler handler) {
+        return remove(this.channelHandlers, gs(channel), handler);
+    }
+
+    /// Unregister a handler from a pattern.
+    ///
+    /// @param  pattern java.lang.String
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return         boolean     True if the handler was registered
+    public boolean unregisterPattern(final String pattern, final ChannelHandler handler) {
+        return remove(this.patternHandlers, gs(pattern), handler);
+    }
+
+    /// Route a message to its handlers.
+    ///
+    /// @param  pubSubMessage   glide.api.models.PubSubMessage
+    /// @param  context         java.lang.Object
+    @Override
+    public void accept(final PubSubMessage pubSubMessage, final Object context) {
+        if (this.route(pubSubMessage, context) == 0) {
+            this.unrouted.increment();
+
+            if (this.logger.isDebugEnabled()) {
+                this.logger.debug("No handler for channel {}", pubSubMessage.getChannel());
+            }
+        }
+    }
+
+    /// Route a message to the handlers of the
+    /// subscription that delivered it.
+    ///
+    /// @param  pubSubMessage   glide.api.models.PubSubMessage
+    /// @param  context         java.lang.Object
+    /// @return                 int     The number of handlers called
+    public int route(final PubSubMessage pubSubMessage, final Object context) {
+        final Optional<GlideString> pattern = pubSubMessage.getPattern();
+        final List<ChannelHandler> handlers = pattern.isPresent()
+                ? this.patternHandlers.get(pattern.get())
+                : this.channelHandlers.get(pubSubMessage.getChannel());
+
+        if (handlers == null) {
+            return 0;
+        }
+
+        int handled = 0;
+
+        for (final ChannelHandler handler : handlers) {
+            this.handle(handler, pubSubMessage, context);
+            handled++;
+        }
+
+        return handled;
+    }
+
+    /// Return the number of messages routed to no handler.
+    ///
+    /// @return long
+    public long getUnrouted() {
+        return this.unrouted.sum();
+    }
+
+    /// Return the number of handlers that threw.
+    ///
+    /// @return long
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    /// Call a handler, logging what it throws.
+    ///
+    /// @param  handler         net.jmp.spring.boot.valkey.ChannelHandler
+    /// @param  pubSubMessage   glide.api.models.PubSubMessage
+    /// @param  context         java.lang.Object
+    private void handle(final ChannelHandler handler, final PubSubMessage pubSubMessage, final Object context) {
+        try {
+            handler.handle(pubSubMessage, context);
+        } catch (final RuntimeException e) {
+            this.failures.increment();
+            this.logger.error("Handler failed on channel {}: {}", pubSubMessage.getChannel(), e.getMessage(), e);
+        }
+    }
+
+    /// Add a registration of a handler. It is added
+    /// within the compute so that a concurrent remove
+    /// cannot drop the list it is added to.
+    ///
+    /// @param  handlers    java.util.Map<glide.api.models.GlideString, java.util.List<net.jmp.spring.boot.valkey.ChannelHandler>>
+    /// @param  name        glide.api.models.GlideString
+    /// @param  handler     net.jmp.spring.boot.valkey.ChannelHandler
+    private static void add(final Map<GlideString, List<ChannelHandler>> handlers,
+                            final GlideString name,
+                            final ChannelHandler handler) {
+        handlers.compute(name, (key, list) -> {
+            final List<ChannelHandler> added = list == null ? new CopyOnWriteArrayList<>() : list;
+
+            added.add(handler);
+
+            return added;
+        });
+    }
+
+    /// Remove one registration of a handler, and the
+    /// name when it has no handlers left.
+    ///
+    /// @param  handlers    java.util.Map<glide.api.models.GlideString, java.util.List<net.jmp.spring.boot.valkey.ChannelHandler>>
+    /// @param  name        glide.api.models.GlideString
+    /// @param  handler     net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return             boolean
+    private static boolean remove(final Map<GlideString, List<ChannelHandler>> handlers,
+                                  final GlideString name,
+                                  final ChannelHandler handler) {
+        final boolean[] removed = new boolean[1];
+
+        handlers.computeIfPresent(name, (key, list) -> {
+            removed[0] = list.remove(handler);
+
+            return list.isEmpty() ? null : list;
+        });
+
+        return removed[0];
+    }
+}
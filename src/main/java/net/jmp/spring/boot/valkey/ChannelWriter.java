@@ -0,0 +1,140 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ChannelWriter.java  0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.WritableByteChannel;
+
+/// The channel writer class. It writes big-endian
+/// primitives and byte arrays to a channel through
+/// one reusable direct buffer. Arrays larger than
+/// the buffer are written straight to the channel.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class ChannelWriter implements AutoCloseable {
+    /// The channel.
+    private final WritableByteChannel channel;
+
+    /// The buffer.
+    private final ByteBuffer buffer;
+
+    /// The number of bytes written to the channel.
+    private long bytesWritten;
+
+    /// A constructor.
+    ///
+    /// @param  channel     java.nio.channels.WritableByteChannel
+    /// @param  bufferSize  int
+    ChannelWriter(final WritableByteChannel channel, final int bufferSize) {
+        super();
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(Long.BYTES, bufferSize));
+    }
+
+    /// Get the number of bytes written to the channel.
+    ///
+    /// @return long
+    long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    /// Write a big-endian int.
+    ///
+    /// @param  value   int
+    /// @throws         java.io.IOException When the channel cannot be written
+    void writeInt(final int value) throws IOException {
+        this.ensure(Integer.BYTES);
+        this.buffer.putInt(value);
+    }
+
+    /// Write a big-endian long.
+    ///
+    /// @param  value   long
+    /// @throws         java.io.IOException When the channel cannot be written
+    void writeLong(final long value) throws IOException {
+        this.ensure(Long.BYTES);
+        this.buffer.putLong(value);
+    }
+
+    /// Write bytes.
+    ///
+    /// @param  bytes   byte[]
+    /// @throws         java.io.IOException When the channel cannot be written
+    void writeBytes(final byte[] bytes) throws IOException {
+        if (bytes.length > this.buffer.capacity()) {
+            this.flush();
+            this.drain(ByteBuffer.wrap(bytes));
+        } else {
+            this.ensure(bytes.length);
+            this.buffer.put(bytes);
+        }
+    }
+
+    /// Write the buffered bytes to the channel.
+    ///
+    /// @throws java.io.IOException When the channel cannot be written
+    void flush() throws IOException {
+        this.buffer.flip();
+        this.drain(this.buffer);
+        this.buffer.clear();
+    }
+
+    /// Flush the buffer. The channel is left open.
+    ///
+    /// @throws java.io.IOException When the channel cannot be written
+    @Override
+    public void close() throws IOException {
+        this.flush();
+    }
+
+    /// Make room in the buffer.
+    ///
+    /// @param  count   int
+    /// @throws         java.io.IOException When the channel cannot be written
+    private void ensure(final int count) throws IOException {
+        if (this.buffer.remaining() < count) {
+            this.flush();
+        }
+    }
+
+    /// Write all of a buffer to the channel.
+    ///
+    /// @param  source  java.nio.ByteBuffer
+    /// @throws         java.io.IOException When the channel cannot be written
+    private void drain(final ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            this.bytesWritten += this.channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)CodecException.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.Serial;
+
+/// The codec exception class. It is thrown
+/// when a value codec cannot encode or decode.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class CodecException extends RuntimeException {
+    /// The serial version UID.
+    @Serial
+    private static final long serialVersionUID = -2781937042846157327L;
+
+    /// A constructor.
+    ///
+    /// @param  message java.lang.String
+    public CodecException(final String message) {
+        super(message);
+    }
+
+    /// A constructor.
+    ///
+    /// @param  message java.lang.String
+    /// @param  cause   java.lang.Throwable
+    public CodecException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
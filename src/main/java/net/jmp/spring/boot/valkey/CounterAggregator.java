@@ -0,0 +1,345 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)CounterAggregator.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+
+import static glide.api.models.GlideString.gs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The counter aggregator class. Increments of
+/// counters are added up locally in [LongAdder]s,
+/// which spread contended updates over cells, and
+/// sent as one `INCRBY` per counter or `HINCRBY`
+/// per hash field when the aggregator flushes. A
+/// hot counter incremented thousands of times
+/// between flushes costs one command.
+///
+/// Flushes run every `valkey.counters.flushMillis`
+/// and as soon as `valkey.counters.flushThreshold`
+/// increments are pending, so a crash loses at
+/// most that window. The commands of a flush are
+/// sent together, in one round trip. A delta whose
+/// command fails is added back and sent with the
+/// next flush. A last flush is forced when the
+/// context closes.
+///
+/// Delivery is at least once: a command that times
+/// out after the server applied it is added back
+/// and sent again, so its delta is counted twice.
+///
+/// A counter's value includes its pending deltas
+/// and those sent but not yet acknowledged. While
+/// a delta moves from one to the other, or its
+/// command completes, it may briefly be counted
+/// twice.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class CounterAggregator {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The keys of the counters.
+    private final KeyTemplate keys = KeyTemplate.of("counter");
+
+    /// The pending deltas of the counters.
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /// The deltas of the counters sent but not yet acknowledged.
+    private final ConcurrentMap<String, LongAdder> unacknowledged = new ConcurrentHashMap<>();
+
+    /// The pending deltas of the hash fields by key.
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> hashCounters = new ConcurrentHashMap<>();
+
+    /// The number of increments since the last flush.
+    private final LongAdder pending = new LongAdder();
+
+    /// The number of increments aggregated.
+    private final LongAdder increments = new LongAdder();
+
+    /// The number of commands sent.
+    private final LongAdder commands = new LongAdder();
+
+    /// True while a flush for the threshold is queued.
+    private final AtomicBoolean thresholdFlush = new AtomicBoolean();
+
+    /// The scheduler of the flushes.
+    private ScheduledExecutorService scheduler;
+
+    /// The interval in milliseconds between flushes.
+    @Value("${valkey.counters.flushMillis:1000}")
+    private long flushMillis;
+
+    /// The number of pending increments that triggers a flush.
+    @Value("${valkey.counters.flushThreshold:100000}")
+    private long flushThreshold;
+
+    /// The constructor.
+    ///
+    /// @param  client      glide.api.GlideClient
+    /// @param  lifecycle   net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public CounterAggregator(final GlideClient client, final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.client = client;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Start flushing.
+    @PostConstruct
+    public void start() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("valkey-counters")
+                .daemon(true)
+                .factory());
+
+        this.scheduler.scheduleWithFixedDelay(this::scheduledFlush, this.flushMillis, this.flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /// Stop flushing and send what is left.
+    @PreDestroy
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+
+        try {
+            this.flush().join();
+
+            this.logger.info("Sent {} counter increments in {} commands", this.increments.sum(), this.commands.sum());
+        } catch (final CompletionException e) {
+            this.logger.error("Unable to flush the counters at shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    /// Increment a counter by one.
+    ///
+    /// @param  name    java.lang.String
+    public void increment(final String name) {
+        this.add(name, 1);
+    }
+
+    /// Add to a counter.
+    ///
+    /// @param  name    java.lang.String
+    /// @param  delta   long
+    public void add(final String name, final long delta) {
+        this.counters.computeIfAbsent(name, key -> new LongAdder()).add(delta);
+        this.pended();
+    }
+
+    /// Add to a field of a hash of counters.
+    ///
+    /// @param  name    java.lang.String    The name of the hash
+    /// @param  field   java.lang.String
+    /// @param  delta   long
+    public void add(final String name, final String field, final long delta) {
+        this.hashCounters.computeIfAbsent(name, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(field, key -> new LongAdder())
+                .add(delta);
+        this.pended();
+    }
+
+    /// Return the value of a counter, including the
+    /// increments not yet flushed and those flushed
+    /// but not yet acknowledged.
+    ///
+    /// @param  name    java.lang.String
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Long>
+    public CompletableFuture<Long> get(final String name) {
+        final LongAdder adder = this.counters.get(name);
+        final LongAdder sent = this.unacknowledged.get(name);
+        final long local = (adder == null ? 0 : adder.sum()) + (sent == null ? 0 : sent.sum());
+
+        return this.lifecycle.submit(() -> this.client.get(this.keys.key(name)))
+                .thenApply(value -> (value == null ? 0 : Long.parseLong(value.getString())) + local);
+    }
+
+    /// Return the key of a counter or hash of counters.
+    ///
+    /// @param  name    java.lang.String
+    /// @return         glide.api.models.GlideString
+    public GlideString key(final String name) {
+        return this.keys.key(name);
+    }
+
+    /// Return the number of increments aggregated.
+    ///
+    /// @return long
+    public long getIncrements() {
+        return this.increments.sum();
+    }
+
+    /// Return the number of commands sent.
+    ///
+    /// @return long
+    public long getCommands() {
+        return this.commands.sum();
+    }
+
+    /// Send the pending deltas. Each delta is read
+    /// and then subtracted rather than reset, so
+    /// increments made during the flush are kept for
+    /// the next one. A counter's delta is held as
+    /// unacknowledged until its command completes.
+    ///
+    /// @return java.util.concurrent.CompletableFuture<java.lang.Void>
+    public synchronized CompletableFuture<Void> flush() {
+        final List<CompletableFuture<Long>> futures = new ArrayList<>();
+
+        this.pending.reset();
+
+        for (final Map.Entry<String, LongAdder> entry : this.counters.entrySet()) {
+            final LongAdder adder = entry.getValue();
+            final long delta = adder.sum();
+
+            if (delta != 0) {
+                final LongAdder sent = this.unacknowledged.computeIfAbsent(entry.getKey(), key -> new LongAdder());
+
+                /* Held as sent before it leaves the pending delta, so a concurrent get never misses it */
+
+                sent.add(delta);
+                adder.add(-delta);
+
+                futures.add(this.send(this.client.incrBy(this.keys.key(entry.getKey()), delta), adder, sent, delta));
+            }
+        }
+
+        for (final Map.Entry<String, ConcurrentMap<String, LongAdder>> hash : this.hashCounters.entrySet()) {
+            final GlideString key = this.keys.key(hash.getKey());
+
+            for (final Map.Entry<String, LongAdder> entry : hash.getValue().entrySet()) {
+                final LongAdder adder = entry.getValue();
+                final long delta = adder.sum();
+
+                if (delta != 0) {
+                    adder.add(-delta);
+
+                    futures.add(this.send(this.client.hincrBy(key, gs(entry.getKey()), delta), adder, null, delta));
+                }
+            }
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /// Count a command, adding its delta back if it
+    /// fails and releasing it from the unacknowledged
+    /// deltas when it completes.
+    ///
+    /// @param  command java.util.concurrent.CompletableFuture<java.lang.Long>
+    /// @param  adder   java.util.concurrent.atomic.LongAdder
+    /// @param  sent    java.util.concurrent.atomic.LongAdder   The unacknowledged deltas, or null for a hash field
+    /// @param  delta   long
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Long>
+    private CompletableFuture<Long> send(final CompletableFuture<Long> command,
+                                         final LongAdder adder,
+                                         final LongAdder sent,
+                                         final long delta) {
+        this.commands.increment();
+
+        return command.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                adder.add(delta);
+            }
+
+            if (sent != null) {
+                sent.add(-delta);
+            }
+        });
+    }
+
+    /// Count an increment and queue a flush once the
+    /// threshold is reached. The pending count is only
+    /// summed for one increment in 64, which keeps
+    /// the check off the hot path.
+    private void pended() {
+        this.pending.increment();
+        this.increments.increment();
+
+        if (ThreadLocalRandom.current().nextInt(64) == 0
+                && this.pending.sum() >= this.flushThreshold
+                && this.scheduler != null
+                && this.thresholdFlush.compareAndSet(false, true)) {
+            try {
+                this.scheduler.execute(() -> {
+                    this.thresholdFlush.set(false);
+                    this.scheduledFlush();
+                });
+            } catch (final RejectedExecutionException e) {
+                this.thresholdFlush.set(false);     // Shutting down; the last flush sends it
+            }
+        }
+    }
+
+    /// Flush, logging a failure.
+    private void scheduledFlush() {
+        this.flush().whenComplete((done, throwable) -> {
+            if (throwable != null) {
+                this.logger.warn("Unable to flush the counters: {}", throwable.getMessage());
+            }
+        });
+    }
+}
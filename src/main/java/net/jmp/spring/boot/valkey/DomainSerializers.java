@@ -0,0 +1,66 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)DomainSerializers.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+
+/// The domain serializers class. It registers every
+/// domain class with its serializer under a fixed
+/// identifier, so a value carries a one-byte class
+/// identifier instead of its class name.
+///
+/// The identifiers are part of the stored format:
+/// never change or reuse one.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class DomainSerializers {
+    /// The identifier of addresses.
+    public static final int ADDRESS_ID = 20;
+
+    /// The identifier of persons.
+    public static final int PERSON_ID = 21;
+
+    /// The identifier of animals.
+    public static final int ANIMAL_ID = 22;
+
+    /// The default constructor.
+    private DomainSerializers() {
+        super();
+    }
+
+    /// Register the domain classes with a Kryo instance.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    public static void register(final Kryo kryo) {
+        kryo.register(Address.class, new AddressSerializer(), ADDRESS_ID);
+        kryo.register(Person.class, new PersonSerializer(), PERSON_ID);
+        kryo.register(Animal.class, new AnimalSerializer(), ANIMAL_ID);
+    }
+}
@@ -0,0 +1,78 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)DomainTypeAdapterFactory.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+
+import com.google.gson.reflect.TypeToken;
+
+/// The domain type adapter factory class. It
+/// supplies the streaming adapters of the domain
+/// model in place of Gson's reflective ones. It is
+/// registered with the application's Gson by the
+/// Valkey configuration.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class DomainTypeAdapterFactory implements TypeAdapterFactory {
+    /// The address adapter.
+    private final TypeAdapter<Address> addressAdapter = new AddressTypeAdapter().nullSafe();
+
+    /// The person adapter.
+    private final TypeAdapter<Person> personAdapter = new PersonTypeAdapter(this.addressAdapter).nullSafe();
+
+    /// The default constructor.
+    public DomainTypeAdapterFactory() {
+        super();
+    }
+
+    /// Create an adapter for a type.
+    ///
+    /// @param  <T>     The type
+    /// @param  gson    com.google.gson.Gson
+    /// @param  type    com.google.gson.reflect.TypeToken<T>
+    /// @return         com.google.gson.TypeAdapter<T>  Null if the type is not part of the domain model
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        final Class<? super T> rawType = type.getRawType();
+
+        if (rawType == Person.class) {
+            return (TypeAdapter<T>) this.personAdapter;
+        }
+
+        if (rawType == Address.class) {
+            return (TypeAdapter<T>) this.addressAdapter;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,136 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)EnvelopePublisher.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import static glide.api.models.GlideString.gs;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The envelope publisher class. It publishes
+/// through the shared client with a
+/// [MessageEnvelope] before each payload, numbering
+/// the messages of each channel from one.
+///
+/// The messages of a channel are numbered under a
+/// random publisher id, so subscribers tell a new
+/// numbering from a late message by the id alone.
+/// A channel not published to for
+/// `valkey.pubsub.idleSourceSeconds` is forgotten,
+/// and its next message starts a new numbering
+/// under a new id.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class EnvelopePublisher {
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The numbering of each channel.
+    private final ConcurrentMap<String, Numbering> numberings = new ConcurrentHashMap<>();
+
+    /// The time the idle channels were last forgotten, from System.nanoTime.
+    private volatile long prunedNanos = System.nanoTime();
+
+    /// The seconds after which an idle channel is forgotten; zero or less to keep every channel.
+    @Value("${valkey.pubsub.idleSourceSeconds:600}")
+    private long idleSourceSeconds;
+
+    /// The constructor.
+    ///
+    /// @param  client  glide.api.GlideClient
+    public EnvelopePublisher(final GlideClient client) {
+        super();
+
+        this.client = client;
+    }
+
+    /// Publish a payload in an envelope.
+    ///
+    /// @param  channel java.lang.String
+    /// @param  payload byte[]
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.String>
+    public CompletableFuture<String> publish(final String channel, final byte[] payload) {
+        final long now = System.nanoTime();
+        final Numbering numbering = this.numberings.computeIfAbsent(channel, key -> new Numbering());
+        final long sequence = numbering.sequence.incrementAndGet();
+
+        numbering.usedNanos = now;
+        this.prune(now);
+
+        return this.client.publish(gs(MessageEnvelope.wrap(numbering.publisherId, sequence, payload)), gs(channel));
+    }
+
+    /// Forget the channels not published to for the
+    /// idle time, at most once per idle time.
+    ///
+    /// @param  now long    The time from System.nanoTime
+    private void prune(final long now) {
+        final long idleNanos = TimeUnit.SECONDS.toNanos(this.idleSourceSeconds);
+
+        if (idleNanos <= 0 || now - this.prunedNanos < idleNanos) {
+            return;
+        }
+
+        this.prunedNanos = now;
+
+        /* A message numbered by a numbering as it is forgotten still carries that numbering's id */
+
+        this.numberings.values().removeIf(numbering -> now - numbering.usedNanos >= idleNanos);
+    }
+
+    /// The numbering of the messages of a channel.
+    private static final class Numbering {
+        /// The publisher id.
+        private final long publisherId = ThreadLocalRandom.current().nextLong();
+
+        /// The last sequence number.
+        private final AtomicLong sequence = new AtomicLong();
+
+        /// The time it was last used, from System.nanoTime.
+        private volatile long usedNanos = System.nanoTime();
+
+        /// The default constructor.
+        private Numbering() {
+            super();
+        }
+    }
+}
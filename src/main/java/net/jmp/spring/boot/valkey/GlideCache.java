@@ -0,0 +1,396 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)GlideCache.java     0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import static glide.api.models.GlideString.gs;
+
+import glide.api.models.GlideString;
+
+import glide.api.models.commands.SetOptions;
+
+import glide.api.models.commands.scan.ScanOptions;
+
+import java.time.Duration;
+
+import java.util.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+
+/// The Glide cache class. It is a Spring cache
+/// whose entries are stored in Valkey through
+/// a Glide client. Keys are built as the key
+/// prefix, the cache name, `::` and the cache
+/// key, and values are encoded with a value codec.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class GlideCache extends AbstractValueAdaptingCache {
+    /// The bytes stored for a null value.
+    private static final byte[] NULL_VALUE = new byte[0];
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The cache name.
+    private final String name;
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The value codec.
+    private final ValueCodec codec;
+
+    /// The time-to-live for entries. Zero means no expiry.
+    private final Duration ttl;
+
+    /// The keys of this cache.
+    private final KeyTemplate cacheKeys;
+
+    /// The maximum number of keys deleted per command.
+    private final int evictionBatchSize;
+
+    /// The loads in flight.
+    private final SingleFlight<Object, Object> loads = new SingleFlight<>();
+
+    /// A constructor.
+    ///
+    /// @param  name                java.lang.String
+    /// @param  client              glide.api.GlideClient
+    /// @param  codec               net.jmp.spring.boot.valkey.ValueCodec
+    /// @param  ttl                 java.time.Duration
+    /// @param  keyPrefix           java.lang.String
+    /// @param  evictionBatchSize   int
+    /// @param  allowNullValues     boolean
+    public GlideCache(final String name,
+                      final GlideClient client,
+                      final ValueCodec codec,
+                      final Duration ttl,
+                      final String keyPrefix,
+                      final int evictionBatchSize,
+                      final boolean allowNullValues) {
+        super(allowNullValues);
+
+        this.name = Objects.requireNonNull(name, "name");
+        this.client = Objects.requireNonNull(client, "client");
+        this.codec = Objects.requireNonNull(codec, "codec");
+        this.ttl = ttl == null ? Duration.ZERO : ttl;
+        this.cacheKeys = new KeyTemplate((keyPrefix == null ? "" : keyPrefix) + name + "::");
+        this.evictionBatchSize = Math.max(1, evictionBatchSize);
+    }
+
+    /// Get the cache name.
+    ///
+    /// @return java.lang.String
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /// Get the native cache.
+    ///
+    /// @return java.lang.Object    The glide.api.GlideClient
+    @Override
+    public Object getNativeCache() {
+        return this.client;
+    }
+
+    /// Get the time-to-live for entries.
+    ///
+    /// @return java.time.Duration
+    public Duration getTtl() {
+        return this.ttl;
+    }
+
+    /// Look up a value in Valkey.
+    ///
+    /// @param  key java.lang.Object
+    /// @return     java.lang.Object    The store value or null
+    @Override
+    protected Object lookup(final Object key) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(key));
+        }
+
+        final GlideString value = this.client.get(this.cacheKey(key)).join();
+
+        Object storeValue = null;
+
+        if (value != null) {
+            final byte[] bytes = value.getBytes();
+
+            storeValue = bytes.length == 0 ? NullValue.INSTANCE : this.codec.decode(bytes);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(storeValue));
+        }
+
+        return storeValue;
+    }
+
+    /// Get a value, loading and storing it when it is
+    /// not in the cache. Concurrent misses for the
+    /// same key in this JVM share one load.
+    ///
+    /// @param  <T>         The type of the value
+    /// @param  key         java.lang.Object
+    /// @param  valueLoader java.util.concurrent.Callable<T>
+    /// @return             T
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final ValueWrapper wrapper = this.get(key);
+
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        try {
+            return (T) this.loads.execute(key, () -> {
+                try {
+                    final T value = valueLoader.call();
+
+                    this.put(key, value);
+
+                    return CompletableFuture.completedFuture(value);
+                } catch (final Exception e) {
+                    return CompletableFuture.failedFuture(new ValueRetrievalException(key, valueLoader, e));
+                }
+            }).join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+
+            throw e;
+        }
+    }
+
+    /// Put a value into the cache.
+    ///
+    /// @param  key     java.lang.Object
+    /// @param  value   java.lang.Object
+    @Override
+    public void put(final Object key, final Object value) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(key, value));
+        }
+
+        this.client.set(this.cacheKey(key), this.encode(value), this.setOptions(false)).join();
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Put a value into the cache if
+    /// it does not already hold the key.
+    ///
+    /// @param  key     java.lang.Object
+    /// @param  value   java.lang.Object
+    /// @return         org.springframework.cache.Cache.ValueWrapper    The existing value or null
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(key, value));
+        }
+
+        final String result = this.client.set(this.cacheKey(key), this.encode(value), this.setOptions(true)).join();
+
+        ValueWrapper existing = null;
+
+        if (result == null) {
+            existing = this.toValueWrapper(this.lookup(key));
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(existing));
+        }
+
+        return existing;
+    }
+
+    /// Evict a key from the cache.
+    ///
+    /// @param  key java.lang.Object
+    @Override
+    public void evict(final Object key) {
+        this.evictIfPresent(key);
+    }
+
+    /// Evict a key from the cache.
+    ///
+    /// @param  key java.lang.Object
+    /// @return     boolean     True if the key was present
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        return this.client.del(new GlideString[] { this.cacheKey(key) }).join() > 0;
+    }
+
+    /// Evict a number of keys from the cache. The
+    /// keys are unlinked in batches and the batches
+    /// are sent without waiting on each other.
+    ///
+    /// @param  keys    java.util.Collection<?>
+    /// @return         long    The number of keys removed
+    public long evictAll(final Collection<?> keys) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(keys));
+        }
+
+        final List<GlideString> cacheKeys = new ArrayList<>(keys.size());
+
+        for (final Object key : keys) {
+            cacheKeys.add(this.cacheKey(key));
+        }
+
+        final long removed = this.unlinkInBatches(cacheKeys);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(removed));
+        }
+
+        return removed;
+    }
+
+    /// Clear the cache. The keys are found with
+    /// SCAN so the server is never blocked.
+    @Override
+    public void clear() {
+        this.invalidate();
+    }
+
+    /// Clear the cache.
+    ///
+    /// @return boolean     True if any keys were removed
+    @Override
+    public boolean invalidate() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        final ScanOptions options = ScanOptions.builder()
+                .matchPattern(this.cacheKeys.pattern())
+                .count((long) this.evictionBatchSize)
+                .build();
+
+        final List<CompletableFuture<Long>> unlinks = new ArrayList<>();
+
+        GlideString cursor = gs("0");
+
+        do {
+            final Object[] result = this.client.scan(cursor, options).join();
+            final Object[] keys = (Object[]) result[1];
+
+            cursor = (GlideString) result[0];
+
+            if (keys.length > 0) {
+                unlinks.add(this.client.unlink(Arrays.copyOf(keys, keys.length, GlideString[].class)));
+            }
+        } while (!"0".equals(cursor.getString()));
+
+        final long removed = unlinks.stream()
+                .mapToLong(CompletableFuture::join)
+                .sum();
+
+        this.logger.debug("Cleared {} keys from cache {}", removed, this.name);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(removed));
+        }
+
+        return removed > 0;
+    }
+
+    /// Unlink keys in batches.
+    ///
+    /// @param  keys    java.util.List<glide.api.models.GlideString>
+    /// @return         long    The number of keys removed
+    private long unlinkInBatches(final List<GlideString> keys) {
+        final List<CompletableFuture<Long>> unlinks = new ArrayList<>();
+
+        for (int i = 0; i < keys.size(); i += this.evictionBatchSize) {
+            final List<GlideString> batch = keys.subList(i, Math.min(keys.size(), i + this.evictionBatchSize));
+
+            unlinks.add(this.client.unlink(batch.toArray(new GlideString[0])));
+        }
+
+        return unlinks.stream()
+                .mapToLong(CompletableFuture::join)
+                .sum();
+    }
+
+    /// Build the Valkey key for a cache key.
+    ///
+    /// @param  key java.lang.Object
+    /// @return     glide.api.models.GlideString
+    private GlideString cacheKey(final Object key) {
+        return this.cacheKeys.key(key);
+    }
+
+    /// Encode a value for storage.
+    ///
+    /// @param  value   java.lang.Object
+    /// @return         glide.api.models.GlideString
+    private GlideString encode(final Object value) {
+        final Object storeValue = this.toStoreValue(value);
+
+        return gs(storeValue == NullValue.INSTANCE ? NULL_VALUE : this.codec.encode(storeValue));
+    }
+
+    /// Build the set options.
+    ///
+    /// @param  onlyIfAbsent    boolean
+    /// @return                 glide.api.models.commands.SetOptions
+    private SetOptions setOptions(final boolean onlyIfAbsent) {
+        final SetOptions.SetOptionsBuilder builder = SetOptions.builder();
+
+        if (!this.ttl.isZero() && !this.ttl.isNegative()) {
+            builder.expiry(SetOptions.Expiry.Milliseconds(this.ttl.toMillis()));
+        }
+
+        if (onlyIfAbsent) {
+            builder.conditionalSetOnlyIfNotExist();
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,133 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)GlideCacheManager.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import java.time.Duration;
+
+import java.util.*;
+
+import org.springframework.cache.Cache;
+
+import org.springframework.cache.support.AbstractCacheManager;
+
+/// The Glide cache manager class. Caches named
+/// in the time-to-live map are created at start
+/// up with their own time-to-live; any other
+/// cache is created on first use with the
+/// default time-to-live.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class GlideCacheManager extends AbstractCacheManager {
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The value codec.
+    private final ValueCodec codec;
+
+    /// The default time-to-live.
+    private final Duration defaultTtl;
+
+    /// The time-to-live for each configured cache.
+    private final Map<String, Duration> ttls;
+
+    /// The key prefix.
+    private final String keyPrefix;
+
+    /// The maximum number of keys deleted per command.
+    private final int evictionBatchSize;
+
+    /// True if null values can be cached.
+    private final boolean allowNullValues;
+
+    /// A constructor.
+    ///
+    /// @param  client              glide.api.GlideClient
+    /// @param  codec               net.jmp.spring.boot.valkey.ValueCodec
+    /// @param  defaultTtl          java.time.Duration
+    /// @param  ttls                java.util.Map<java.lang.String, java.time.Duration>
+    /// @param  keyPrefix           java.lang.String
+    /// @param  evictionBatchSize   int
+    /// @param  allowNullValues     boolean
+    public GlideCacheManager(final GlideClient client,
+                             final ValueCodec codec,
+                             final Duration defaultTtl,
+                             final Map<String, Duration> ttls,
+                             final String keyPrefix,
+                             final int evictionBatchSize,
+                             final boolean allowNullValues) {
+        super();
+
+        this.client = client;
+        this.codec = codec;
+        this.defaultTtl = defaultTtl;
+        this.ttls = Map.copyOf(ttls);
+        this.keyPrefix = keyPrefix;
+        this.evictionBatchSize = evictionBatchSize;
+        this.allowNullValues = allowNullValues;
+    }
+
+    /// Load the configured caches.
+    ///
+    /// @return java.util.Collection<? extends org.springframework.cache.Cache>
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        final List<Cache> caches = new ArrayList<>(this.ttls.size());
+
+        this.ttls.forEach((name, ttl) -> caches.add(this.newCache(name, ttl)));
+
+        return caches;
+    }
+
+    /// Create a cache that was not configured.
+    ///
+    /// @param  name    java.lang.String
+    /// @return         org.springframework.cache.Cache
+    @Override
+    protected Cache getMissingCache(final String name) {
+        return this.newCache(name, this.defaultTtl);
+    }
+
+    /// Create a new cache.
+    ///
+    /// @param  name    java.lang.String
+    /// @param  ttl     java.time.Duration
+    /// @return         net.jmp.spring.boot.valkey.GlideCache
+    private GlideCache newCache(final String name, final Duration ttl) {
+        return new GlideCache(name,
+                this.client,
+                this.codec,
+                ttl,
+                this.keyPrefix,
+                this.evictionBatchSize,
+                this.allowNullValues);
+    }
+}
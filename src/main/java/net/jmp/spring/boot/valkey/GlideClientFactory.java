@@ -0,0 +1,143 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)GlideClientFactory.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.configuration.GlideClientConfiguration;
+import glide.api.models.configuration.NodeAddress;
+import glide.api.models.configuration.StandaloneSubscriptionConfiguration;
+
+import java.util.concurrent.ExecutionException;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The Glide client factory class. Every
+/// Glide client in the application is
+/// created from the same set of properties.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class GlideClientFactory {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client name.
+    @Value("${glide.client.name}")
+    private String glideClientName;
+
+    /// The Glide host.
+    @Value("${glide.host}")
+    private String glideHost;
+
+    /// The Glide port.
+    @Value("${glide.port}")
+    private int glidePort;
+
+    /// True when using SSL with Glide.
+    @Value("${glide.useSsl}")
+    private boolean glideUseSsl;
+
+    /// The default constructor.
+    public GlideClientFactory() {
+        super();
+    }
+
+    /// Connect to Valkey using Glide.
+    ///
+    /// @param  pubSubconfig    glide.api.models.configuration.StandaloneSubscriptionConfiguration
+    /// @return                 glide.api.GlideClient                                                   The glide.api.GlideClient
+    /// @throws                 java.lang.RuntimeException  When the Glide client cannot be created
+    public GlideClient connect(final StandaloneSubscriptionConfiguration pubSubconfig) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(pubSubconfig));
+        }
+
+        GlideClientConfiguration config = null;
+
+        if (pubSubconfig == null) {
+            config =
+                    GlideClientConfiguration.builder()
+                            .address(NodeAddress.builder()
+                                    .host(this.glideHost)
+                                    .port(this.glidePort)
+                                    .build()
+                            )
+                            .clientName(this.glideClientName)
+                            .useTLS(this.glideUseSsl)
+                            .build();
+        } else {
+            config =
+                    GlideClientConfiguration.builder()
+                            .address(NodeAddress.builder()
+                                    .host(this.glideHost)
+                                    .port(this.glidePort)
+                                    .build()
+                            )
+                            .clientName(this.glideClientName)
+                            .useTLS(this.glideUseSsl)
+                            .subscriptionConfiguration(pubSubconfig)
+                            .build();
+        }
+
+        GlideClient glideClient = null;
+
+        try {
+            glideClient = GlideClient.createClient(config).exceptionally(throwable -> {
+                this.logger.error("Glide client creation incurred an exception: {}", throwable.getMessage(), throwable);
+                return null;
+            }).get();
+        } catch (final ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                this.logger.error("Glide client creation was interrupted: {}", e.getMessage(), e);
+            } else {
+                this.logger.error("Glide client creation incurred an execution exception: {}", e.getMessage(), e);
+            }
+        }
+
+        if (glideClient == null) {
+            throw new RuntimeException("Unable to create Glide client");
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(glideClient));
+        }
+
+        return glideClient;
+    }
+}
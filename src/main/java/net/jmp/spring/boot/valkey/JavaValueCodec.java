@@ -0,0 +1,91 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)JavaValueCodec.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.*;
+
+/// The Java serialization value codec class.
+/// Objects must implement java.io.Serializable.
+/// They are written into pooled serialization
+/// buffers.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class JavaValueCodec implements ValueCodec {
+    /// The default constructor.
+    public JavaValueCodec() {
+        super();
+    }
+
+    /// Encode an object into bytes.
+    ///
+    /// @param  object  java.lang.Object
+    /// @return         byte[]
+    @Override
+    public byte[] encode(final Object object) {
+        final SerializationBuffer buffer = SerializationBuffer.obtain();
+
+        try {
+            try (final ObjectOutputStream objectStream = new ObjectOutputStream(buffer)) {
+                objectStream.writeObject(object);
+            }
+
+            return buffer.toByteArray();
+        } catch (final IOException e) {
+            throw new CodecException("Error serializing object: " + e.getMessage(), e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /// Decode bytes into an object.
+    ///
+    /// @param  bytes   byte[]
+    /// @return         java.lang.Object
+    @Override
+    public Object decode(final byte[] bytes) {
+        return this.decode(bytes, 0, bytes.length);
+    }
+
+    /// Decode a range of bytes into an object,
+    /// reading it in place.
+    ///
+    /// @param  bytes   byte[]
+    /// @param  offset  int
+    /// @param  length  int
+    /// @return         java.lang.Object
+    @Override
+    public Object decode(final byte[] bytes, final int offset, final int length) {
+        try (final ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(bytes, offset, length))) {
+            return objectStream.readObject();
+        } catch (final ClassNotFoundException | IOException e) {
+            throw new CodecException("Error deserializing object: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)KeyTemplate.java      0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import static glide.api.models.GlideString.gs;
+
+import glide.api.models.GlideString;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Objects;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/// The key template class. It builds the keys of
+/// one namespace, such as `bench:s:`, straight into
+/// a byte array of the right size from prefix bytes
+/// that are encoded once. A numeric key costs one
+/// array and its wrapper instead of a builder, a
+/// string and the encoding of that string.
+///
+/// Keys and field names that never change are
+/// encoded once and shared; see [#constant(String)]
+/// and [#intern(String)].
+///
+/// It is thread-safe.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class KeyTemplate {
+    /// The shared constants.
+    private static final ConcurrentMap<String, GlideString> INTERNED = new ConcurrentHashMap<>();
+
+    /// The prefix.
+    private final String prefix;
+
+    /// The encoded prefix.
+    private final byte[] prefixBytes;
+
+    /// The constant keys of this namespace.
+    private final ConcurrentMap<String, GlideString> constants = new ConcurrentHashMap<>();
+
+    /// A constructor.
+    ///
+    /// @param  prefix  java.lang.String    The prefix of every key, separator included
+    public KeyTemplate(final String prefix) {
+        super();
+
+        this.prefix = Objects.requireNonNull(prefix, "prefix");
+        this.prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /// Create a template whose prefix is the parts
+    /// joined and followed by colons, so that
+    /// `of("bench", "s")` builds `bench:s:<suffix>`.
+    ///
+    /// @param  parts   java.lang.String[]
+    /// @return         net.jmp.spring.boot.valkey.KeyTemplate
+    public static KeyTemplate of(final String... parts) {
+        final StringBuilder sb = new StringBuilder();
+
+        for (final String part : parts) {
+            sb.append(part).append(':');
+        }
+
+        return new KeyTemplate(sb.toString());
+    }
+
+    /// Get a shared glide string for a constant such
+    /// as a field name. Only use it for a bounded set
+    /// of values; they are never released.
+    ///
+    /// @param  value   java.lang.String
+    /// @return         glide.api.models.GlideString
+    public static GlideString intern(final String value) {
+        return INTERNED.computeIfAbsent(value, GlideString::gs);
+    }
+
+    /// Get the prefix.
+    ///
+    /// @return java.lang.String
+    public String getPrefix() {
+        return this.prefix;
+    }
+
+    /// Build the key for a number.
+    ///
+    /// @param  id  long
+    /// @return     glide.api.models.GlideString
+    public GlideString key(final long id) {
+        if (id == Long.MIN_VALUE) {
+            return this.key(Long.toString(id));
+        }
+
+        final int digits = digits(id);
+        final byte[] key = this.newKey(digits);
+
+        long value = Math.abs(id);
+        int position = key.length;
+
+        do {
+            key[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+
+        if (id < 0) {
+            key[--position] = '-';
+        }
+
+        return gs(key);
+    }
+
+    /// Build the key for a suffix.
+    ///
+    /// @param  suffix  java.lang.String
+    /// @return         glide.api.models.GlideString
+    public GlideString key(final String suffix) {
+        final int length = suffix.length();
+
+        for (int i = 0; i < length; i++) {
+            if (suffix.charAt(i) >= 0x80) {
+                return this.key(suffix.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        final byte[] key = this.newKey(length);
+
+        for (int i = 0; i < length; i++) {
+            key[this.prefixBytes.length + i] = (byte) suffix.charAt(i);
+        }
+
+        return gs(key);
+    }
+
+    /// Build the key for a suffix that is already encoded.
+    ///
+    /// @param  suffix  byte[]
+    /// @return         glide.api.models.GlideString
+    public GlideString key(final byte[] suffix) {
+        final byte[] key = this.newKey(suffix.length);
+
+        System.arraycopy(suffix, 0, key, this.prefixBytes.length, suffix.length);
+
+        return gs(key);
+    }
+
+    /// Build the key for an object from its string form.
+    ///
+    /// @param  suffix  java.lang.Object
+    /// @return         glide.api.models.GlideString
+    /// @throws         java.lang.IllegalArgumentException  When the suffix is null
+    public GlideString key(final Object suffix) {
+        return switch (suffix) {
+            case null -> throw new IllegalArgumentException("A key suffix is required for prefix: " + this.prefix);
+            case Long id -> this.key(id.longValue());
+            case Integer id -> this.key(id.longValue());
+            case byte[] bytes -> this.key(bytes);
+            default -> this.key(String.valueOf(suffix));
+        };
+    }
+
+    /// Get the key for a suffix that never changes.
+    /// It is built once and shared.
+    ///
+    /// @param  suffix  java.lang.String
+    /// @return         glide.api.models.GlideString
+    public GlideString constant(final String suffix) {
+        return this.constants.computeIfAbsent(suffix, this::key);
+    }
+
+    /// Get the pattern that matches every key of this
+    /// template. The glob characters of the prefix are
+    /// escaped, so that it matches only itself.
+    ///
+    /// @return java.lang.String
+    public String pattern() {
+        return escape(this.prefix) + "*";
+    }
+
+    /// Escape the characters that `MATCH` and `KEYS`
+    /// patterns treat as glob syntax.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         java.lang.String
+    static String escape(final String text) {
+        final StringBuilder builder = new StringBuilder(text.length() + 8);
+
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\') {
+                builder.append('\\');
+            }
+
+            builder.append(c);
+        }
+
+        return builder.toString();
+    }
+
+    /// Allocate a key with the prefix in place.
+    ///
+    /// @param  suffixLength    int
+    /// @return                 byte[]
+    private byte[] newKey(final int suffixLength) {
+        final byte[] key = new byte[this.prefixBytes.length + suffixLength];
+
+        System.arraycopy(this.prefixBytes, 0, key, 0, this.prefixBytes.length);
+
+        return key;
+    }
+
+    /// Count the characters of a number, sign included.
+    ///
+    /// @param  id  long    Not the smallest long
+    /// @return     int
+    private static int digits(final long id) {
+        long value = Math.abs(id);
+        int digits = 1;
+
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+
+        return id < 0 ? digits + 1 : digits;
+    }
+
+    /// The default toString method.
+    ///
+    /// @return     java.lang.String
+    @Override
+    public String toString() {
+        return "KeyTemplate{" +
+                "prefix='" + this.prefix + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,300 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)KeyspaceSnapshot.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import static glide.api.models.GlideString.gs;
+
+import glide.api.models.GlideString;
+
+import glide.api.models.commands.RestoreOptions;
+
+import glide.api.models.commands.scan.ScanOptions;
+
+import java.io.IOException;
+
+import java.nio.channels.FileChannel;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The keyspace snapshot class. It exports the
+/// keyspace to a file and restores it from one.
+///
+/// The export walks the keys with SCAN and, for
+/// each page, sends every DUMP and PTTL at once.
+/// The next page is scanned while the current one
+/// is written. The restore sends RESTORE commands
+/// with a bound on how many are outstanding.
+///
+/// The file is a magic string and a version, then
+/// for each key its length and bytes, its absolute
+/// expiry in epoch milliseconds (zero for none),
+/// and the length and bytes of its dump, and then
+/// a key length of -1.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class KeyspaceSnapshot {
+    /// The magic string at the start of a snapshot.
+    private static final byte[] MAGIC = "VKSNAP".getBytes(StandardCharsets.US_ASCII);
+
+    /// The snapshot format version.
+    private static final int VERSION = 1;
+
+    /// The key length that ends a snapshot.
+    private static final int END = -1;
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The number of keys asked for per SCAN.
+    @Value("${valkey.snapshot.scanCount:1000}")
+    private long scanCount;
+
+    /// The size of the file buffer.
+    @Value("${valkey.snapshot.bufferSize:4194304}")
+    private int bufferSize;
+
+    /// The maximum number of RESTORE commands outstanding.
+    @Value("${valkey.snapshot.maxInFlightRestores:256}")
+    private int maxInFlightRestores;
+
+    /// The constructor.
+    ///
+    /// @param  client  glide.api.GlideClient
+    public KeyspaceSnapshot(final GlideClient client) {
+        super();
+
+        this.client = client;
+    }
+
+    /// Export the keyspace to a file.
+    ///
+    /// @param  path            java.nio.file.Path
+    /// @param  matchPattern    java.lang.String    The keys to export
+    /// @return                 long    The number of keys exported
+    /// @throws                 java.io.IOException When the file cannot be written
+    public long export(final Path path, final String matchPattern) throws IOException {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(path, matchPattern));
+        }
+
+        final long start = System.nanoTime();
+        final ScanOptions options = ScanOptions.builder()
+                .matchPattern(matchPattern)
+                .count(this.scanCount)
+                .build();
+
+        long exported = 0;
+        long bytes;
+
+        try (final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             final ChannelWriter writer = new ChannelWriter(channel, this.bufferSize)) {
+            writer.writeBytes(MAGIC);
+            writer.writeInt(VERSION);
+
+            CompletableFuture<Object[]> scan = this.client.scan(gs("0"), options);
+            GlideString cursor;
+
+            do {
+                final Object[] result = scan.join();
+                final Object[] keys = (Object[]) result[1];
+
+                cursor = (GlideString) result[0];
+
+                if (!"0".equals(cursor.getString())) {
+                    scan = this.client.scan(cursor, options);
+                }
+
+                exported += this.exportPage(writer, Arrays.copyOf(keys, keys.length, GlideString[].class));
+            } while (!"0".equals(cursor.getString()));
+
+            writer.writeInt(END);
+            writer.flush();
+
+            bytes = writer.getBytesWritten();
+        }
+
+        this.logger.info("Exported {} keys ({} MB) to {} in {} ms",
+                exported, bytes / (1024 * 1024), path, (System.nanoTime() - start) / 1_000_000);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(exported));
+        }
+
+        return exported;
+    }
+
+    /// Restore the keyspace from a file. Keys whose
+    /// expiry has passed are skipped.
+    ///
+    /// @param  path    java.nio.file.Path
+    /// @param  replace boolean     True to replace keys that exist
+    /// @return         long    The number of keys restored
+    /// @throws         java.io.IOException             When the file cannot be read or is not a snapshot
+    /// @throws         java.lang.InterruptedException  When interrupted waiting on a restore
+    public long restore(final Path path, final boolean replace) throws IOException, InterruptedException {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(path, replace));
+        }
+
+        final long start = System.nanoTime();
+        final RestoreOptions options = RestoreOptions.builder()
+                .hasReplace(replace)
+                .absttl()
+                .build();
+        final Semaphore inFlight = new Semaphore(this.maxInFlightRestores);
+        final AtomicLong restored = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+
+        long expired = 0;
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ChannelReader reader = new ChannelReader(channel, this.bufferSize);
+
+            if (!Arrays.equals(reader.readBytes(MAGIC.length), MAGIC)) {
+                throw new IOException(path + " is not a keyspace snapshot");
+            }
+
+            final int version = reader.readInt();
+
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+
+            int keyLength;
+
+            while ((keyLength = reader.readInt()) != END) {
+                final GlideString key = gs(reader.readBytes(keyLength));
+                final long expiresAt = reader.readLong();
+                final byte[] dump = reader.readBytes(reader.readInt());
+
+                if (expiresAt > 0 && expiresAt <= System.currentTimeMillis()) {
+                    expired++;
+                    continue;
+                }
+
+                inFlight.acquire();
+
+                this.client.restore(key, expiresAt, dump, options).whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        failed.incrementAndGet();
+                        this.logger.error("RESTORE({}) failed: {}", key, throwable.getMessage());
+                    } else {
+                        restored.incrementAndGet();
+                    }
+
+                    inFlight.release();
+                });
+            }
+        }
+
+        inFlight.acquire(this.maxInFlightRestores);     // Wait for every restore to complete
+        inFlight.release(this.maxInFlightRestores);
+
+        this.logger.info("Restored {} keys from {} in {} ms; {} expired, {} failed",
+                restored.get(), path, (System.nanoTime() - start) / 1_000_000, expired, failed.get());
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(restored.get()));
+        }
+
+        return restored.get();
+    }
+
+    /// Export one page of keys. Every DUMP and
+    /// PTTL for the page is sent before waiting
+    /// on any of them.
+    ///
+    /// @param  writer  net.jmp.spring.boot.valkey.ChannelWriter
+    /// @param  keys    glide.api.models.GlideString[]
+    /// @return         int     The number of keys written
+    /// @throws         java.io.IOException When the file cannot be written
+    private int exportPage(final ChannelWriter writer, final GlideString[] keys) throws IOException {
+        final List<CompletableFuture<byte[]>> dumps = new ArrayList<>(keys.length);
+        final List<CompletableFuture<Long>> ttls = new ArrayList<>(keys.length);
+
+        for (final GlideString key : keys) {
+            dumps.add(this.client.dump(key));
+            ttls.add(this.client.pttl(key));
+        }
+
+        final long now = System.currentTimeMillis();
+
+        int written = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            final byte[] dump = dumps.get(i).join();
+            final long ttl = ttls.get(i).join();
+
+            if (dump != null && ttl != -2) {    // -2 means the key is gone
+                final byte[] key = keys[i].getBytes();
+
+                writer.writeInt(key.length);
+                writer.writeBytes(key);
+                writer.writeLong(ttl > 0 ? now + ttl : 0);
+                writer.writeInt(dump.length);
+                writer.writeBytes(dump);
+
+                written++;
+            }
+        }
+
+        return written;
+    }
+}
@@ -0,0 +1,159 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)KryoValueCodec.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+
+import com.esotericsoftware.kryo.kryo5.objenesis.strategy.StdInstantiatorStrategy;
+
+import com.esotericsoftware.kryo.kryo5.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+
+/// The Kryo5 value codec class. Kryo instances
+/// are not thread-safe so they are pooled
+/// along with their output buffers.
+///
+/// The class of the object is written with
+/// the object, the same as `kryoSerialize`
+/// does in the Valkey service. The domain
+/// classes are registered, so for them that
+/// is a one-byte identifier rather than the
+/// class name.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class KryoValueCodec implements ValueCodec {
+    /// The initial output buffer size.
+    private static final int BUFFER_SIZE = 1024;
+
+    /// The pool of Kryo instances.
+    private final Pool<Kryo> kryoPool;
+
+    /// The pool of Kryo outputs.
+    private final Pool<Output> outputPool;
+
+    /// The default constructor.
+    public KryoValueCodec() {
+        super();
+
+        this.kryoPool = new Pool<>(true, false) {
+            @Override
+            protected Kryo create() {
+                return newKryo();
+            }
+        };
+
+        this.outputPool = new Pool<>(true, false) {
+            @Override
+            protected Output create() {
+                return new Output(BUFFER_SIZE, -1);
+            }
+        };
+    }
+
+    /// Encode an object into bytes.
+    ///
+    /// @param  object  java.lang.Object
+    /// @return         byte[]
+    @Override
+    public byte[] encode(final Object object) {
+        final Kryo kryo = this.kryoPool.obtain();
+        final Output output = this.outputPool.obtain();
+
+        try {
+            output.reset();
+            kryo.writeClassAndObject(output, object);
+
+            return output.toBytes();
+        } catch (final RuntimeException e) {
+            throw new CodecException("Error serializing object to Kryo5: " + e.getMessage(), e);
+        } finally {
+            this.outputPool.free(output);
+            this.kryoPool.free(kryo);
+        }
+    }
+
+    /// Decode bytes into an object.
+    ///
+    /// @param  bytes   byte[]
+    /// @return         java.lang.Object
+    @Override
+    public Object decode(final byte[] bytes) {
+        final Kryo kryo = this.kryoPool.obtain();
+
+        try (final Input input = new Input(bytes)) {
+            return kryo.readClassAndObject(input);
+        } catch (final RuntimeException e) {
+            throw new CodecException("Error deserializing Kryo5 object: " + e.getMessage(), e);
+        } finally {
+            this.kryoPool.free(kryo);
+        }
+    }
+
+    /// Decode a range of bytes into an object,
+    /// reading it in place.
+    ///
+    /// @param  bytes   byte[]
+    /// @param  offset  int
+    /// @param  length  int
+    /// @return         java.lang.Object
+    @Override
+    public Object decode(final byte[] bytes, final int offset, final int length) {
+        final Kryo kryo = this.kryoPool.obtain();
+
+        try (final Input input = new Input(bytes, offset, length)) {
+            return kryo.readClassAndObject(input);
+        } catch (final RuntimeException e) {
+            throw new CodecException("Error deserializing Kryo5 object: " + e.getMessage(), e);
+        } finally {
+            this.kryoPool.free(kryo);
+        }
+    }
+
+    /// Create and configure a new Kryo instance.
+    /// Registration is not required because cached
+    /// values can be of any type, but the domain
+    /// classes are registered with their versioned
+    /// serializers.
+    ///
+    /// @return com.esotericsoftware.kryo.kryo5.Kryo
+    private static Kryo newKryo() {
+        final Kryo kryo = new Kryo();
+
+        kryo.setRegistrationRequired(false);
+        kryo.setReferences(true);
+        kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+        DomainSerializers.register(kryo);
+
+        return kryo;
+    }
+}
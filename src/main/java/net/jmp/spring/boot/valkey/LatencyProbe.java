@@ -0,0 +1,473 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)LatencyProbe.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.commands.InfoOptions.Section;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The latency probe class. It pings the server
+/// through the shared client on a schedule and
+/// keeps the round-trip times of the last few
+/// windows in a rolling histogram. Less often it
+/// reads the clients, memory, stats and
+/// replication sections of `INFO` and keeps the
+/// fields the health indicator and the metrics
+/// report.
+///
+/// The replication lag is the gap in bytes between
+/// the primary's replication offset and the offset
+/// applied by the replica, the furthest behind one
+/// when read on a primary. A replica also reports
+/// whether its link to the primary is up; the time
+/// since the last I/O with the primary is not used,
+/// as an idle primary makes it grow with no lag.
+///
+/// Only one ping is outstanding at a time, so a
+/// stalled server is seen as a run of failed pings
+/// rather than a pile of queued ones.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class LatencyProbe implements MeterBinder {
+    /// The sections of INFO that are read.
+    private static final Section[] INFO_SECTIONS = {
+            Section.CLIENTS,
+            Section.MEMORY,
+            Section.STATS,
+            Section.REPLICATION
+    };
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The recorder of the current window's round-trip times in microseconds.
+    private final Recorder recorder = new Recorder(3);
+
+    /// The histograms of the completed windows, oldest first.
+    private final Deque<Histogram> windows = new ArrayDeque<>();
+
+    /// True while a ping is outstanding.
+    private final AtomicBoolean pinging = new AtomicBoolean();
+
+    /// The number of pings that have failed since the last success.
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /// The round-trip times of the completed windows; never written once published.
+    private volatile Histogram rolling = new Histogram(3);
+
+    /// The time in milliseconds of the last successful ping; zero before the first.
+    private volatile long lastSuccessMillis;
+
+    /// The message of the last failed ping.
+    private volatile String lastError;
+
+    /// The role of the server.
+    private volatile String role = "unknown";
+
+    /// The memory used by the server in bytes.
+    private volatile double usedMemory = Double.NaN;
+
+    /// The server's instantaneous operations per second.
+    private volatile double opsPerSecond = Double.NaN;
+
+    /// The number of clients connected to the server.
+    private volatile double connectedClients = Double.NaN;
+
+    /// The replication lag in bytes; the worst replica's on a primary.
+    private volatile double replicationLagBytes = Double.NaN;
+
+    /// One when a replica's link to its primary is up, zero when it is down, NaN on a primary.
+    private volatile double replicationLinkUp = Double.NaN;
+
+    /// The scheduler of the probes.
+    private ScheduledExecutorService scheduler;
+
+    /// True when the probe runs.
+    @Value("${valkey.probe.enabled:true}")
+    private boolean enabled;
+
+    /// The interval in milliseconds between pings.
+    @Value("${valkey.probe.intervalMillis:1000}")
+    private long intervalMillis;
+
+    /// The time in milliseconds after which a ping or INFO has failed.
+    @Value("${valkey.probe.timeoutMillis:1000}")
+    private long timeoutMillis;
+
+    /// The length in seconds of a histogram window.
+    @Value("${valkey.probe.windowSeconds:10}")
+    private long windowSeconds;
+
+    /// The number of windows in the rolling histogram.
+    @Value("${valkey.probe.windows:6}")
+    private int windowCount;
+
+    /// The interval in seconds between reads of INFO.
+    @Value("${valkey.probe.infoSeconds:10}")
+    private long infoSeconds;
+
+    /// The constructor.
+    ///
+    /// @param  client  glide.api.GlideClient
+    public LatencyProbe(final GlideClient client) {
+        super();
+
+        this.client = client;
+    }
+
+    /// Start probing.
+    @PostConstruct
+    public void start() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        if (this.enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("valkey-probe")
+                    .daemon(true)
+                    .factory());
+
+            this.scheduler.scheduleAtFixedRate(this::ping, 0, this.intervalMillis, TimeUnit.MILLISECONDS);
+            this.scheduler.scheduleAtFixedRate(this::roll, this.windowSeconds, this.windowSeconds, TimeUnit.SECONDS);
+            this.scheduler.scheduleAtFixedRate(this::info, 0, this.infoSeconds, TimeUnit.SECONDS);
+
+            this.logger.info("Probing Valkey every {} ms", this.intervalMillis);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Stop probing.
+    @PreDestroy
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    /// Register the probe's gauges.
+    ///
+    /// @param  registry    io.micrometer.core.instrument.MeterRegistry
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        for (final double percentile : new double[] { 50.0, 99.0, 99.9, 100.0 }) {
+            Gauge.builder("valkey.probe.rtt", this, probe -> probe.getRttMillis(percentile))
+                    .description("The round-trip time of a PING over the rolling window")
+                    .baseUnit("milliseconds")
+                    .tag("percentile", percentile == 100.0 ? "max" : Double.toString(percentile))
+                    .register(registry);
+        }
+
+        Gauge.builder("valkey.probe.failures", this, LatencyProbe::getConsecutiveFailures)
+                .description("The number of pings that have failed since the last success")
+                .register(registry);
+        Gauge.builder("valkey.memory.used", this, LatencyProbe::getUsedMemory)
+                .description("The memory used by the server")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("valkey.ops", this, LatencyProbe::getOpsPerSecond)
+                .description("The server's instantaneous operations per second")
+                .baseUnit("operations/second")
+                .register(registry);
+        Gauge.builder("valkey.clients.connected", this, LatencyProbe::getConnectedClients)
+                .description("The number of clients connected to the server")
+                .register(registry);
+        Gauge.builder("valkey.replication.lag", this, LatencyProbe::getReplicationLagBytes)
+                .description("The replication offset gap; the worst replica's on a primary")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("valkey.replication.link.up", this, LatencyProbe::getReplicationLinkUp)
+                .description("One when a replica's link to its primary is up, zero when it is down")
+                .register(registry);
+    }
+
+    /// Return true when the probe runs.
+    ///
+    /// @return boolean
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /// Return a percentile of the round-trip time
+    /// over the rolling window, or zero when there
+    /// are no samples yet.
+    ///
+    /// @param  percentile  double  From 0.0 to 100.0
+    /// @return             double  The time in milliseconds
+    public double getRttMillis(final double percentile) {
+        final Histogram histogram = this.rolling;
+
+        if (histogram.getTotalCount() == 0) {
+            return 0.0;
+        }
+
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    /// Return the number of round-trip times in the rolling window.
+    ///
+    /// @return long
+    public long getRttSamples() {
+        return this.rolling.getTotalCount();
+    }
+
+    /// Return the number of pings that have failed since the last success.
+    ///
+    /// @return int
+    public int getConsecutiveFailures() {
+        return this.consecutiveFailures.get();
+    }
+
+    /// Return the time of the last successful ping.
+    ///
+    /// @return long    The time in milliseconds; zero before the first
+    public long getLastSuccessMillis() {
+        return this.lastSuccessMillis;
+    }
+
+    /// Return the message of the last failed ping.
+    ///
+    /// @return java.lang.String
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    /// Return the role of the server.
+    ///
+    /// @return java.lang.String
+    public String getRole() {
+        return this.role;
+    }
+
+    /// Return the memory used by the server.
+    ///
+    /// @return double  The bytes or NaN when unknown
+    public double getUsedMemory() {
+        return this.usedMemory;
+    }
+
+    /// Return the server's instantaneous operations per second.
+    ///
+    /// @return double  The operations or NaN when unknown
+    public double getOpsPerSecond() {
+        return this.opsPerSecond;
+    }
+
+    /// Return the number of clients connected to the server.
+    ///
+    /// @return double  The clients or NaN when unknown
+    public double getConnectedClients() {
+        return this.connectedClients;
+    }
+
+    /// Return the replication lag.
+    ///
+    /// @return double  The bytes or NaN when unknown
+    public double getReplicationLagBytes() {
+        return this.replicationLagBytes;
+    }
+
+    /// Return the state of a replica's link to its primary.
+    ///
+    /// @return double  One when up, zero when down, or NaN on a primary or when unknown
+    public double getReplicationLinkUp() {
+        return this.replicationLinkUp;
+    }
+
+    /// Send a ping unless one is already outstanding.
+    private void ping() {
+        if (!this.pinging.compareAndSet(false, true)) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+
+        this.client.ping()
+                .orTimeout(this.timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((pong, throwable) -> {
+                    if (throwable == null) {
+                        this.recorder.recordValue(Math.max(1, (System.nanoTime() - start) / 1_000));
+                        this.lastSuccessMillis = System.currentTimeMillis();
+                        this.consecutiveFailures.set(0);
+                    } else {
+                        this.lastError = String.valueOf(throwable.getMessage());
+
+                        if (this.consecutiveFailures.incrementAndGet() == 1) {
+                            this.logger.warn("Valkey ping failed: {}", this.lastError);
+                        }
+                    }
+
+                    this.pinging.set(false);
+                });
+    }
+
+    /// Close the current window and publish a new
+    /// rolling histogram.
+    private void roll() {
+        final Histogram rollingHistogram = new Histogram(3);
+
+        this.windows.addLast(this.recorder.getIntervalHistogram());
+
+        while (this.windows.size() > this.windowCount) {
+            this.windows.removeFirst();
+        }
+
+        for (final Histogram window : this.windows) {
+            rollingHistogram.add(window);
+        }
+
+        this.rolling = rollingHistogram;
+    }
+
+    /// Read the selected sections of INFO.
+    private void info() {
+        this.client.info(INFO_SECTIONS)
+                .orTimeout(this.timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((info, throwable) -> {
+                    if (throwable == null) {
+                        this.parseInfo(info);
+                    } else if (this.logger.isDebugEnabled()) {
+                        this.logger.debug("Valkey INFO failed: {}", throwable.getMessage());
+                    }
+                });
+    }
+
+    /// Parse the fields of INFO that are kept.
+    ///
+    /// @param  info    java.lang.String
+    void parseInfo(final String info) {
+        double masterOffset = Double.NaN;
+        double appliedOffset = Double.NaN;
+        double slowestReplicaOffset = Double.NaN;
+        double linkUp = Double.NaN;
+
+        for (final String line : info.split("\r?\n")) {
+            final int colon = line.indexOf(':');
+
+            if (colon <= 0 || line.startsWith("#")) {
+                continue;
+            }
+
+            final String field = line.substring(0, colon);
+            final String value = line.substring(colon + 1).trim();
+
+            switch (field) {
+                case "role" -> this.role = value;
+                case "used_memory" -> this.usedMemory = parseNumber(value);
+                case "instantaneous_ops_per_sec" -> this.opsPerSecond = parseNumber(value);
+                case "connected_clients" -> this.connectedClients = parseNumber(value);
+                case "master_link_status" -> linkUp = "up".equals(value) ? 1.0 : 0.0;
+                case "master_repl_offset" -> masterOffset = parseNumber(value);
+                case "slave_repl_offset" -> appliedOffset = parseNumber(value);
+                default -> {
+                    /* On a primary each replica is a line like slave0:ip=...,offset=...,lag=0 */
+
+                    if (field.startsWith("slave") && value.contains("offset=")) {
+                        final double offset = parseNumber(attribute(value, "offset"));
+
+                        if (Double.isNaN(slowestReplicaOffset) || offset < slowestReplicaOffset) {
+                            slowestReplicaOffset = offset;
+                        }
+                    }
+                }
+            }
+        }
+
+        final boolean primary = "master".equals(this.role) || "primary".equals(this.role);
+
+        this.replicationLagBytes = Math.max(0.0, masterOffset - (primary ? slowestReplicaOffset : appliedOffset));
+        this.replicationLinkUp = primary ? Double.NaN : linkUp;
+    }
+
+    /// Return the value of an attribute in a list
+    /// of comma-separated name=value pairs.
+    ///
+    /// @param  pairs   java.lang.String
+    /// @param  name    java.lang.String
+    /// @return         java.lang.String    The value or an empty string
+    private static String attribute(final String pairs, final String name) {
+        for (final String pair : pairs.split(",")) {
+            if (pair.startsWith(name) && pair.length() > name.length() && pair.charAt(name.length()) == '=') {
+                return pair.substring(name.length() + 1);
+            }
+        }
+
+        return "";
+    }
+
+    /// Parse a number, returning NaN when it is not one.
+    ///
+    /// @param  value   java.lang.String
+    /// @return         double
+    private static double parseNumber(final String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (final NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
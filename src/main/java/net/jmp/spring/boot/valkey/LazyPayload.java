@@ -0,0 +1,132 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)LazyPayload.java    0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.GlideString;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/// The lazy payload class. It holds the range of a
+/// message's bytes that is one payload and decodes
+/// it the first time it is asked for, so a handler
+/// that filters on the channel or the size never
+/// pays for decoding.
+///
+/// A payload is handled on the subscriber's
+/// callback thread and is not meant to be shared
+/// with other threads before it is decoded.
+///
+/// @param  <T> The type of payload
+/// @version    0.4.0
+/// @since      0.4.0
+public final class LazyPayload<T> {
+    /// The channel.
+    private final GlideString channel;
+
+    /// The bytes of the message.
+    private final byte[] bytes;
+
+    /// The offset of the payload.
+    private final int offset;
+
+    /// The length of the payload.
+    private final int length;
+
+    /// The codec.
+    private final PayloadCodec<T> codec;
+
+    /// The decoded value.
+    private T value;
+
+    /// True once the value is decoded.
+    private boolean decoded;
+
+    /// The constructor.
+    ///
+    /// @param  channel glide.api.models.GlideString
+    /// @param  bytes   byte[]
+    /// @param  offset  int
+    /// @param  length  int
+    /// @param  codec   net.jmp.spring.boot.valkey.PayloadCodec<T>
+    public LazyPayload(final GlideString channel,
+                       final byte[] bytes,
+                       final int offset,
+                       final int length,
+                       final PayloadCodec<T> codec) {
+        super();
+
+        this.channel = channel;
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.codec = codec;
+    }
+
+    /// Return the payload, decoding it on the first call.
+    ///
+    /// @return T
+    /// @throws net.jmp.spring.boot.valkey.CodecException   When the payload cannot be decoded
+    public T get() {
+        if (!this.decoded) {
+            this.value = this.codec.decode(this.bytes, this.offset, this.length);
+            this.decoded = true;
+        }
+
+        return this.value;
+    }
+
+    /// Return true once the payload is decoded.
+    ///
+    /// @return boolean
+    public boolean isDecoded() {
+        return this.decoded;
+    }
+
+    /// Return the channel.
+    ///
+    /// @return glide.api.models.GlideString
+    public GlideString getChannel() {
+        return this.channel;
+    }
+
+    /// Return the length of the payload in bytes.
+    ///
+    /// @return int
+    public int getLength() {
+        return this.length;
+    }
+
+    /// Return a stream over the payload's bytes.
+    ///
+    /// @return java.io.InputStream
+    public InputStream openStream() {
+        return new ByteArrayInputStream(this.bytes, this.offset, this.length);
+    }
+}
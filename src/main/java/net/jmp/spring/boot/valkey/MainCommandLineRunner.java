@@ -1,6 +1,7 @@
 package net.jmp.spring.boot.valkey;
 
 /*
+ * (#)MainCommandLineRunner.java    0.4.0   10/19/2026
  * (#)MainCommandLineRunner.java    0.1.0   05/01/2025
  *
  * @author    Jonathan Parker
@@ -28,25 +29,46 @@ package net.jmp.spring.boot.valkey;
  * SOFTWARE.
  */
 
-import static net.jmp.util.logging.LoggerUtils.entry;
-import static net.jmp.util.logging.LoggerUtils.exit;
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import java.nio.file.Path;
+
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Value;
 
+import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.DefaultApplicationArguments;
 
 import org.springframework.context.ApplicationContext;
 
 import org.springframework.context.annotation.Profile;
 
+import org.springframework.core.env.Profiles;
+
 import org.springframework.stereotype.Component;
 
 /// The command line runner class that runs the main class.
 ///
-/// @version 0.1.0
+/// When started with `--benchmark` or with the benchmark
+/// profile active it runs the benchmark instead.
+///
+/// When started with `--import=<file>` it runs a bulk
+/// import instead. The optional `--import.format`
+/// (ndjson or kryo) and `--import.keyPrefix` arguments
+/// select the file format and the key prefix.
+///
+/// When started with `--export=<file>` it writes a
+/// snapshot of the keyspace, optionally limited by
+/// `--export.match=<pattern>`, and with `--restore=<file>`
+/// it restores one, replacing existing keys only when
+/// `--restore.replace` is given.
+///
+/// @version 0.4.0
 /// @since   0.1.0
 @Component
 @Profile("!test")
@@ -81,10 +103,109 @@ public class MainCommandLineRunner implements CommandLineRunner {
 
         this.logger.info("Running Spring Boot: {}", this.springBootVersion);
 
-        this.context.getBean(Main.class).run();
+        final ApplicationArguments arguments = new DefaultApplicationArguments(args);
+
+        if (arguments.containsOption("benchmark")
+                || this.context.getEnvironment().acceptsProfiles(Profiles.of("benchmark"))) {
+            this.context.getBean(Benchmark.class).run();
+        } else if (arguments.containsOption("import")) {
+            this.bulkImport(arguments);
+        } else if (arguments.containsOption("export")) {
+            this.export(arguments);
+        } else if (arguments.containsOption("restore")) {
+            this.restore(arguments);
+        } else {
+            this.context.getBean(Main.class).run();
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Run a bulk import.
+    ///
+    /// @param  arguments   org.springframework.boot.ApplicationArguments
+    /// @throws             java.lang.Exception When the import fails
+    /// @since              0.4.0
+    private void bulkImport(final ApplicationArguments arguments) throws Exception {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(arguments));
+        }
+
+        final Path path = Path.of(this.option(arguments, "import", null));
+        final String defaultFormat = path.toString().endsWith(".ndjson") ? "ndjson" : "kryo";
+        final BulkImporter.Format format = BulkImporter.Format.valueOf(
+                this.option(arguments, "import.format", defaultFormat).toUpperCase());
+        final String keyPrefix = this.option(arguments, "import.keyPrefix", "person:");
+
+        final long imported = this.context.getBean(BulkImporter.class).importFile(path, format, keyPrefix);
+
+        this.logger.info("Imported {} records from {}", imported, path);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Export a keyspace snapshot.
+    ///
+    /// @param  arguments   org.springframework.boot.ApplicationArguments
+    /// @throws             java.lang.Exception When the export fails
+    /// @since              0.4.0
+    private void export(final ApplicationArguments arguments) throws Exception {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(arguments));
+        }
+
+        final Path path = Path.of(this.option(arguments, "export", null));
+        final String matchPattern = this.option(arguments, "export.match", "*");
+
+        this.context.getBean(KeyspaceSnapshot.class).export(path, matchPattern);
 
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
     }
+
+    /// Restore a keyspace snapshot.
+    ///
+    /// @param  arguments   org.springframework.boot.ApplicationArguments
+    /// @throws             java.lang.Exception When the restore fails
+    /// @since              0.4.0
+    private void restore(final ApplicationArguments arguments) throws Exception {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(arguments));
+        }
+
+        final Path path = Path.of(this.option(arguments, "restore", null));
+
+        this.context.getBean(KeyspaceSnapshot.class).restore(path, arguments.containsOption("restore.replace"));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Get the value of an option.
+    ///
+    /// @param  arguments       org.springframework.boot.ApplicationArguments
+    /// @param  name            java.lang.String
+    /// @param  defaultValue    java.lang.String
+    /// @return                 java.lang.String
+    /// @throws                 java.lang.IllegalArgumentException  When a required option has no value
+    /// @since                  0.4.0
+    private String option(final ApplicationArguments arguments, final String name, final String defaultValue) {
+        final List<String> values = arguments.getOptionValues(name);
+
+        if (values == null || values.isEmpty()) {
+            if (defaultValue == null) {
+                throw new IllegalArgumentException("A value is required for --" + name);
+            }
+
+            return defaultValue;
+        }
+
+        return values.getFirst();
+    }
 }
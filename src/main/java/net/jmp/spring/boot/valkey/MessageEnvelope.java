@@ -0,0 +1,193 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)MessageEnvelope.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.GlideString;
+import glide.api.models.PubSubMessage;
+
+import static glide.api.models.GlideString.gs;
+
+import java.nio.ByteBuffer;
+
+import java.time.Instant;
+
+import java.util.Arrays;
+
+/// The message envelope class. An envelope is a
+/// header written before a pub/sub payload by an
+/// [EnvelopePublisher]:
+///
+/// * two magic bytes, `V` and `E`,
+/// * a version byte,
+/// * the publisher's eight byte id,
+/// * the eight byte sequence number of the message
+///   on its channel, and
+/// * the eight byte time it was published in
+///   microseconds since the epoch.
+///
+/// Subscribers use it to measure end-to-end latency
+/// and to find lost messages as gaps in the
+/// sequence of each publisher and channel. The
+/// latency is only as good as the agreement of the
+/// publisher's and subscriber's clocks.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class MessageEnvelope {
+    /// The length of the header.
+    public static final int HEADER_LENGTH = 3 + 3 * Long.BYTES;
+
+    /// The first magic byte.
+    private static final byte MAGIC_0 = 'V';
+
+    /// The second magic byte.
+    private static final byte MAGIC_1 = 'E';
+
+    /// The version.
+    private static final byte VERSION = 1;
+
+    /// The publisher id.
+    private final long publisherId;
+
+    /// The sequence number.
+    private final long sequence;
+
+    /// The time it was published in microseconds since the epoch.
+    private final long publishedMicros;
+
+    /// The constructor.
+    ///
+    /// @param  publisherId     long
+    /// @param  sequence        long
+    /// @param  publishedMicros long
+    private MessageEnvelope(final long publisherId, final long sequence, final long publishedMicros) {
+        super();
+
+        this.publisherId = publisherId;
+        this.sequence = sequence;
+        this.publishedMicros = publishedMicros;
+    }
+
+    /// Return a payload with an envelope written before it.
+    ///
+    /// @param  publisherId long
+    /// @param  sequence    long
+    /// @param  payload     byte[]
+    /// @return             byte[]
+    public static byte[] wrap(final long publisherId, final long sequence, final byte[] payload) {
+        return ByteBuffer.allocate(HEADER_LENGTH + payload.length)
+                .put(MAGIC_0)
+                .put(MAGIC_1)
+                .put(VERSION)
+                .putLong(publisherId)
+                .putLong(sequence)
+                .putLong(nowMicros())
+                .put(payload)
+                .array();
+    }
+
+    /// Read the envelope of a message.
+    ///
+    /// @param  bytes   byte[]  The bytes of the message
+    /// @return         net.jmp.spring.boot.valkey.MessageEnvelope  The envelope or null when there is none
+    public static MessageEnvelope read(final byte[] bytes) {
+        if (!isEnveloped(bytes)) {
+            return null;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes, 3, HEADER_LENGTH - 3);
+
+        return new MessageEnvelope(buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    /// Return true if a message starts with an envelope.
+    ///
+    /// @param  bytes   byte[]
+    /// @return         boolean
+    public static boolean isEnveloped(final byte[] bytes) {
+        return bytes.length >= HEADER_LENGTH
+                && bytes[0] == MAGIC_0
+                && bytes[1] == MAGIC_1
+                && bytes[2] == VERSION;
+    }
+
+    /// Return the offset of the payload in a message.
+    ///
+    /// @param  bytes   byte[]
+    /// @return         int     The length of the header or zero when there is none
+    public static int payloadOffset(final byte[] bytes) {
+        return isEnveloped(bytes) ? HEADER_LENGTH : 0;
+    }
+
+    /// Return the payload of a message without its
+    /// envelope. This copies an enveloped payload;
+    /// typed handlers read it in place.
+    ///
+    /// @param  message glide.api.models.PubSubMessage
+    /// @return         glide.api.models.GlideString
+    public static GlideString payload(final PubSubMessage message) {
+        final byte[] bytes = message.getMessage().getBytes();
+
+        if (!isEnveloped(bytes)) {
+            return message.getMessage();
+        }
+
+        return gs(Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length));
+    }
+
+    /// Return the current time in microseconds since the epoch.
+    ///
+    /// @return long
+    static long nowMicros() {
+        final Instant now = Instant.now();
+
+        return now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+    }
+
+    /// Return the publisher id.
+    ///
+    /// @return long
+    public long getPublisherId() {
+        return this.publisherId;
+    }
+
+    /// Return the sequence number.
+    ///
+    /// @return long
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /// Return the time it was published.
+    ///
+    /// @return long    The microseconds since the epoch
+    public long getPublishedMicros() {
+        return this.publishedMicros;
+    }
+}
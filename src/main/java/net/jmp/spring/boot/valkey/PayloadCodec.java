@@ -0,0 +1,88 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PayloadCodec.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import java.nio.charset.StandardCharsets;
+
+/// The payload codec interface. It decodes the
+/// payload of a pub/sub message, or one event of a
+/// framed batch, from a range of the message's
+/// bytes without copying them or converting them
+/// to a string first.
+///
+/// @param  <T> The type of payload
+/// @version    0.4.0
+/// @since      0.4.0
+@FunctionalInterface
+public interface PayloadCodec<T> {
+    /// Decode a range of bytes.
+    ///
+    /// @param  bytes   byte[]
+    /// @param  offset  int
+    /// @param  length  int
+    /// @return         T
+    /// @throws         net.jmp.spring.boot.valkey.CodecException   When the bytes cannot be decoded
+    T decode(byte[] bytes, int offset, int length);
+
+    /// Create a payload codec that decodes with a value codec.
+    ///
+    /// @param  <T>     The type of payload
+    /// @param  codec   net.jmp.spring.boot.valkey.ValueCodec
+    /// @param  clazz   java.lang.Class<T>
+    /// @return         net.jmp.spring.boot.valkey.PayloadCodec<T>
+    static <T> PayloadCodec<T> of(final ValueCodec codec, final Class<T> clazz) {
+        return (bytes, offset, length) -> clazz.cast(codec.decode(bytes, offset, length));
+    }
+
+    /// Create a payload codec that decodes UTF-8
+    /// JSON with Gson, streaming it from the bytes.
+    ///
+    /// @param  <T>     The type of payload
+    /// @param  gson    com.google.gson.Gson
+    /// @param  clazz   java.lang.Class<T>
+    /// @return         net.jmp.spring.boot.valkey.PayloadCodec<T>
+    static <T> PayloadCodec<T> json(final Gson gson, final Class<T> clazz) {
+        return (bytes, offset, length) -> {
+            try (final Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes, offset, length),
+                    StandardCharsets.UTF_8)) {
+                return gson.fromJson(reader, clazz);
+            } catch (final IOException | JsonParseException e) {
+                throw new CodecException("Error decoding JSON payload: " + e.getMessage(), e);
+            }
+        };
+    }
+}
@@ -0,0 +1,599 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PersonIndex.java      0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+
+import glide.api.models.commands.RangeOptions;
+
+import glide.api.models.commands.WeightAggregateOptions.KeyArrayBinary;
+
+import static glide.api.models.GlideString.gs;
+
+import java.util.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+
+/// The person index class. It keeps secondary
+/// indexes of persons so that a query reads only
+/// the IDs that match instead of every person.
+///
+/// An equality field has a set of IDs per value,
+/// `index:person:<field>:<value>`, with the value
+/// stripped and in lower case; `lastName` and the
+/// `state` of each address are such fields. A
+/// numeric field has one sorted set scored by the
+/// value, `index:person:<field>`; `age` is one.
+///
+/// A person and its index entries are written in
+/// one script call, so a query never sees a person
+/// that its indexes do not. The entries of each
+/// person are kept in `indexed:person:<id>` so the
+/// old ones can be removed. The index keys are not
+/// declared to the script, so this needs a
+/// standalone server.
+///
+/// A query is a conjunction of conditions: one or
+/// more values of an equality field, or an
+/// inclusive range of a numeric field. The values
+/// of a field are united with `SUNIONSTORE` and the
+/// fields intersected with `SINTER`. When there are
+/// ranges, `SINTERCARD` with a limit and `ZCOUNT`
+/// decide which side is smaller: the smaller one
+/// is read and the other conditions are checked
+/// against it on the server, so the larger side is
+/// never transferred. A range that is the smaller
+/// side is stored with `ZRANGESTORE` and intersected
+/// with the sets by `ZINTER`, which takes sets and
+/// sorted sets alike.
+///
+/// A query is immutable; each condition added to
+/// one returns a new query.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class PersonIndex {
+    /// The equality fields.
+    private static final Set<String> EQUALITY_FIELDS = Set.of("lastName", "state");
+
+    /// The numeric fields.
+    private static final Set<String> NUMERIC_FIELDS = Set.of("age");
+
+    /// The members of a person that the fields are read from.
+    private static final Set<String> INDEXED_MEMBERS = Set.of("lastName", "age", "addresses");
+
+    /// The seconds a temporary key is kept if it is
+    /// not deleted.
+    private static final long TEMPORARY_SECONDS = 60;
+
+    /// The index keys.
+    private static final KeyTemplate INDEXES = KeyTemplate.of("index", "person");
+
+    /// The keys of the entries of each person.
+    private static final KeyTemplate ENTRIES = KeyTemplate.of("indexed", "person");
+
+    /// The keys of temporary results.
+    private static final KeyTemplate TEMPORARY = KeyTemplate.of("index", "person", "tmp");
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The script registry.
+    private final ScriptRegistry scriptRegistry;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The constructor.
+    ///
+    /// @param  client          glide.api.GlideClient
+    /// @param  scriptRegistry  net.jmp.spring.boot.valkey.ScriptRegistry
+    /// @param  lifecycle       net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public PersonIndex(final GlideClient client,
+                       final ScriptRegistry scriptRegistry,
+                       final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.client = client;
+        this.scriptRegistry = scriptRegistry;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Tell if a member of a person feeds an index,
+    /// so that writing anything within it may change
+    /// the person's index entries.
+    ///
+    /// @param  member  java.lang.String    A member of the person, such as lastName
+    /// @return         boolean
+    public boolean isIndexed(final String member) {
+        return INDEXED_MEMBERS.contains(member);
+    }
+
+    /// Write a person and its index entries.
+    ///
+    /// @param  key     glide.api.models.GlideString    The key of the person
+    /// @param  id      java.lang.String
+    /// @param  path    java.lang.String                The JSON path, or null to store the value as a string
+    /// @param  value   glide.api.models.GlideString    The encoded person
+    /// @param  person  net.jmp.spring.boot.valkey.Person
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Object>    The encoded person replaced, or null
+    public CompletableFuture<Object> save(final GlideString key,
+                                          final String id,
+                                          final String path,
+                                          final GlideString value,
+                                          final Person person) {
+        final List<GlideString> args = new ArrayList<>();
+
+        args.add(gs(id));
+        args.add(gs(path == null ? "" : path));
+        args.add(value);
+
+        entries(person).forEach((entry, score) -> {
+            args.add(entry);
+            args.add(gs(score));
+        });
+
+        return this.lifecycle.submit(() -> this.scriptRegistry.invoke(ServerScript.INDEXED_SET,
+                new GlideString[] { key, ENTRIES.key(id) },
+                args.toArray(GlideString[]::new)));
+    }
+
+    /// Delete a person and its index entries.
+    ///
+    /// @param  key     glide.api.models.GlideString    The key of the person
+    /// @param  id      java.lang.String
+    /// @param  json    boolean                         True when the person is a JSON document
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Object>    The encoded person deleted, or null if it did not exist
+    public CompletableFuture<Object> delete(final GlideString key, final String id, final boolean json) {
+        return this.lifecycle.submit(() -> this.scriptRegistry.invoke(ServerScript.INDEXED_DELETE,
+                new GlideString[] { key, ENTRIES.key(id) },
+                new GlideString[] { gs(id), gs(json ? "json" : "") }));
+    }
+
+    /// Find the IDs of the persons that match a query.
+    ///
+    /// @param  query   net.jmp.spring.boot.valkey.PersonIndex.Query
+    /// @return         java.util.concurrent.CompletableFuture<java.util.Set<java.lang.String>>
+    public CompletableFuture<Set<String>> find(final Query query) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(query));
+        }
+
+        query.check();
+
+        final Queue<GlideString> temporary = new ConcurrentLinkedQueue<>();
+
+        final CompletableFuture<Set<String>> ids = this.lifecycle.submit(() -> this.equalityKeys(query, temporary)
+                .thenCompose(keys -> this.plan(query, keys, temporary))
+                .thenApply(PersonIndex::toStrings)
+                .whenComplete((result, throwable) -> {
+                    if (!temporary.isEmpty()) {
+                        this.client.del(temporary.toArray(GlideString[]::new));
+                    }
+                }));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(ids));
+        }
+
+        return ids;
+    }
+
+    /// Count the persons that match a query. A query
+    /// of equality fields only is counted on the
+    /// server with `SINTERCARD`.
+    ///
+    /// @param  query   net.jmp.spring.boot.valkey.PersonIndex.Query
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Long>
+    public CompletableFuture<Long> count(final Query query) {
+        query.check();
+
+        if (!query.ranges.isEmpty()) {
+            return this.find(query).thenApply(ids -> (long) ids.size());
+        }
+
+        final Queue<GlideString> temporary = new ConcurrentLinkedQueue<>();
+
+        return this.lifecycle.submit(() -> this.equalityKeys(query, temporary)
+                .thenCompose(keys -> this.client.sintercard(keys.toArray(GlideString[]::new)))
+                .whenComplete((result, throwable) -> {
+                    if (!temporary.isEmpty()) {
+                        this.client.del(temporary.toArray(GlideString[]::new));
+                    }
+                }));
+    }
+
+    /// Get the index entries of a person: each index
+    /// key with its score, which is empty for a set.
+    ///
+    /// @param  person  net.jmp.spring.boot.valkey.Person
+    /// @return         java.util.Map<glide.api.models.GlideString, java.lang.String>
+    static Map<GlideString, String> entries(final Person person) {
+        final Map<GlideString, String> entries = new LinkedHashMap<>();
+
+        if (person.getLastName() != null) {
+            entries.put(equalityKey("lastName", person.getLastName()), "");
+        }
+
+        if (person.getAddresses() != null) {
+            for (final Address address : person.getAddresses()) {
+                if (address != null && address.getState() != null) {
+                    entries.put(equalityKey("state", address.getState()), "");
+                }
+            }
+        }
+
+        entries.put(INDEXES.key("age"), Integer.toString(person.getAge()));
+
+        return entries;
+    }
+
+    /// Get the key of the set of a value of an
+    /// equality field.
+    ///
+    /// @param  field   java.lang.String
+    /// @param  value   java.lang.String
+    /// @return         glide.api.models.GlideString
+    private static GlideString equalityKey(final String field, final String value) {
+        return INDEXES.key(field + ":" + value.strip().toLowerCase(Locale.ROOT));
+    }
+
+    /// Get one set key per equality field, storing
+    /// the union of a field's sets when it has more
+    /// than one value.
+    ///
+    /// @param  query       net.jmp.spring.boot.valkey.PersonIndex.Query
+    /// @param  temporary   java.util.Queue<glide.api.models.GlideString>   Where temporary keys are added
+    /// @return             java.util.concurrent.CompletableFuture<java.util.List<glide.api.models.GlideString>>
+    private CompletableFuture<List<GlideString>> equalityKeys(final Query query,
+                                                              final Queue<GlideString> temporary) {
+        final List<GlideString> keys = new ArrayList<>();
+        final List<CompletableFuture<Boolean>> unions = new ArrayList<>();
+
+        query.equalities.forEach((field, values) -> {
+            if (values.size() == 1) {
+                keys.add(equalityKey(field, values.getFirst()));
+            } else {
+                final GlideString union = this.temporaryKey(temporary);
+
+                keys.add(union);
+                unions.add(this.client.sunionstore(union, values.stream()
+                                .map(value -> equalityKey(field, value))
+                                .toArray(GlideString[]::new))
+                        .thenCompose(size -> this.client.expire(union, TEMPORARY_SECONDS)));
+            }
+        });
+
+        return CompletableFuture.allOf(unions.toArray(CompletableFuture[]::new)).thenApply(done -> keys);
+    }
+
+    /// Plan and run a query.
+    ///
+    /// @param  query       net.jmp.spring.boot.valkey.PersonIndex.Query
+    /// @param  keys        java.util.List<glide.api.models.GlideString>    The set key of each equality field
+    /// @param  temporary   java.util.Queue<glide.api.models.GlideString>
+    /// @return             java.util.concurrent.CompletableFuture<java.util.Set<glide.api.models.GlideString>>
+    private CompletableFuture<Set<GlideString>> plan(final Query query,
+                                                     final List<GlideString> keys,
+                                                     final Queue<GlideString> temporary) {
+        final GlideString[] sets = keys.toArray(GlideString[]::new);
+
+        if (query.ranges.isEmpty()) {
+            return this.client.sinter(sets);
+        }
+
+        final List<Range> ranges = query.ranges;
+        final List<CompletableFuture<Long>> counts = new ArrayList<>();
+
+        for (final Range range : ranges) {
+            counts.add(this.client.zcount(INDEXES.key(range.field), range.min(), range.max()));
+        }
+
+        return CompletableFuture.allOf(counts.toArray(CompletableFuture[]::new)).thenCompose(done -> {
+            int driver = 0;
+
+            for (int i = 1; i < ranges.size(); i++) {
+                if (counts.get(i).join() < counts.get(driver).join()) {
+                    driver = i;
+                }
+            }
+
+            final long smallest = counts.get(driver).join();
+            final Range driving = ranges.get(driver);
+
+            if (smallest == 0) {
+                return CompletableFuture.completedFuture(Set.of());
+            }
+
+            if (sets.length == 0) {
+                return this.client.zrange(INDEXES.key(driving.field), driving.query())
+                        .thenCompose(ids -> this.filter(Set.of(ids), ranges, driving));
+            }
+
+            /* Count the intersection only as far as it takes to tell which side is smaller */
+
+            return this.client.sintercard(sets, smallest + 1).thenCompose(card -> {
+                if (card == 0) {
+                    return CompletableFuture.completedFuture(Set.of());
+                }
+
+                if (card <= smallest) {
+                    return this.client.sinter(sets).thenCompose(ids -> this.filter(ids, ranges, null));
+                }
+
+                final GlideString stored = this.temporaryKey(temporary);
+                final GlideString[] intersected = new GlideString[sets.length + 1];
+
+                intersected[0] = stored;
+                System.arraycopy(sets, 0, intersected, 1, sets.length);
+
+                return this.client.zrangestore(stored, INDEXES.key(driving.field), driving.query())
+                        .thenCompose(size -> this.client.expire(stored, TEMPORARY_SECONDS))
+                        .thenCompose(set -> this.client.zinter(new KeyArrayBinary(intersected)))
+                        .thenCompose(ids -> this.filter(Set.of(ids), ranges, driving));
+            });
+        });
+    }
+
+    /// Keep the IDs whose scores are within every
+    /// range but one that is already applied.
+    ///
+    /// @param  ids     java.util.Set<glide.api.models.GlideString>
+    /// @param  ranges  java.util.List<net.jmp.spring.boot.valkey.PersonIndex.Range>
+    /// @param  applied net.jmp.spring.boot.valkey.PersonIndex.Range    The range already applied or null
+    /// @return         java.util.concurrent.CompletableFuture<java.util.Set<glide.api.models.GlideString>>
+    private CompletableFuture<Set<GlideString>> filter(final Set<GlideString> ids,
+                                                       final List<Range> ranges,
+                                                       final Range applied) {
+        CompletableFuture<Set<GlideString>> filtered = CompletableFuture.completedFuture(ids);
+
+        for (final Range range : ranges) {
+            if (range == applied) {
+                continue;
+            }
+
+            filtered = filtered.thenCompose(remaining -> {
+                if (remaining.isEmpty()) {
+                    return CompletableFuture.completedFuture(remaining);
+                }
+
+                final GlideString[] members = remaining.toArray(GlideString[]::new);
+
+                return this.client.zmscore(INDEXES.key(range.field), members).thenApply(scores -> {
+                    final Set<GlideString> kept = new HashSet<>();
+
+                    for (int i = 0; i < members.length; i++) {
+                        if (scores[i] != null && range.contains(scores[i])) {
+                            kept.add(members[i]);
+                        }
+                    }
+
+                    return kept;
+                });
+            });
+        }
+
+        return filtered;
+    }
+
+    /// Create a temporary key and remember it.
+    ///
+    /// @param  temporary   java.util.Queue<glide.api.models.GlideString>
+    /// @return             glide.api.models.GlideString
+    private GlideString temporaryKey(final Queue<GlideString> temporary) {
+        final GlideString key = TEMPORARY.key(UUID.randomUUID().toString());
+
+        temporary.add(key);
+
+        return key;
+    }
+
+    /// Convert IDs to strings.
+    ///
+    /// @param  ids java.util.Set<glide.api.models.GlideString>
+    /// @return     java.util.Set<java.lang.String>
+    private static Set<String> toStrings(final Set<GlideString> ids) {
+        final Set<String> strings = new HashSet<>();
+
+        for (final GlideString id : ids) {
+            strings.add(id.getString());
+        }
+
+        return strings;
+    }
+
+    /// A query: a conjunction of conditions. It is
+    /// immutable, so a query can be extended without
+    /// changing the one it was made from.
+    public static final class Query {
+        /// The values of each equality field.
+        private final Map<String, List<String>> equalities;
+
+        /// The ranges of numeric fields.
+        private final List<Range> ranges;
+
+        /// The default constructor. It makes a query
+        /// without conditions.
+        public Query() {
+            this(Map.of(), List.of());
+        }
+
+        /// A constructor.
+        ///
+        /// @param  equalities  java.util.Map<java.lang.String, java.util.List<java.lang.String>>
+        /// @param  ranges      java.util.List<net.jmp.spring.boot.valkey.PersonIndex.Range>
+        private Query(final Map<String, List<String>> equalities, final List<Range> ranges) {
+            super();
+
+            final Map<String, List<String>> copy = new LinkedHashMap<>();
+
+            equalities.forEach((field, values) -> copy.put(field, List.copyOf(values)));
+
+            this.equalities = Collections.unmodifiableMap(copy);
+            this.ranges = List.copyOf(ranges);
+        }
+
+        /// Require an equality field to have one of
+        /// some values.
+        ///
+        /// @param  field   java.lang.String    For example lastName
+        /// @param  values  java.lang.String[]
+        /// @return         net.jmp.spring.boot.valkey.PersonIndex.Query    A new query
+        public Query equal(final String field, final String... values) {
+            if (!EQUALITY_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Not an indexed equality field: " + field);
+            }
+
+            if (values.length == 0) {
+                throw new IllegalArgumentException("No values for " + field);
+            }
+
+            final Map<String, List<String>> equalities = new LinkedHashMap<>(this.equalities);
+            final List<String> all = new ArrayList<>(equalities.getOrDefault(field, List.of()));
+
+            all.addAll(List.of(values));
+            equalities.put(field, all);
+
+            return new Query(equalities, this.ranges);
+        }
+
+        /// Require a numeric field to be within an
+        /// inclusive range.
+        ///
+        /// @param  field   java.lang.String    For example age
+        /// @param  min     double
+        /// @param  max     double
+        /// @return         net.jmp.spring.boot.valkey.PersonIndex.Query    A new query
+        public Query between(final String field, final double min, final double max) {
+            if (!NUMERIC_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Not an indexed numeric field: " + field);
+            }
+
+            final List<Range> ranges = new ArrayList<>(this.ranges);
+
+            ranges.add(new Range(field, min, max));
+
+            return new Query(this.equalities, ranges);
+        }
+
+        /// Check that the query has a condition.
+        private void check() {
+            if (this.equalities.isEmpty() && this.ranges.isEmpty()) {
+                throw new IllegalArgumentException("The query has no conditions");
+            }
+        }
+
+        /// The default toString method.
+        ///
+        /// @return     java.lang.String
+        @Override
+        public String toString() {
+            return "Query{" +
+                    "equalities=" + this.equalities +
+                    ", ranges=" + this.ranges +
+                    '}';
+        }
+    }
+
+    /// An inclusive range of a numeric field.
+    private static final class Range {
+        /// The field.
+        private final String field;
+
+        /// The lowest value.
+        private final double min;
+
+        /// The highest value.
+        private final double max;
+
+        /// The constructor.
+        ///
+        /// @param  field   java.lang.String
+        /// @param  min     double
+        /// @param  max     double
+        private Range(final String field, final double min, final double max) {
+            super();
+
+            this.field = field;
+            this.min = min;
+            this.max = max;
+        }
+
+        /// Get the lowest boundary.
+        ///
+        /// @return glide.api.models.commands.RangeOptions.ScoreBoundary
+        private RangeOptions.ScoreBoundary min() {
+            return new RangeOptions.ScoreBoundary(this.min, true);
+        }
+
+        /// Get the highest boundary.
+        ///
+        /// @return glide.api.models.commands.RangeOptions.ScoreBoundary
+        private RangeOptions.ScoreBoundary max() {
+            return new RangeOptions.ScoreBoundary(this.max, true);
+        }
+
+        /// Get the range as a query by score.
+        ///
+        /// @return glide.api.models.commands.RangeOptions.RangeByScore
+        private RangeOptions.RangeByScore query() {
+            return new RangeOptions.RangeByScore(this.min(), this.max());
+        }
+
+        /// Tell if the range contains a value.
+        ///
+        /// @param  value   double
+        /// @return         boolean
+        private boolean contains(final double value) {
+            return value >= this.min && value <= this.max;
+        }
+
+        /// The default toString method.
+        ///
+        /// @return     java.lang.String
+        @Override
+        public String toString() {
+            return this.field + "[" + this.min + ", " + this.max + "]";
+        }
+    }
+}
@@ -0,0 +1,677 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PersonRepository.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.*;
+
+import com.google.gson.stream.JsonWriter;
+
+import glide.api.GlideClient;
+
+import static glide.api.models.GlideString.gs;
+
+import glide.api.commands.servermodules.Json;
+
+import glide.api.models.GlideString;
+
+import java.io.IOException;
+
+import java.util.*;
+
+import java.util.concurrent.CompletionException;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The person repository class. Persons are stored
+/// under `person:<id>`.
+///
+/// When the JSON module is available they are
+/// stored as native JSON documents, and a read or
+/// write of a path such as `$.addresses[0].city`
+/// transfers only that value. Batches of reads use
+/// JSON.MGET.
+///
+/// Without the module each person is stored whole
+/// with the value codec, and paths are evaluated
+/// here after reading the whole document; a path
+/// write is then a read-modify-write that is not
+/// atomic. Only member (`.name`) and index (`[n]`)
+/// steps are supported in that case.
+///
+/// The two storage forms are not compatible, so the
+/// keys must be rewritten if `valkey.json.supported`
+/// changes.
+///
+/// A person is written together with its entries
+/// in the [PersonIndex] in one script call. With
+/// the module a path write is sent as `JSON.SET`
+/// only when the path is a plain one of member and
+/// index steps whose first member feeds no index
+/// or completion; any other path, including
+/// wildcards, recursive descent and bracketed
+/// names, is a read-modify-write of the whole
+/// person.
+///
+/// The addresses of each person are kept in the
+/// [AddressGeoIndex] after every save, delete and
+/// write that may change them. The index is updated
+/// after the person, so a query may briefly miss a
+/// change.
+///
+/// The first and last names of saved persons are
+/// counted in the [Autocomplete] indexes
+/// [#FIRST_NAMES] and [#LAST_NAMES]. The scripts
+/// that save and delete a person return the one
+/// they replaced, so its names are released in the
+/// same step and a name leaves the indexes when no
+/// person has it any more.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class PersonRepository {
+    /// The autocomplete index of first names.
+    public static final String FIRST_NAMES = "person:firstName";
+
+    /// The autocomplete index of last names.
+    public static final String LAST_NAMES = "person:lastName";
+
+    /// The root path.
+    private static final GlideString ROOT = KeyTemplate.intern("$");
+
+    /// The members of a person that feed the autocomplete indexes.
+    private static final Set<String> COMPLETED_MEMBERS = Set.of("firstName", "lastName");
+
+    /// The person keys.
+    private static final KeyTemplate KEYS = KeyTemplate.of("person");
+
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The value codec.
+    private final ValueCodec codec;
+
+    /// The GSON object.
+    private final Gson gson;
+
+    /// The person index.
+    private final PersonIndex personIndex;
+
+    /// The address geo index.
+    private final AddressGeoIndex geoIndex;
+
+    /// The autocomplete.
+    private final Autocomplete autocomplete;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// True when the JSON data type is supported.
+    @Value("${valkey.json.supported:false}")
+    private boolean jsonSupported;
+
+    /// The constructor.
+    ///
+    /// @param  client          glide.api.GlideClient
+    /// @param  codec           net.jmp.spring.boot.valkey.ValueCodec
+    /// @param  gson            com.google.gson.Gson
+    /// @param  personIndex     net.jmp.spring.boot.valkey.PersonIndex
+    /// @param  geoIndex        net.jmp.spring.boot.valkey.AddressGeoIndex
+    /// @param  autocomplete    net.jmp.spring.boot.valkey.Autocomplete
+    /// @param  lifecycle       net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public PersonRepository(final GlideClient client,
+                            final ValueCodec codec,
+                            final Gson gson,
+                            final PersonIndex personIndex,
+                            final AddressGeoIndex geoIndex,
+                            final Autocomplete autocomplete,
+                            final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.client = client;
+        this.codec = codec;
+        this.gson = gson;
+        this.personIndex = personIndex;
+        this.geoIndex = geoIndex;
+        this.autocomplete = autocomplete;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Tell if persons are stored as native JSON documents.
+    ///
+    /// @return boolean
+    public boolean isNative() {
+        return this.jsonSupported;
+    }
+
+    /// Save a person.
+    ///
+    /// @param  id      java.lang.String
+    /// @param  person  net.jmp.spring.boot.valkey.Person
+    public void save(final String id, final Person person) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(id, person));
+        }
+
+        this.lifecycle.run(() -> {
+            final Object previous;
+
+            if (this.jsonSupported) {
+                previous = this.personIndex.save(KEYS.key(id), id, ROOT.getString(), gs(this.toJson(person)), person).join();
+            } else {
+                previous = this.personIndex.save(KEYS.key(id), id, null, gs(this.codec.encode(person)), person).join();
+            }
+
+            this.geoIndex.index(id, person.getAddresses()).join();
+            this.complete(this.decode(previous), person);
+        });
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Find a person.
+    ///
+    /// @param  id  java.lang.String
+    /// @return     java.util.Optional<net.jmp.spring.boot.valkey.Person>
+    public Optional<Person> find(final String id) {
+        final GlideString key = KEYS.key(id);
+
+        if (this.jsonSupported) {
+            final GlideString document = this.lifecycle.submit(() -> Json.get(this.client, key)).join();
+
+            return document == null
+                    ? Optional.empty()
+                    : Optional.of(this.gson.fromJson(document.getString(), Person.class));
+        }
+
+        final GlideString value = this.lifecycle.submit(() -> this.client.get(key)).join();
+
+        return value == null
+                ? Optional.empty()
+                : Optional.of(this.codec.decode(value.getBytes(), Person.class));
+    }
+
+    /// Read the value at a path of a person, such
+    /// as `$.addresses[0].city`.
+    ///
+    /// @param  <T>     The type of the value
+    /// @param  id      java.lang.String
+    /// @param  path    java.lang.String
+    /// @param  type    java.lang.Class<T>
+    /// @return         java.util.Optional<T>   Empty if the person or the path does not exist
+    public <T> Optional<T> read(final String id, final String path, final Class<T> type) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(id, path, type));
+        }
+
+        final Optional<T> result;
+
+        if (this.jsonSupported) {
+            result = this.firstMatch(this.lifecycle.submit(() -> Json.get(this.client, KEYS.key(id), new GlideString[] { gs(path) })).join(), type);
+        } else {
+            result = this.find(id).map(person -> this.select(person, path, type));
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(result));
+        }
+
+        return result;
+    }
+
+    /// Read the value at a path of several persons
+    /// in one round trip.
+    ///
+    /// @param  <T>     The type of the values
+    /// @param  ids     java.util.List<java.lang.String>
+    /// @param  path    java.lang.String
+    /// @param  type    java.lang.Class<T>
+    /// @return         java.util.Map<java.lang.String, T>  The values by identifier; persons or paths that do not exist are left out
+    public <T> Map<String, T> readAll(final List<String> ids, final String path, final Class<T> type) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(ids, path, type));
+        }
+
+        final GlideString[] keys = ids.stream()
+                .map(KEYS::key)
+                .toArray(GlideString[]::new);
+        final Map<String, T> results = new LinkedHashMap<>();
+
+        if (keys.length > 0) {
+            final GlideString[] values = this.lifecycle.submit(() -> this.jsonSupported
+                    ? Json.mget(this.client, keys, gs(path))
+                    : this.client.mget(keys)).join();
+
+            for (int i = 0; i < values.length; i++) {
+                final Optional<T> value;
+
+                if (values[i] == null) {
+                    value = Optional.empty();
+                } else if (this.jsonSupported) {
+                    value = this.firstMatch(values[i], type);
+                } else {
+                    value = Optional.ofNullable(this.select(this.codec.decode(values[i].getBytes(), Person.class), path, type));
+                }
+
+                final String id = ids.get(i);
+
+                value.ifPresent(v -> results.put(id, v));
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(results));
+        }
+
+        return results;
+    }
+
+    /// Write the value at a path of a person, such
+    /// as `$.age`. A member that does not exist is
+    /// added to its object; any other missing step
+    /// fails the write, as does a person that does
+    /// not exist. A write to `$` replaces the whole
+    /// person, or creates it. Unless the path is
+    /// sent as is to the module, only member and
+    /// index steps are supported.
+    ///
+    /// @param  id      java.lang.String
+    /// @param  path    java.lang.String
+    /// @param  value   java.lang.Object
+    /// @return         boolean     True if the value was written
+    public boolean write(final String id, final String path, final Object value) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(id, path, value));
+        }
+
+        final boolean written = this.lifecycle.call(() -> this.update(id, path, value));
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(written));
+        }
+
+        return written;
+    }
+
+    /// Delete a person.
+    ///
+    /// @param  id  java.lang.String
+    /// @return     boolean     True if the person existed
+    public boolean delete(final String id) {
+        return this.lifecycle.call(() -> {
+            final Person previous = this.decode(this.personIndex.delete(KEYS.key(id), id, this.jsonSupported).join());
+
+            this.geoIndex.remove(id).join();
+            this.complete(previous, null);
+
+            return previous != null;
+        });
+    }
+
+    /// Write the value at a path of a person.
+    ///
+    /// @param  id      java.lang.String
+    /// @param  path    java.lang.String
+    /// @param  value   java.lang.Object
+    /// @return         boolean     True if the value was written
+    private boolean update(final String id, final String path, final Object value) {
+        final boolean written;
+
+        /* Saving the whole person keeps its index entries and addresses in step */
+
+        if (this.jsonSupported && this.isUnindexedPath(path)) {
+            written = this.set(id, path, value);
+        } else if (path.equals(ROOT.getString())) {
+            this.save(id, this.gson.fromJson(this.gson.toJsonTree(value), Person.class));
+
+            written = true;
+        } else {
+            final Optional<Person> person = this.find(id);
+
+            if (person.isPresent()) {
+                final JsonElement document = this.gson.toJsonTree(person.get());
+
+                written = replace(document, steps(path), this.gson.toJsonTree(value));
+
+                if (written) {
+                    this.save(id, this.gson.fromJson(document, Person.class));
+                }
+            } else {
+                written = false;
+            }
+        }
+
+        return written;
+    }
+
+    /// Write the value at a path with `JSON.SET`. The
+    /// module refuses a path below the root of a
+    /// document that does not exist, which is a
+    /// missing person here as it is without the
+    /// module.
+    ///
+    /// @param  id      java.lang.String
+    /// @param  path    java.lang.String
+    /// @param  value   java.lang.Object
+    /// @return         boolean     True if the value was written
+    private boolean set(final String id, final String path, final Object value) {
+        try {
+            return Json.set(this.client, KEYS.key(id), gs(path), gs(this.toJson(value))).join() != null;
+        } catch (final CompletionException e) {
+            if (isMissingDocument(e)) {
+                return false;
+            }
+
+            throw e;
+        }
+    }
+
+    /// Tell if a failure is the module's refusal to
+    /// create a document below its root.
+    ///
+    /// @param  throwable   java.lang.Throwable
+    /// @return             boolean
+    private static boolean isMissingDocument(final Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("new objects must be created at the root")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /// Tell if a path can be written with `JSON.SET`
+    /// without changing the person's index entries,
+    /// addresses or completions: it has only member
+    /// and index steps, its members are plain names,
+    /// and its first member feeds no index or
+    /// completion.
+    ///
+    /// @param  path    java.lang.String
+    /// @return         boolean
+    private boolean isUnindexedPath(final String path) {
+        final List<Object> steps;
+
+        try {
+            steps = steps(path);
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+
+        if (steps.isEmpty()
+                || !(steps.getFirst() instanceof String first)
+                || this.personIndex.isIndexed(first)
+                || COMPLETED_MEMBERS.contains(first)) {
+            return false;
+        }
+
+        for (final Object step : steps) {
+            if (step instanceof String name && !isPlainName(name)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /// Tell if a member name is a plain identifier
+    /// rather than a wildcard or other selector.
+    ///
+    /// @param  name    java.lang.String
+    /// @return         boolean
+    private static boolean isPlainName(final String name) {
+        if (!Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+
+        for (int i = 1; i < name.length(); i++) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /// Move the counts of the autocomplete indexes
+    /// from the names of a person that was replaced
+    /// to those of the one that replaced it.
+    ///
+    /// @param  previous    net.jmp.spring.boot.valkey.Person   The person replaced, or null
+    /// @param  current     net.jmp.spring.boot.valkey.Person   The person now stored, or null
+    private void complete(final Person previous, final Person current) {
+        if (previous != null) {
+            this.autocomplete.release(FIRST_NAMES, previous.getFirstName());
+            this.autocomplete.release(LAST_NAMES, previous.getLastName());
+        }
+
+        if (current != null) {
+            this.autocomplete.reference(FIRST_NAMES, current.getFirstName());
+            this.autocomplete.reference(LAST_NAMES, current.getLastName());
+        }
+    }
+
+    /// Decode a person as a script returned it.
+    ///
+    /// @param  value   java.lang.Object    The encoded person, or null
+    /// @return         net.jmp.spring.boot.valkey.Person   Null if the value is null
+    private Person decode(final Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        final GlideString encoded = value instanceof GlideString glideString ? glideString : gs(value.toString());
+
+        return this.jsonSupported
+                ? this.gson.fromJson(encoded.getString(), Person.class)
+                : this.codec.decode(encoded.getBytes(), Person.class);
+    }
+
+    /// Write a value as UTF-8 JSON through a pooled
+    /// serialization buffer.
+    ///
+    /// @param  value   java.lang.Object
+    /// @return         byte[]
+    private byte[] toJson(final Object value) {
+        final SerializationBuffer buffer = SerializationBuffer.obtain();
+
+        try {
+            final JsonWriter writer = this.gson.newJsonWriter(buffer.writer());
+
+            this.gson.toJson(value, value == null ? Object.class : value.getClass(), writer);
+            writer.flush();
+
+            return buffer.toByteArray();
+        } catch (final IOException e) {
+            throw new CodecException("Error writing JSON: " + e.getMessage(), e);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /// Get the first value a JSONPath query matched.
+    /// The module answers such a query with an array
+    /// of every match.
+    ///
+    /// @param  <T>     The type of the value
+    /// @param  matches glide.api.models.GlideString
+    /// @param  type    java.lang.Class<T>
+    /// @return         java.util.Optional<T>
+    private <T> Optional<T> firstMatch(final GlideString matches, final Class<T> type) {
+        if (matches == null) {
+            return Optional.empty();
+        }
+
+        final JsonArray array = JsonParser.parseString(matches.getString()).getAsJsonArray();
+
+        return array.isEmpty()
+                ? Optional.empty()
+                : Optional.ofNullable(this.gson.fromJson(array.get(0), type));
+    }
+
+    /// Select the value at a path of a person.
+    ///
+    /// @param  <T>     The type of the value
+    /// @param  person  net.jmp.spring.boot.valkey.Person
+    /// @param  path    java.lang.String
+    /// @param  type    java.lang.Class<T>
+    /// @return         T   Null if the path does not exist
+    private <T> T select(final Person person, final String path, final Class<T> type) {
+        JsonElement element = this.gson.toJsonTree(person);
+
+        for (final Object step : steps(path)) {
+            element = child(element, step);
+
+            if (element == null) {
+                return null;
+            }
+        }
+
+        return this.gson.fromJson(element, type);
+    }
+
+    /// Replace the value at a path of a document.
+    ///
+    /// @param  document    com.google.gson.JsonElement
+    /// @param  steps       java.util.List<java.lang.Object>
+    /// @param  value       com.google.gson.JsonElement
+    /// @return             boolean
+    private static boolean replace(final JsonElement document, final List<Object> steps, final JsonElement value) {
+        if (steps.isEmpty()) {
+            return false;
+        }
+
+        JsonElement parent = document;
+
+        for (final Object step : steps.subList(0, steps.size() - 1)) {
+            parent = child(parent, step);
+
+            if (parent == null) {
+                return false;
+            }
+        }
+
+        final Object last = steps.getLast();
+
+        if (last instanceof String name && parent.isJsonObject()) {
+            parent.getAsJsonObject().add(name, value);
+
+            return true;
+        }
+
+        if (last instanceof Integer index && parent.isJsonArray() && index < parent.getAsJsonArray().size()) {
+            parent.getAsJsonArray().set(index, value);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /// Get the child of an element for a step.
+    ///
+    /// @param  element com.google.gson.JsonElement
+    /// @param  step    java.lang.Object    A member name or an array index
+    /// @return         com.google.gson.JsonElement     Null if there is no such child
+    private static JsonElement child(final JsonElement element, final Object step) {
+        if (step instanceof String name && element.isJsonObject()) {
+            return element.getAsJsonObject().get(name);
+        }
+
+        if (step instanceof Integer index && element.isJsonArray() && index < element.getAsJsonArray().size()) {
+            return element.getAsJsonArray().get(index);
+        }
+
+        return null;
+    }
+
+    /// Split a path into its steps: member names
+    /// and array indexes.
+    ///
+    /// @param  path    java.lang.String
+    /// @return         java.util.List<java.lang.Object>
+    private static List<Object> steps(final String path) {
+        if (!path.startsWith("$")) {
+            throw new IllegalArgumentException("Path must start with $: " + path);
+        }
+
+        final List<Object> steps = new ArrayList<>();
+        int i = 1;
+
+        while (i < path.length()) {
+            final char c = path.charAt(i);
+
+            if (c == '.') {
+                int end = i + 1;
+
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+
+                if (end == i + 1) {
+                    throw new IllegalArgumentException("Empty member name in path: " + path);
+                }
+
+                steps.add(path.substring(i + 1, end));
+                i = end;
+            } else if (c == '[') {
+                final int end = path.indexOf(']', i);
+
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed index in path: " + path);
+                }
+
+                try {
+                    steps.add(Integer.parseUnsignedInt(path.substring(i + 1, end)));
+                } catch (final NumberFormatException e) {
+                    throw new IllegalArgumentException("Unsupported index in path: " + path, e);
+                }
+
+                i = end + 1;
+            } else {
+                throw new IllegalArgumentException("Unsupported path: " + path);
+            }
+        }
+
+        return steps;
+    }
+}
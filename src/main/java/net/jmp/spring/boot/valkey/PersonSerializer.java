@@ -0,0 +1,133 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PersonSerializer.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// The person serializer class. Lists are written
+/// as a varint of their size plus one, zero meaning
+/// null, followed by their elements.
+///
+/// Version 1: first name, last name, age,
+/// addresses, phone numbers.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class PersonSerializer extends VersionedSerializer<Person> {
+    /// The current version.
+    public static final int VERSION = 1;
+
+    /// The default constructor.
+    public PersonSerializer() {
+        super(VERSION);
+    }
+
+    /// Write the fields of a person.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  output  com.esotericsoftware.kryo.kryo5.io.Output
+    /// @param  person  net.jmp.spring.boot.valkey.Person
+    @Override
+    protected void writeFields(final Kryo kryo, final Output output, final Person person) {
+        output.writeString(person.getFirstName());
+        output.writeString(person.getLastName());
+        output.writeVarInt(person.getAge(), false);
+
+        final List<Address> addresses = person.getAddresses();
+
+        if (addresses == null) {
+            output.writeVarInt(0, true);
+        } else {
+            output.writeVarInt(addresses.size() + 1, true);
+
+            for (final Address address : addresses) {
+                kryo.writeObjectOrNull(output, address, Address.class);
+            }
+        }
+
+        final List<String> phoneNumbers = person.getPhoneNumbers();
+
+        if (phoneNumbers == null) {
+            output.writeVarInt(0, true);
+        } else {
+            output.writeVarInt(phoneNumbers.size() + 1, true);
+
+            for (final String phoneNumber : phoneNumbers) {
+                output.writeString(phoneNumber);
+            }
+        }
+    }
+
+    /// Read the fields of a person.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  input   com.esotericsoftware.kryo.kryo5.io.Input
+    /// @param  version int
+    /// @return         net.jmp.spring.boot.valkey.Person
+    @Override
+    protected Person readFields(final Kryo kryo, final Input input, final int version) {
+        final Person person = new Person();
+
+        person.setFirstName(input.readString());
+        person.setLastName(input.readString());
+        person.setAge(input.readVarInt(false));
+
+        final int addressCount = input.readVarInt(true) - 1;
+
+        if (addressCount >= 0) {
+            final List<Address> addresses = new ArrayList<>(addressCount);
+
+            for (int i = 0; i < addressCount; i++) {
+                addresses.add(kryo.readObjectOrNull(input, Address.class));
+            }
+
+            person.setAddresses(addresses);
+        }
+
+        final int phoneNumberCount = input.readVarInt(true) - 1;
+
+        if (phoneNumberCount >= 0) {
+            final List<String> phoneNumbers = new ArrayList<>(phoneNumberCount);
+
+            for (int i = 0; i < phoneNumberCount; i++) {
+                phoneNumbers.add(input.readString());
+            }
+
+            person.setPhoneNumbers(phoneNumbers);
+        }
+
+        return person;
+    }
+}
@@ -0,0 +1,189 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PersonTypeAdapter.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.TypeAdapter;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// The person type adapter class. It writes and
+/// reads persons, their addresses and their phone
+/// numbers as a stream of tokens, without reflection
+/// or an intermediate tree, and with the same field
+/// names as Gson's reflective adapter.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class PersonTypeAdapter extends TypeAdapter<Person> {
+    /// The address adapter.
+    private final TypeAdapter<Address> addressAdapter;
+
+    /// A constructor.
+    ///
+    /// @param  addressAdapter  com.google.gson.TypeAdapter<net.jmp.spring.boot.valkey.Address>
+    public PersonTypeAdapter(final TypeAdapter<Address> addressAdapter) {
+        super();
+
+        this.addressAdapter = addressAdapter;
+    }
+
+    /// Write a person.
+    ///
+    /// @param  out     com.google.gson.stream.JsonWriter
+    /// @param  person  net.jmp.spring.boot.valkey.Person
+    /// @throws         java.io.IOException When an I/O error occurs
+    @Override
+    public void write(final JsonWriter out, final Person person) throws IOException {
+        if (person == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("firstName").value(person.getFirstName());
+        out.name("lastName").value(person.getLastName());
+        out.name("age").value(person.getAge());
+        out.name("addresses");
+
+        if (person.getAddresses() == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+
+            for (final Address address : person.getAddresses()) {
+                this.addressAdapter.write(out, address);
+            }
+
+            out.endArray();
+        }
+
+        out.name("phoneNumbers");
+
+        if (person.getPhoneNumbers() == null) {
+            out.nullValue();
+        } else {
+            out.beginArray();
+
+            for (final String phoneNumber : person.getPhoneNumbers()) {
+                out.value(phoneNumber);
+            }
+
+            out.endArray();
+        }
+
+        out.endObject();
+    }
+
+    /// Read a person.
+    ///
+    /// @param  in  com.google.gson.stream.JsonReader
+    /// @return     net.jmp.spring.boot.valkey.Person
+    /// @throws     java.io.IOException When an I/O error occurs
+    @Override
+    public Person read(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final Person person = new Person();
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "firstName" -> person.setFirstName(AddressTypeAdapter.nextString(in));
+                case "lastName" -> person.setLastName(AddressTypeAdapter.nextString(in));
+                case "age" -> person.setAge(in.nextInt());
+                case "addresses" -> person.setAddresses(this.readAddresses(in));
+                case "phoneNumbers" -> person.setPhoneNumbers(readStrings(in));
+                default -> in.skipValue();
+            }
+        }
+
+        in.endObject();
+
+        return person;
+    }
+
+    /// Read a list of addresses.
+    ///
+    /// @param  in  com.google.gson.stream.JsonReader
+    /// @return     java.util.List<net.jmp.spring.boot.valkey.Address>
+    /// @throws     java.io.IOException When an I/O error occurs
+    private List<Address> readAddresses(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final List<Address> addresses = new ArrayList<>();
+
+        in.beginArray();
+
+        while (in.hasNext()) {
+            addresses.add(this.addressAdapter.read(in));
+        }
+
+        in.endArray();
+
+        return addresses;
+    }
+
+    /// Read a list of strings.
+    ///
+    /// @param  in  com.google.gson.stream.JsonReader
+    /// @return     java.util.List<java.lang.String>
+    /// @throws     java.io.IOException When an I/O error occurs
+    private static List<String> readStrings(final JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final List<String> strings = new ArrayList<>();
+
+        in.beginArray();
+
+        while (in.hasNext()) {
+            strings.add(AddressTypeAdapter.nextString(in));
+        }
+
+        in.endArray();
+
+        return strings;
+    }
+}
@@ -0,0 +1,334 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PubSubMetrics.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.GlideString;
+import glide.api.models.PubSubMessage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Objects;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The pub/sub metrics class. It wraps channel
+/// handlers so that each message they handle is
+/// measured:
+///
+/// * `valkey.pubsub.handler` times the handler,
+/// * `valkey.pubsub.latency` is the time from
+///   publish to the start of handling, for
+///   messages in a [MessageEnvelope],
+/// * `valkey.pubsub.lost` counts the sequence
+///   numbers skipped by each publisher on each
+///   channel, and
+/// * `valkey.pubsub.reordered` counts the messages
+///   that arrive after a later one.
+///
+/// A gap is counted as lost when it is seen, and
+/// counters cannot go down, so a message that
+/// arrives late is counted both as lost and as
+/// reordered. Lost minus reordered is the number
+/// of messages that never arrived.
+///
+/// A publisher is known by its id, which is random
+/// for each run of a publisher, so a restarted
+/// publisher is a new source and its sequence is
+/// not compared with the old one. A source not
+/// heard from for `valkey.pubsub.idleSourceSeconds`
+/// is forgotten; a message from it after that
+/// starts its sequence again.
+///
+/// Every meter is tagged with the name the handler
+/// was instrumented with. A rising latency
+/// percentile or handler time shows a subscriber
+/// falling behind before its output buffer limit
+/// disconnects it.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class PubSubMetrics {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The meter registry.
+    private final MeterRegistry registry;
+
+    /// The latency in milliseconds over which a message is logged.
+    @Value("${valkey.pubsub.slowMillis:1000}")
+    private long slowMillis;
+
+    /// The seconds after which a silent source is forgotten; zero or less to keep every source.
+    @Value("${valkey.pubsub.idleSourceSeconds:600}")
+    private long idleSourceSeconds;
+
+    /// The constructor.
+    ///
+    /// @param  registry    io.micrometer.core.instrument.MeterRegistry
+    public PubSubMetrics(final MeterRegistry registry) {
+        super();
+
+        this.registry = registry;
+    }
+
+    /// Wrap a handler so that its messages are measured.
+    ///
+    /// @param  name    java.lang.String    The name to tag the meters with
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return         net.jmp.spring.boot.valkey.ChannelHandler
+    public ChannelHandler instrument(final String name, final ChannelHandler handler) {
+        return new Instrumented(name, handler);
+    }
+
+    /// A measured handler.
+    private final class Instrumented implements ChannelHandler {
+        /// The name.
+        private final String name;
+
+        /// The handler.
+        private final ChannelHandler handler;
+
+        /// The handler timer.
+        private final Timer handlerTimer;
+
+        /// The latency timer.
+        private final Timer latencyTimer;
+
+        /// The lost message counter.
+        private final Counter lost;
+
+        /// The reordered message counter.
+        private final Counter reordered;
+
+        /// The last sequence number of each publisher and channel.
+        private final ConcurrentMap<Source, Seen> sequences = new ConcurrentHashMap<>();
+
+        /// The time the silent sources were last forgotten, from System.nanoTime.
+        private volatile long prunedNanos = System.nanoTime();
+
+        /// The constructor.
+        ///
+        /// @param  name    java.lang.String
+        /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+        private Instrumented(final String name, final ChannelHandler handler) {
+            super();
+
+            this.name = name;
+            this.handler = handler;
+
+            this.handlerTimer = Timer.builder("valkey.pubsub.handler")
+                    .description("The time to handle a message")
+                    .tag("handler", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(PubSubMetrics.this.registry);
+            this.latencyTimer = Timer.builder("valkey.pubsub.latency")
+                    .description("The time from publish to handling")
+                    .tag("handler", name)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .register(PubSubMetrics.this.registry);
+            this.lost = Counter.builder("valkey.pubsub.lost")
+                    .description("The messages missing from a publisher's sequence when seen, late ones included")
+                    .tag("handler", name)
+                    .register(PubSubMetrics.this.registry);
+            this.reordered = Counter.builder("valkey.pubsub.reordered")
+                    .description("The messages that arrived after a later one")
+                    .tag("handler", name)
+                    .register(PubSubMetrics.this.registry);
+        }
+
+        /// Handle and measure a message.
+        ///
+        /// @param  message glide.api.models.PubSubMessage
+        /// @param  context java.lang.Object
+        @Override
+        public void handle(final PubSubMessage message, final Object context) {
+            final long start = System.nanoTime();
+            final MessageEnvelope envelope = MessageEnvelope.read(message.getMessage().getBytes());
+
+            if (envelope != null) {
+                this.measure(message.getChannel(), envelope);
+            }
+
+            try {
+                this.handler.handle(message, context);
+            } finally {
+                this.handlerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /// Record the latency and sequence of an
+        /// enveloped message.
+        ///
+        /// @param  channel     glide.api.models.GlideString
+        /// @param  envelope    net.jmp.spring.boot.valkey.MessageEnvelope
+        private void measure(final GlideString channel, final MessageEnvelope envelope) {
+            /* Clocks that disagree can make the latency negative */
+
+            final long micros = Math.max(0, MessageEnvelope.nowMicros() - envelope.getPublishedMicros());
+
+            this.latencyTimer.record(micros, TimeUnit.MICROSECONDS);
+
+            if (micros >= TimeUnit.MILLISECONDS.toMicros(PubSubMetrics.this.slowMillis)) {
+                PubSubMetrics.this.logger.warn("Message {} on {} for {} arrived after {} ms",
+                        envelope.getSequence(),
+                        channel,
+                        this.name,
+                        micros / 1_000);
+            }
+
+            final Source source = new Source(channel, envelope.getPublisherId());
+            final long sequence = envelope.getSequence();
+            final long now = System.nanoTime();
+
+            /* The skipped sequence numbers, or -1 for a late message; compute keeps concurrent deliveries from racing */
+
+            final long[] skipped = new long[1];
+
+            this.sequences.compute(source, (key, last) -> {
+                if (last == null) {
+                    return new Seen(sequence, now);     // A new publisher
+                }
+
+                if (sequence > last.sequence) {
+                    skipped[0] = sequence - last.sequence - 1;
+
+                    return new Seen(sequence, now);
+                }
+
+                skipped[0] = -1;
+
+                return new Seen(last.sequence, now);
+            });
+
+            this.prune(now);
+
+            if (skipped[0] > 0) {
+                this.lost.increment(skipped[0]);
+            } else if (skipped[0] < 0) {
+                this.reordered.increment();
+            }
+        }
+
+        /// Forget the sources not heard from for the
+        /// idle time, at most once per idle time.
+        ///
+        /// @param  now long    The time from System.nanoTime
+        private void prune(final long now) {
+            final long idleNanos = TimeUnit.SECONDS.toNanos(PubSubMetrics.this.idleSourceSeconds);
+
+            if (idleNanos <= 0 || now - this.prunedNanos < idleNanos) {
+                return;
+            }
+
+            this.prunedNanos = now;
+
+            /* An entry is removed only if it is still the one tested, so a source seen meanwhile stays */
+
+            this.sequences.values().removeIf(seen -> now - seen.nanos >= idleNanos);
+        }
+    }
+
+    /// The last sequence number of a source and when
+    /// it was last heard from.
+    private static final class Seen {
+        /// The last sequence number.
+        private final long sequence;
+
+        /// The time it was last heard from, from System.nanoTime.
+        private final long nanos;
+
+        /// The constructor.
+        ///
+        /// @param  sequence    long
+        /// @param  nanos       long
+        private Seen(final long sequence, final long nanos) {
+            super();
+
+            this.sequence = sequence;
+            this.nanos = nanos;
+        }
+    }
+
+    /// A publisher on a channel.
+    private static final class Source {
+        /// The channel.
+        private final GlideString channel;
+
+        /// The publisher id.
+        private final long publisherId;
+
+        /// The constructor.
+        ///
+        /// @param  channel     glide.api.models.GlideString
+        /// @param  publisherId long
+        private Source(final GlideString channel, final long publisherId) {
+            super();
+
+            this.channel = channel;
+            this.publisherId = publisherId;
+        }
+
+        /// Return true if an object is the same source.
+        ///
+        /// @param  o   java.lang.Object
+        /// @return     boolean
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Source source)) {
+                return false;
+            }
+
+            return this.publisherId == source.publisherId && this.channel.equals(source.channel);
+        }
+
+        /// Return the hash code.
+        ///
+        /// @return int
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.channel, this.publisherId);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)SamplingTurboFilter.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+import ch.qos.logback.classic.turbo.TurboFilter;
+
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+/// The sampling turbo filter class. It thins out the
+/// routine events of one logger, and the loggers
+/// below it, before the events are even created:
+///
+/// - `sampleRate` keeps one event in N;
+/// - `maxPerSecond` keeps at most that many events
+///   each second, approximately.
+///
+/// Warnings and errors always pass. Events with
+/// the [SlowCommandLog#SLOW_COMMAND] marker are
+/// accepted from any logger, even below its level,
+/// so any logger that times commands and is set to
+/// `warn` logs errors and slow commands only; this
+/// needs one filter configured. Configure one
+/// filter per sampled logger in `logback-spring.xml`.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public class SamplingTurboFilter extends TurboFilter {
+    /// The name of the logger sampled.
+    private String loggerName;
+
+    /// Keep one event in this many.
+    private int sampleRate = 1;
+
+    /// The most events kept per second; zero for no limit.
+    private int maxPerSecond;
+
+    /// The number of events seen.
+    private final AtomicLong seen = new AtomicLong();
+
+    /// The second being counted.
+    private volatile long second;
+
+    /// The number of events kept in the second being counted.
+    private final AtomicInteger keptThisSecond = new AtomicInteger();
+
+    /// The default constructor.
+    public SamplingTurboFilter() {
+        super();
+    }
+
+    /// Set the name of the logger sampled.
+    ///
+    /// @param  loggerName  java.lang.String
+    public void setLoggerName(final String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    /// Set the sample rate.
+    ///
+    /// @param  sampleRate  int     Keep one event in this many
+    public void setSampleRate(final int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /// Set the most events kept per second.
+    ///
+    /// @param  maxPerSecond    int     Zero for no limit
+    public void setMaxPerSecond(final int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /// Start the filter.
+    @Override
+    public void start() {
+        if (this.loggerName == null || this.loggerName.isBlank()) {
+            this.addError("No loggerName set for " + this.getName());
+            return;
+        }
+
+        if (this.sampleRate < 1) {
+            this.addWarn("sampleRate " + this.sampleRate + " is less than 1; using 1");
+            this.sampleRate = 1;
+        }
+
+        super.start();
+    }
+
+    /// Decide whether to keep an event.
+    ///
+    /// @param  marker  org.slf4j.Marker
+    /// @param  logger  ch.qos.logback.classic.Logger
+    /// @param  level   ch.qos.logback.classic.Level
+    /// @param  format  java.lang.String
+    /// @param  params  java.lang.Object[]
+    /// @param  t       java.lang.Throwable
+    /// @return         ch.qos.logback.core.spi.FilterReply
+    @Override
+    public FilterReply decide(final Marker marker,
+                              final Logger logger,
+                              final Level level,
+                              final String format,
+                              final Object[] params,
+                              final Throwable t) {
+        if (!this.isStarted()) {
+            return FilterReply.NEUTRAL;
+        }
+
+        /* Slow commands pass whichever logger times them, not only the sampled one */
+
+        if (marker != null && marker.contains(SlowCommandLog.SLOW_COMMAND)) {
+            return FilterReply.ACCEPT;
+        }
+
+        if (!this.applies(logger)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (format == null                              // An is-enabled check, not an event
+                || level.isGreaterOrEqual(Level.WARN)
+                || t != null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (this.seen.getAndIncrement() % this.sampleRate != 0) {
+            return FilterReply.DENY;
+        }
+
+        if (this.maxPerSecond > 0) {
+            final long now = System.currentTimeMillis() / 1000;
+
+            if (now != this.second) {
+                this.second = now;
+                this.keptThisSecond.set(0);
+            }
+
+            if (this.keptThisSecond.incrementAndGet() > this.maxPerSecond) {
+                return FilterReply.DENY;
+            }
+        }
+
+        return FilterReply.NEUTRAL;
+    }
+
+    /// Tell if the filter applies to a logger.
+    ///
+    /// @param  logger  ch.qos.logback.classic.Logger
+    /// @return         boolean
+    private boolean applies(final Logger logger) {
+        final String name = logger.getName();
+
+        return name.startsWith(this.loggerName)
+                && (name.length() == this.loggerName.length() || name.charAt(this.loggerName.length()) == '.');
+    }
+}
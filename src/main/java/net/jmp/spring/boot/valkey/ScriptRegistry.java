@@ -0,0 +1,150 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ScriptRegistry.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+import glide.api.models.Script;
+
+import glide.api.models.commands.ScriptOptionsGlideString;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+
+/// The script registry class. It holds a Glide
+/// [Script] for every [ServerScript] and invokes
+/// them with `invokeScript`, which sends EVALSHA and
+/// loads the script only when the server does not
+/// have it, so the source is not sent with every
+/// call.
+///
+/// The script cache is shared by every connection to
+/// the server, so a script loaded through the
+/// application's client can be invoked through any
+/// other.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class ScriptRegistry {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client.
+    private final GlideClient client;
+
+    /// The Glide script of each server script.
+    private final Map<ServerScript, Script> scripts = new EnumMap<>(ServerScript.class);
+
+    /// The slow command log.
+    private final SlowCommandLog slowCommandLog;
+
+    /// The constructor.
+    ///
+    /// @param  client          glide.api.GlideClient
+    /// @param  slowCommandLog  net.jmp.spring.boot.valkey.SlowCommandLog
+    public ScriptRegistry(final GlideClient client, final SlowCommandLog slowCommandLog) {
+        super();
+
+        this.client = client;
+        this.slowCommandLog = slowCommandLog;
+
+        /* Binary output keeps replies as glide strings */
+
+        for (final ServerScript script : ServerScript.values()) {
+            this.scripts.put(script, new Script(script.getSource(), true));
+        }
+    }
+
+    /// Invoke a script through the application's client.
+    ///
+    /// @param  script  net.jmp.spring.boot.valkey.ServerScript
+    /// @param  keys    glide.api.models.GlideString[]
+    /// @param  args    glide.api.models.GlideString[]
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Object>
+    public CompletableFuture<Object> invoke(final ServerScript script,
+                                            final GlideString[] keys,
+                                            final GlideString[] args) {
+        return this.invoke(this.client, script, keys, args);
+    }
+
+    /// Invoke a script.
+    ///
+    /// @param  client  glide.api.GlideClient
+    /// @param  script  net.jmp.spring.boot.valkey.ServerScript
+    /// @param  keys    glide.api.models.GlideString[]
+    /// @param  args    glide.api.models.GlideString[]
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Object>
+    public CompletableFuture<Object> invoke(final GlideClient client,
+                                            final ServerScript script,
+                                            final GlideString[] keys,
+                                            final GlideString[] args) {
+        final ScriptOptionsGlideString options = ScriptOptionsGlideString.builder()
+                .keys(List.of(keys))
+                .args(List.of(args))
+                .build();
+
+        return this.slowCommandLog.time(this.logger,
+                "EVALSHA",
+                script,
+                System.nanoTime(),
+                client.invokeScript(this.scripts.get(script), options));
+    }
+
+    /// Get the SHA of a script.
+    ///
+    /// @param  script  net.jmp.spring.boot.valkey.ServerScript
+    /// @return         java.lang.String
+    public String getSha(final ServerScript script) {
+        return this.scripts.get(script).getHash();
+    }
+
+    /// Release the scripts held by the Glide client.
+    @PreDestroy
+    public void close() {
+        for (final Map.Entry<ServerScript, Script> entry : this.scripts.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (final Exception e) {
+                this.logger.warn("Unable to release script {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+}
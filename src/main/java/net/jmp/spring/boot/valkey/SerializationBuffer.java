@@ -0,0 +1,200 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)SerializationBuffer.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+
+/// The serialization buffer class. It is a growable
+/// output stream, like a byte array output stream,
+/// that is taken from a shared pool and given back
+/// when done, so its array is reused instead of
+/// regrown for every value.
+///
+/// A Glide string wraps an exact-length array, so
+/// the result still costs one copy: [#toByteArray()].
+/// What the pool saves is the growth of the array
+/// and, for text, the writer and its encoder.
+///
+/// Closing the buffer, or a stream over it, does not
+/// release it; call [#release()] in a finally block.
+///
+/// It is not thread-safe.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class SerializationBuffer extends OutputStream {
+    /// The initial capacity.
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /// The largest capacity kept when released; bigger arrays are dropped.
+    private static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+    /// The largest number of idle buffers kept.
+    private static final int MAX_POOLED = 256;
+
+    /// The pool.
+    private static final Pool<SerializationBuffer> POOL = new Pool<>(true, true, MAX_POOLED) {
+        @Override
+        protected SerializationBuffer create() {
+            return new SerializationBuffer();
+        }
+
+        @Override
+        protected void reset(final SerializationBuffer buffer) {
+            buffer.reset();
+        }
+    };
+
+    /// The array.
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+    /// The number of bytes written.
+    private int count;
+
+    /// The UTF-8 writer over this buffer, created on first use.
+    private Writer writer;
+
+    /// The constructor.
+    private SerializationBuffer() {
+        super();
+    }
+
+    /// Take a buffer from the pool.
+    ///
+    /// @return net.jmp.spring.boot.valkey.SerializationBuffer
+    public static SerializationBuffer obtain() {
+        return POOL.obtain();
+    }
+
+    /// Give this buffer back to the pool. It
+    /// must not be used afterwards.
+    public void release() {
+        POOL.free(this);
+    }
+
+    /// Write a byte.
+    ///
+    /// @param  b   int
+    @Override
+    public void write(final int b) {
+        this.ensureCapacity(this.count + 1);
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    /// Write bytes.
+    ///
+    /// @param  bytes   byte[]
+    /// @param  offset  int
+    /// @param  length  int
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) {
+        this.ensureCapacity(this.count + length);
+
+        System.arraycopy(bytes, offset, this.buffer, this.count, length);
+
+        this.count += length;
+    }
+
+    /// Get a UTF-8 writer over this buffer. It is
+    /// kept with the buffer; flush it before reading
+    /// the bytes.
+    ///
+    /// @return java.io.Writer
+    public Writer writer() {
+        if (this.writer == null) {
+            this.writer = new OutputStreamWriter(this, StandardCharsets.UTF_8);
+        }
+
+        return this.writer;
+    }
+
+    /// Get the number of bytes written.
+    ///
+    /// @return int
+    public int size() {
+        return this.count;
+    }
+
+    /// Get the array. Only the first [#size()]
+    /// bytes are written.
+    ///
+    /// @return byte[]
+    public byte[] getBuffer() {
+        return this.buffer;
+    }
+
+    /// Copy the bytes written.
+    ///
+    /// @return byte[]
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.count);
+    }
+
+    /// Discard the bytes written, including any
+    /// left unflushed in the writer.
+    public void reset() {
+        if (this.writer != null) {
+            try {
+                this.writer.flush();
+            } catch (final IOException e) {
+                this.writer = null;
+            }
+        }
+
+        this.count = 0;
+
+        if (this.buffer.length > MAX_RETAINED_CAPACITY) {
+            this.buffer = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    /// Closing has no effect.
+    @Override
+    public void close() {
+        /* The buffer is released, not closed */
+    }
+
+    /// Grow the array if needed.
+    ///
+    /// @param  capacity    int
+    private void ensureCapacity(final int capacity) {
+        if (capacity > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(capacity, this.buffer.length * 2));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ServerScript.java     0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/// The server scripts. Each is a Lua script that
+/// does a compound read-modify-write in one atomic
+/// round trip. They are loaded and invoked by SHA
+/// through the [ScriptRegistry].
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public enum ServerScript {
+    /// Set hash fields and return the whole hash.
+    /// KEYS[1] is the hash; ARGV is field and value pairs.
+    HASH_MERGE("""
+            redis.call('hset', KEYS[1], unpack(ARGV))
+            return redis.call('hgetall', KEYS[1])
+            """),
+
+    /// Remove list elements and return what is left.
+    /// KEYS[1] is the list; ARGV[1] is the count and
+    /// ARGV[2] the element.
+    LIST_REMOVE_AND_RANGE("""
+            redis.call('lrem', KEYS[1], ARGV[1], ARGV[2])
+            return redis.call('lrange', KEYS[1], 0, -1)
+            """),
+
+    /// Copy a string and return whether it was copied
+    /// and the value of the destination.
+    /// KEYS[1] is the source and KEYS[2] the destination.
+    COPY_AND_GET("""
+            local copied = redis.call('copy', KEYS[1], KEYS[2])
+            return { copied, redis.call('get', KEYS[2]) }
+            """),
+
+    /// Delete a key only if it still holds a token.
+    /// KEYS[1] is the key; ARGV[1] is the token.
+    COMPARE_AND_DELETE("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """),
+
+    /// Replace the geo members of an owner, which are
+    /// named `<owner>:<index>`, and record how many
+    /// indexes the owner has.
+    /// KEYS[1] is the geo set and KEYS[2] the hash of
+    /// counts; ARGV[1] is the owner, ARGV[2] the new
+    /// count, and ARGV from 3 on are index, longitude
+    /// and latitude triples. Every coordinate is
+    /// checked before the first write, so a bad one
+    /// leaves the members as they were.
+    GEO_REPLACE("""
+            for i = 3, #ARGV, 3 do
+                local lon, lat = tonumber(ARGV[i + 1]), tonumber(ARGV[i + 2])
+                if not lon or not lat or math.abs(lon) > 180 or math.abs(lat) > 85.05112878 then
+                    return redis.error_reply('ERR invalid coordinates for ' .. ARGV[1] .. ':' .. ARGV[i])
+                end
+            end
+            local old = tonumber(redis.call('hget', KEYS[2], ARGV[1]) or '0')
+            for i = 0, old - 1 do
+                redis.call('zrem', KEYS[1], ARGV[1] .. ':' .. i)
+            end
+            local added = 0
+            for i = 3, #ARGV, 3 do
+                added = added + redis.call('geoadd', KEYS[1], ARGV[i + 1], ARGV[i + 2], ARGV[1] .. ':' .. ARGV[i])
+            end
+            if tonumber(ARGV[2]) > 0 then
+                redis.call('hset', KEYS[2], ARGV[1], ARGV[2])
+            else
+                redis.call('hdel', KEYS[2], ARGV[1])
+            end
+            return added
+            """),
+
+    /// Return a page of a geo search, storing the
+    /// whole result with distances the first time so
+    /// later pages are ranges of it.
+    /// KEYS[1] is the geo set and KEYS[2] the result;
+    /// ARGV[1] is the seconds the result is kept,
+    /// ARGV[2] and ARGV[3] the first and last rank,
+    /// and the rest the GEOSEARCHSTORE arguments.
+    GEO_SEARCH_PAGE("""
+            if redis.call('exists', KEYS[2]) == 0 then
+                redis.call('geosearchstore', KEYS[2], KEYS[1], unpack(ARGV, 4))
+                redis.call('expire', KEYS[2], ARGV[1])
+            end
+            return { redis.call('zcard', KEYS[2]),
+                     redis.call('zrange', KEYS[2], ARGV[2], ARGV[3], 'withscores') }
+            """),
+
+    /// Write an object, replace its index entries and
+    /// return the object it replaced, or nil.
+    /// An entry is an index key and a score; a set
+    /// index has an empty score. The entries of the
+    /// object are kept in a hash so the old ones can
+    /// be removed. The index keys are not declared,
+    /// so this needs a standalone server.
+    /// KEYS[1] is the object and KEYS[2] the hash of
+    /// entries; ARGV[1] is the ID, ARGV[2] the JSON
+    /// path or empty for a string, ARGV[3] the value
+    /// and ARGV from 4 on key and score pairs.
+    INDEXED_SET("""
+            local previous
+            if ARGV[2] == '' then
+                previous = redis.call('set', KEYS[1], ARGV[3], 'get')
+            else
+                previous = redis.call('json.get', KEYS[1])
+                redis.call('json.set', KEYS[1], ARGV[2], ARGV[3])
+            end
+            local entries = {}
+            for i = 4, #ARGV, 2 do
+                entries[ARGV[i]] = ARGV[i + 1]
+            end
+            local old = redis.call('hgetall', KEYS[2])
+            for i = 1, #old, 2 do
+                if entries[old[i]] ~= old[i + 1] then
+                    if old[i + 1] == '' then
+                        redis.call('srem', old[i], ARGV[1])
+                    else
+                        redis.call('zrem', old[i], ARGV[1])
+                    end
+                end
+            end
+            redis.call('del', KEYS[2])
+            for key, score in pairs(entries) do
+                if score == '' then
+                    redis.call('sadd', key, ARGV[1])
+                else
+                    redis.call('zadd', key, score, ARGV[1])
+                end
+                redis.call('hset', KEYS[2], key, score)
+            end
+            return previous
+            """),
+
+    /// Delete an object and its index entries and
+    /// return the object, or nil if it did not exist.
+    /// KEYS[1] is the object and KEYS[2] the hash of
+    /// entries; ARGV[1] is the ID and ARGV[2] is
+    /// empty for a string or else the object is a
+    /// JSON document.
+    INDEXED_DELETE("""
+            local previous
+            if ARGV[2] == '' then
+                previous = redis.call('get', KEYS[1])
+            else
+                previous = redis.call('json.get', KEYS[1])
+            end
+            local old = redis.call('hgetall', KEYS[2])
+            for i = 1, #old, 2 do
+                if old[i + 1] == '' then
+                    redis.call('srem', old[i], ARGV[1])
+                else
+                    redis.call('zrem', old[i], ARGV[1])
+                end
+            end
+            redis.call('del', KEYS[2])
+            redis.call('del', KEYS[1])
+            return previous
+            """),
+
+    /// Change the reference counts of completion terms
+    /// and keep the vocabulary to the terms counted.
+    /// A term joins the vocabulary while its count is
+    /// positive and leaves it, with its weight, when
+    /// the count falls to zero.
+    /// KEYS[1] is the vocabulary, KEYS[2] the hash of
+    /// counts and KEYS[3] the weights; ARGV is member
+    /// and change pairs.
+    COMPLETE_COUNT("""
+            for i = 1, #ARGV, 2 do
+                local count = redis.call('hincrby', KEYS[2], ARGV[i], ARGV[i + 1])
+                if count > 0 then
+                    redis.call('zadd', KEYS[1], 0, ARGV[i])
+                else
+                    redis.call('hdel', KEYS[2], ARGV[i])
+                    redis.call('zrem', KEYS[1], ARGV[i])
+                    redis.call('zrem', KEYS[3], ARGV[i])
+                end
+            end
+            return redis.call('zcard', KEYS[1])
+            """);
+
+    /// The source.
+    private final String source;
+
+    /// A constructor.
+    ///
+    /// @param  source  java.lang.String
+    ServerScript(final String source) {
+        this.source = source;
+    }
+
+    /// Get the source.
+    ///
+    /// @return java.lang.String
+    public String getSource() {
+        return this.source;
+    }
+}
@@ -0,0 +1,120 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)SingleFlight.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import java.util.function.Supplier;
+
+/// The single-flight class. Concurrent calls for
+/// the same key share the future of the first
+/// call instead of each doing the work.
+///
+/// @param  <K> The type of key
+/// @param  <V> The type of value
+/// @version    0.4.0
+/// @since      0.4.0
+public class SingleFlight<K, V> {
+    /// The calls in flight.
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /// The number of calls that did the work.
+    private final LongAdder executed = new LongAdder();
+
+    /// The number of calls that joined a call in flight.
+    private final LongAdder coalesced = new LongAdder();
+
+    /// The default constructor.
+    public SingleFlight() {
+        super();
+    }
+
+    /// Execute a call for a key unless a call for
+    /// the same key is already in flight, in which
+    /// case its result is shared. The supplier is
+    /// invoked on the calling thread.
+    ///
+    /// @param  key     K
+    /// @param  call    java.util.function.Supplier<java.util.concurrent.CompletableFuture<V>>
+    /// @return         java.util.concurrent.CompletableFuture<V>
+    public CompletableFuture<V> execute(final K key, final Supplier<CompletableFuture<V>> call) {
+        final CompletableFuture<V> promise = new CompletableFuture<>();
+        final CompletableFuture<V> existing = this.calls.putIfAbsent(key, promise);
+
+        if (existing != null) {
+            this.coalesced.increment();
+
+            return existing.copy();     // A caller cancelling its copy does not affect the others
+        }
+
+        this.executed.increment();
+
+        try {
+            call.get().whenComplete((value, throwable) -> {
+                this.calls.remove(key, promise);
+
+                if (throwable != null) {
+                    promise.completeExceptionally(throwable);
+                } else {
+                    promise.complete(value);
+                }
+            });
+        } catch (final RuntimeException e) {
+            this.calls.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+
+        return promise.copy();
+    }
+
+    /// Get the number of calls in flight.
+    ///
+    /// @return int
+    public int getInFlight() {
+        return this.calls.size();
+    }
+
+    /// Get the number of calls that did the work.
+    ///
+    /// @return long
+    public long getExecuted() {
+        return this.executed.sum();
+    }
+
+    /// Get the number of calls that joined a call in flight.
+    ///
+    /// @return long
+    public long getCoalesced() {
+        return this.coalesced.sum();
+    }
+}
@@ -0,0 +1,91 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)SlowCommandLog.java   0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The slow command log class. It times commands
+/// and logs the ones that take longer than a
+/// threshold, with a marker that lets them through
+/// any [SamplingTurboFilter].
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class SlowCommandLog {
+    /// The marker of slow command events.
+    public static final Marker SLOW_COMMAND = MarkerFactory.getMarker("SLOW_COMMAND");
+
+    /// The threshold in milliseconds; zero or less disables the log.
+    @Value("${valkey.logging.slowCommandMillis:100}")
+    private long slowCommandMillis;
+
+    /// The default constructor.
+    public SlowCommandLog() {
+        super();
+    }
+
+    /// Time a command. The future returned is the
+    /// one given; the log is written when it
+    /// completes.
+    ///
+    /// @param  <T>         The type of result
+    /// @param  logger      org.slf4j.Logger    The logger of the caller
+    /// @param  command     java.lang.String
+    /// @param  key         java.lang.Object
+    /// @param  startNanos  long    The time the command was sent
+    /// @param  future      java.util.concurrent.CompletableFuture<T>
+    /// @return             java.util.concurrent.CompletableFuture<T>
+    public <T> CompletableFuture<T> time(final Logger logger,
+                                         final String command,
+                                         final Object key,
+                                         final long startNanos,
+                                         final CompletableFuture<T> future) {
+        if (this.slowCommandMillis > 0) {
+            future.whenComplete((result, throwable) -> {
+                final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+                if (millis >= this.slowCommandMillis) {
+                    logger.info(SLOW_COMMAND, "Slow command {} {}: {} ms", command, key, millis);
+                }
+            });
+        }
+
+        return future;
+    }
+}
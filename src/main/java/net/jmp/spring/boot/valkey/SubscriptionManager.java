@@ -0,0 +1,447 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)SubscriptionManager.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+
+import glide.api.models.configuration.StandaloneSubscriptionConfiguration;
+
+import static glide.api.models.GlideString.gs;
+
+import static glide.api.models.configuration.StandaloneSubscriptionConfiguration.PubSubChannelMode.EXACT;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.stereotype.Component;
+
+/// The subscription manager class. It keeps one
+/// long-lived subscriber client whose channels and
+/// patterns are added and removed while it runs,
+/// and routes its messages through a
+/// [ChannelRouter].
+///
+/// Subscriptions are reference counted: the first
+/// handler for a channel or pattern sends
+/// `SUBSCRIBE` or `PSUBSCRIBE` and the last one to
+/// leave sends `UNSUBSCRIBE` or `PUNSUBSCRIBE`, so
+/// handlers come and go without reconnecting.
+/// Channels and patterns are kept apart, so a
+/// channel is subscribed to exactly even when its
+/// name holds glob characters.
+///
+/// Glide only restores the subscriptions it was
+/// created with when it reconnects. The client is
+/// created subscribed to a private control channel
+/// and its connection id is checked every
+/// `valkey.subscriptions.checkSeconds`; when the id
+/// changes the connection was re-established and
+/// every runtime subscription is sent again.
+///
+/// A `SUBSCRIBE` or `PSUBSCRIBE` that fails leaves
+/// its handlers registered and is sent again by the
+/// next check, or by the next subscription of the
+/// same name, until the server takes it.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class SubscriptionManager {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The Glide client factory.
+    private final GlideClientFactory glideClientFactory;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The router of the subscriber's messages.
+    private final ChannelRouter router = new ChannelRouter();
+
+    /// The number of handlers of each channel; guarded by this.
+    private final Map<String, Integer> channels = new HashMap<>();
+
+    /// The number of handlers of each pattern; guarded by this.
+    private final Map<String, Integer> patterns = new HashMap<>();
+
+    /// The channels whose subscription failed; guarded by this.
+    private final Set<String> unsentChannels = new HashSet<>();
+
+    /// The patterns whose subscription failed; guarded by this.
+    private final Set<String> unsentPatterns = new HashSet<>();
+
+    /// The number of times the subscriptions were sent again.
+    private final LongAdder resubscribes = new LongAdder();
+
+    /// The private control channel.
+    private final String controlChannel = "subscriptions:" + UUID.randomUUID();
+
+    /// The subscriber client; created on the first subscription.
+    private GlideClient subscriber;
+
+    /// The connection id of the subscriber.
+    private long connectionId;
+
+    /// The scheduler of the connection checks.
+    private ScheduledExecutorService scheduler;
+
+    /// The interval in seconds between connection checks.
+    @Value("${valkey.subscriptions.checkSeconds:5}")
+    private long checkSeconds;
+
+    /// The constructor.
+    ///
+    /// @param  glideClientFactory  net.jmp.spring.boot.valkey.GlideClientFactory
+    /// @param  lifecycle           net.jmp.spring.boot.valkey.ValkeyLifecycle
+    public SubscriptionManager(final GlideClientFactory glideClientFactory, final ValkeyLifecycle lifecycle) {
+        super();
+
+        this.glideClientFactory = glideClientFactory;
+        this.lifecycle = lifecycle;
+    }
+
+    /// Subscribe a handler to a channel. The server
+    /// is only told when this is the first handler of
+    /// the channel.
+    ///
+    /// @param  channel java.lang.String    The channel name, taken literally
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Void>  Completes when the server has the subscription
+    public synchronized CompletableFuture<Void> subscribe(final String channel, final ChannelHandler handler) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(channel, handler));
+        }
+
+        this.router.register(channel, handler);
+
+        final CompletableFuture<Void> future = this.reference(this.channels, this.unsentChannels, "SUBSCRIBE", channel);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(future));
+        }
+
+        return future;
+    }
+
+    /// Subscribe a handler to a pattern. The server
+    /// is only told when this is the first handler of
+    /// the pattern.
+    ///
+    /// @param  pattern java.lang.String    A PSUBSCRIBE glob
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Void>  Completes when the server has the subscription
+    public synchronized CompletableFuture<Void> psubscribe(final String pattern, final ChannelHandler handler) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(pattern, handler));
+        }
+
+        this.router.registerPattern(pattern, handler);
+
+        final CompletableFuture<Void> future = this.reference(this.patterns, this.unsentPatterns, "PSUBSCRIBE", pattern);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(future));
+        }
+
+        return future;
+    }
+
+    /// Unsubscribe a handler from a channel. The
+    /// server is only told when this was the last
+    /// handler of the channel.
+    ///
+    /// @param  channel java.lang.String
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Void>
+    public synchronized CompletableFuture<Void> unsubscribe(final String channel, final ChannelHandler handler) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(channel, handler));
+        }
+
+        final CompletableFuture<Void> future = this.router.unregister(channel, handler)
+                ? this.release(this.channels, this.unsentChannels, "UNSUBSCRIBE", channel)
+                : CompletableFuture.completedFuture(null);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(future));
+        }
+
+        return future;
+    }
+
+    /// Unsubscribe a handler from a pattern. The
+    /// server is only told when this was the last
+    /// handler of the pattern.
+    ///
+    /// @param  pattern java.lang.String
+    /// @param  handler net.jmp.spring.boot.valkey.ChannelHandler
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Void>
+    public synchronized CompletableFuture<Void> punsubscribe(final String pattern, final ChannelHandler handler) {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entryWith(pattern, handler));
+        }
+
+        final CompletableFuture<Void> future = this.router.unregisterPattern(pattern, handler)
+                ? this.release(this.patterns, this.unsentPatterns, "PUNSUBSCRIBE", pattern)
+                : CompletableFuture.completedFuture(null);
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exitWith(future));
+        }
+
+        return future;
+    }
+
+    /// Return the channels subscribed to.
+    ///
+    /// @return java.util.Set<java.lang.String>
+    public synchronized Set<String> getChannels() {
+        return Set.copyOf(this.channels.keySet());
+    }
+
+    /// Return the patterns subscribed to.
+    ///
+    /// @return java.util.Set<java.lang.String>
+    public synchronized Set<String> getPatterns() {
+        return Set.copyOf(this.patterns.keySet());
+    }
+
+    /// Return the number of times the subscriptions were sent again.
+    ///
+    /// @return long
+    public long getResubscribes() {
+        return this.resubscribes.sum();
+    }
+
+    /// Return the router of the subscriber's messages.
+    ///
+    /// @return net.jmp.spring.boot.valkey.ChannelRouter
+    public ChannelRouter getRouter() {
+        return this.router;
+    }
+
+    /// Stop checking the connection. The subscriber
+    /// is closed by the lifecycle once the work in
+    /// flight has drained.
+    @PreDestroy
+    public void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    /// Count a handler of a channel or pattern and
+    /// subscribe to it if it is the first, or if its
+    /// subscription has not yet succeeded.
+    ///
+    /// @param  references  java.util.Map<java.lang.String, java.lang.Integer>
+    /// @param  unsent      java.util.Set<java.lang.String>    The names whose subscription failed
+    /// @param  command     java.lang.String
+    /// @param  name        java.lang.String
+    /// @return             java.util.concurrent.CompletableFuture<java.lang.Void>
+    private CompletableFuture<Void> reference(final Map<String, Integer> references,
+                                              final Set<String> unsent,
+                                              final String command,
+                                              final String name) {
+        return references.merge(name, 1, Integer::sum) == 1 || unsent.contains(name)
+                ? this.subscribe(references, unsent, command, name)
+                : CompletableFuture.completedFuture(null);
+    }
+
+    /// Uncount a handler of a channel or pattern and
+    /// unsubscribe from it if it was the last.
+    ///
+    /// @param  references  java.util.Map<java.lang.String, java.lang.Integer>
+    /// @param  unsent      java.util.Set<java.lang.String>    The names whose subscription failed
+    /// @param  command     java.lang.String
+    /// @param  name        java.lang.String
+    /// @return             java.util.concurrent.CompletableFuture<java.lang.Void>
+    private CompletableFuture<Void> release(final Map<String, Integer> references,
+                                            final Set<String> unsent,
+                                            final String command,
+                                            final String name) {
+        if (references.computeIfPresent(name, (key, count) -> count == 1 ? null : count - 1) != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        unsent.remove(name);
+
+        return this.send(command, name);
+    }
+
+    /// Send a subscription and, if it fails while the
+    /// name still has handlers, remember it so that
+    /// it is sent again. Called while holding the lock.
+    ///
+    /// @param  references  java.util.Map<java.lang.String, java.lang.Integer>
+    /// @param  unsent      java.util.Set<java.lang.String>    The names whose subscription failed
+    /// @param  command     java.lang.String                   SUBSCRIBE or PSUBSCRIBE
+    /// @param  name        java.lang.String
+    /// @return             java.util.concurrent.CompletableFuture<java.lang.Void>
+    private CompletableFuture<Void> subscribe(final Map<String, Integer> references,
+                                              final Set<String> unsent,
+                                              final String command,
+                                              final String name) {
+        unsent.remove(name);
+
+        return this.send(command, name).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                synchronized (this) {
+                    if (references.containsKey(name)) {
+                        unsent.add(name);
+                    }
+                }
+            }
+        });
+    }
+
+    /// Send a subscription command, connecting the
+    /// subscriber first if needed. Called while
+    /// holding the lock, so commands reach the server
+    /// in the order the calls were made.
+    ///
+    /// @param  command java.lang.String    For example SUBSCRIBE
+    /// @param  name    java.lang.String    The channel or pattern
+    /// @return         java.util.concurrent.CompletableFuture<java.lang.Void>
+    private CompletableFuture<Void> send(final String command, final String name) {
+        final GlideClient client;
+
+        try {
+            client = this.subscriber();
+        } catch (final RuntimeException e) {
+            this.logger.warn("{} {} failed: {}", command, name, e.getMessage());
+
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return client.customCommand(new GlideString[] { KeyTemplate.intern(command), gs(name) })
+                .whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        this.logger.warn("{} {} failed: {}", command, name, throwable.getMessage());
+                    } else if (this.logger.isDebugEnabled()) {
+                        this.logger.debug("{} {}", command, name);
+                    }
+                })
+                .thenApply(result -> null);
+    }
+
+    /// Return the subscriber, connecting it and
+    /// starting the connection checks the first time.
+    ///
+    /// @return glide.api.GlideClient
+    private GlideClient subscriber() {
+        if (this.subscriber == null) {
+            final StandaloneSubscriptionConfiguration pubSubConfig = StandaloneSubscriptionConfiguration.builder()
+                    .subscription(EXACT, gs(this.controlChannel))
+                    .callback(this.router)
+                    .build();
+
+            this.subscriber = this.lifecycle.register(this.glideClientFactory.connect(pubSubConfig));
+            this.connectionId = this.connectionId(this.subscriber);
+
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("valkey-subscriptions")
+                    .daemon(true)
+                    .factory());
+
+            this.scheduler.scheduleWithFixedDelay(this::check, this.checkSeconds, this.checkSeconds, TimeUnit.SECONDS);
+        }
+
+        return this.subscriber;
+    }
+
+    /// Send every subscription again if the
+    /// subscriber's connection has been replaced, or
+    /// else the subscriptions that failed.
+    private void check() {
+        final long id = this.connectionId(this.subscriber);    // Not while holding the lock
+
+        synchronized (this) {
+            final boolean reconnected = id != 0 && id != this.connectionId;
+
+            if (reconnected) {
+                this.logger.info("Subscriber reconnected; restoring {} subscriptions",
+                        this.channels.size() + this.patterns.size());
+
+                this.connectionId = id;
+                this.resubscribes.increment();
+            }
+
+            for (final String channel : Set.copyOf(reconnected ? this.channels.keySet() : this.unsentChannels)) {
+                this.subscribe(this.channels, this.unsentChannels, "SUBSCRIBE", channel);
+            }
+
+            for (final String pattern : Set.copyOf(reconnected ? this.patterns.keySet() : this.unsentPatterns)) {
+                this.subscribe(this.patterns, this.unsentPatterns, "PSUBSCRIBE", pattern);
+            }
+        }
+    }
+
+    /// Return the id of a client's connection.
+    ///
+    /// @param  client  glide.api.GlideClient
+    /// @return         long    The id or zero when it cannot be read
+    private long connectionId(final GlideClient client) {
+        try {
+            return ((Number) Objects.requireNonNull(client.customCommand(new String[] { "CLIENT", "ID" })
+                    .get(this.checkSeconds, TimeUnit.SECONDS))).longValue();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | TimeoutException e) {
+            this.logger.warn("Unable to read the subscriber's connection id: {}", e.getMessage());
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,107 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)TimeBucket.java     0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import java.time.format.DateTimeFormatter;
+
+import java.time.temporal.ChronoUnit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// The time bucket enumeration. A bucket is the
+/// span of time one counter key covers; its label,
+/// the start of the span in UTC, is the last part
+/// of the key. The labels of each bucket have a
+/// different length, so a day's rollup never
+/// collides with one of its hours.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public enum TimeBucket {
+    /// A minute.
+    MINUTE(ChronoUnit.MINUTES, "yyyyMMddHHmm"),
+
+    /// An hour.
+    HOUR(ChronoUnit.HOURS, "yyyyMMddHH"),
+
+    /// A day.
+    DAY(ChronoUnit.DAYS, "yyyyMMdd");
+
+    /// The unit of the span.
+    private final ChronoUnit unit;
+
+    /// The formatter of the labels.
+    private final DateTimeFormatter formatter;
+
+    /// The constructor.
+    ///
+    /// @param  unit    java.time.temporal.ChronoUnit
+    /// @param  pattern java.lang.String
+    TimeBucket(final ChronoUnit unit, final String pattern) {
+        this.unit = unit;
+        this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(ZoneOffset.UTC);
+    }
+
+    /// Return the label of the bucket that holds an instant.
+    ///
+    /// @param  instant java.time.Instant
+    /// @return         java.lang.String
+    public String label(final Instant instant) {
+        return this.formatter.format(instant);
+    }
+
+    /// Return the labels of the buckets from the one
+    /// that holds the start to the one that holds the
+    /// end, inclusive.
+    ///
+    /// @param  from    java.time.Instant
+    /// @param  to      java.time.Instant
+    /// @return         java.util.List<java.lang.String>
+    public List<String> labels(final Instant from, final Instant to) {
+        final List<String> labels = new ArrayList<>();
+
+        for (Instant instant = from.truncatedTo(this.unit); !instant.isAfter(to); instant = instant.plus(this.getDuration())) {
+            labels.add(this.label(instant));
+        }
+
+        return labels;
+    }
+
+    /// Return the length of the span.
+    ///
+    /// @return java.time.Duration
+    public Duration getDuration() {
+        return this.unit.getDuration();
+    }
+}
@@ -0,0 +1,139 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)TypedChannelHandler.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.PubSubMessage;
+
+import java.nio.ByteBuffer;
+
+import java.util.List;
+
+/// The typed channel handler class. It adapts a
+/// [PayloadHandler] to a [ChannelHandler] so it
+/// can be registered with a [ChannelRouter] or the
+/// [SubscriptionManager].
+///
+/// The payload is read straight from the bytes of
+/// the message's `GlideString` and is only decoded
+/// when the handler asks for it. A framed handler
+/// takes each message as a batch of events, each a
+/// four byte big-endian length followed by that
+/// many bytes, the same framing the bulk importer
+/// reads; use [#frame(List)] to build one. A
+/// [MessageEnvelope] before the payload or batch is
+/// skipped.
+///
+/// @param  <T> The type of payload
+/// @version    0.4.0
+/// @since      0.4.0
+public class TypedChannelHandler<T> implements ChannelHandler {
+    /// The length of a frame header.
+    private static final int FRAME_HEADER = Integer.BYTES;
+
+    /// The codec.
+    private final PayloadCodec<T> codec;
+
+    /// True when messages are framed batches.
+    private final boolean framed;
+
+    /// The payload handler.
+    private final PayloadHandler<T> handler;
+
+    /// The constructor.
+    ///
+    /// @param  codec   net.jmp.spring.boot.valkey.PayloadCodec<T>
+    /// @param  framed  boolean     True when messages are framed batches
+    /// @param  handler net.jmp.spring.boot.valkey.PayloadHandler<T>
+    public TypedChannelHandler(final PayloadCodec<T> codec,
+                               final boolean framed,
+                               final PayloadHandler<T> handler) {
+        super();
+
+        this.codec = codec;
+        this.framed = framed;
+        this.handler = handler;
+    }
+
+    /// Handle a message, passing its payload or
+    /// each event of its batch to the handler.
+    ///
+    /// @param  message glide.api.models.PubSubMessage
+    /// @param  context java.lang.Object
+    /// @throws         net.jmp.spring.boot.valkey.CodecException   When a batch is truncated
+    @Override
+    public void handle(final PubSubMessage message, final Object context) {
+        final byte[] bytes = message.getMessage().getBytes();
+
+        int offset = MessageEnvelope.payloadOffset(bytes);
+
+        if (!this.framed) {
+            this.handler.handle(new LazyPayload<>(message.getChannel(), bytes, offset, bytes.length - offset, this.codec));
+
+            return;
+        }
+
+        while (offset < bytes.length) {
+            if (bytes.length - offset < FRAME_HEADER) {
+                throw new CodecException("Truncated frame header at " + offset);
+            }
+
+            final int length = ByteBuffer.wrap(bytes, offset, FRAME_HEADER).getInt();
+
+            offset += FRAME_HEADER;
+
+            if (length < 0 || length > bytes.length - offset) {
+                throw new CodecException("Frame of " + length + " bytes at " + offset + " exceeds the message");
+            }
+
+            this.handler.handle(new LazyPayload<>(message.getChannel(), bytes, offset, length, this.codec));
+
+            offset += length;
+        }
+    }
+
+    /// Frame events into one batch message.
+    ///
+    /// @param  events  java.util.List<byte[]>
+    /// @return         byte[]
+    public static byte[] frame(final List<byte[]> events) {
+        int size = 0;
+
+        for (final byte[] event : events) {
+            size += FRAME_HEADER + event.length;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        for (final byte[] event : events) {
+            buffer.putInt(event.length).put(event);
+        }
+
+        return buffer.array();
+    }
+}
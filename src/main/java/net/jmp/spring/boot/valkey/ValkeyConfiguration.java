@@ -0,0 +1,84 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ValkeyConfiguration.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.boot.autoconfigure.gson.GsonBuilderCustomizer;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/// The Valkey configuration class. It provides
+/// the long-lived Glide client that is shared
+/// by the application's Valkey-backed components,
+/// and registers the domain model's streaming
+/// adapters with the auto-configured Gson.
+/// The demonstration in the Valkey service still
+/// creates and closes its own clients.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Configuration
+public class ValkeyConfiguration {
+    /// The default constructor.
+    public ValkeyConfiguration() {
+        super();
+    }
+
+    /// Create the shared Glide client.
+    ///
+    /// @param  glideClientFactory  net.jmp.spring.boot.valkey.GlideClientFactory
+    /// @return                     glide.api.GlideClient
+    @Bean(destroyMethod = "close")
+    public GlideClient glideClient(final GlideClientFactory glideClientFactory) {
+        return glideClientFactory.connect(null);
+    }
+
+    /// Create the value codec used by the
+    /// application's Valkey-backed components.
+    ///
+    /// @param  codecName   java.lang.String    Either kryo or java
+    /// @return             net.jmp.spring.boot.valkey.ValueCodec
+    @Bean
+    public ValueCodec valueCodec(@Value("${valkey.codec:kryo}") final String codecName) {
+        return ValueCodec.forName(codecName);
+    }
+
+    /// Register the streaming type adapters of the
+    /// domain model with the application's Gson.
+    ///
+    /// @return org.springframework.boot.autoconfigure.gson.GsonBuilderCustomizer
+    @Bean
+    public GsonBuilderCustomizer domainTypeAdapters() {
+        return builder -> builder.registerTypeAdapterFactory(new DomainTypeAdapterFactory());
+    }
+}
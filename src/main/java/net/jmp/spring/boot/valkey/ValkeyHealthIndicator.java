@@ -0,0 +1,131 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ValkeyHealthIndicator.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import org.springframework.stereotype.Component;
+
+/// The Valkey health indicator class. It reports
+/// the state measured by the [LatencyProbe]:
+///
+/// * `DOWN` when the last few pings failed or
+///   none has succeeded recently,
+/// * `DEGRADED` when the rolling 99th percentile
+///   round-trip time or the replication lag in
+///   bytes is over its threshold, or a replica's
+///   link to its primary is down,
+/// * `UP` otherwise, and
+/// * `UNKNOWN` when the probe is disabled or has
+///   not completed a ping yet.
+///
+/// Map `DEGRADED` to a 503 with
+/// `management.endpoint.health.status.http-mapping`
+/// so load balancers steer away from a slow
+/// instance before it fails outright.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class ValkeyHealthIndicator implements HealthIndicator {
+    /// The degraded status.
+    public static final Status DEGRADED = new Status("DEGRADED", "Valkey is responding slowly");
+
+    /// The latency probe.
+    private final LatencyProbe probe;
+
+    /// The number of consecutive failed pings that mark the server down.
+    @Value("${valkey.health.downAfterFailures:3}")
+    private int downAfterFailures;
+
+    /// The age in milliseconds of the last successful ping that marks the server down.
+    @Value("${valkey.health.staleMillis:10000}")
+    private long staleMillis;
+
+    /// The 99th percentile round-trip time in milliseconds that marks the server degraded.
+    @Value("${valkey.health.degradedRttMillis:25}")
+    private double degradedRttMillis;
+
+    /// The replication lag in bytes that marks the server degraded.
+    @Value("${valkey.health.degradedReplicationLagBytes:1048576}")
+    private double degradedReplicationLagBytes;
+
+    /// The constructor.
+    ///
+    /// @param  probe   net.jmp.spring.boot.valkey.LatencyProbe
+    public ValkeyHealthIndicator(final LatencyProbe probe) {
+        super();
+
+        this.probe = probe;
+    }
+
+    /// Return the health of the server.
+    ///
+    /// @return org.springframework.boot.actuate.health.Health
+    @Override
+    public Health health() {
+        if (!this.probe.isEnabled()) {
+            return Health.unknown().withDetail("probe", "disabled").build();
+        }
+
+        final long lastSuccessMillis = this.probe.getLastSuccessMillis();
+        final Health.Builder builder;
+
+        if (this.probe.getConsecutiveFailures() >= this.downAfterFailures
+                || (lastSuccessMillis > 0 && System.currentTimeMillis() - lastSuccessMillis > this.staleMillis)) {
+            builder = Health.down().withDetail("error", String.valueOf(this.probe.getLastError()));
+        } else if (lastSuccessMillis == 0) {
+            builder = Health.unknown();
+        } else if (this.probe.getRttMillis(99.0) > this.degradedRttMillis
+                || this.probe.getReplicationLagBytes() > this.degradedReplicationLagBytes
+                || this.probe.getReplicationLinkUp() == 0.0) {
+            builder = Health.status(DEGRADED);
+        } else {
+            builder = Health.up();
+        }
+
+        return builder
+                .withDetail("consecutiveFailures", this.probe.getConsecutiveFailures())
+                .withDetail("rttSamples", this.probe.getRttSamples())
+                .withDetail("rttP50Millis", this.probe.getRttMillis(50.0))
+                .withDetail("rttP99Millis", this.probe.getRttMillis(99.0))
+                .withDetail("rttMaxMillis", this.probe.getRttMillis(100.0))
+                .withDetail("role", this.probe.getRole())
+                .withDetail("usedMemory", this.probe.getUsedMemory())
+                .withDetail("opsPerSecond", this.probe.getOpsPerSecond())
+                .withDetail("connectedClients", this.probe.getConnectedClients())
+                .withDetail("replicationLagBytes", this.probe.getReplicationLagBytes())
+                .withDetail("replicationLinkUp", this.probe.getReplicationLinkUp())
+                .build();
+    }
+}
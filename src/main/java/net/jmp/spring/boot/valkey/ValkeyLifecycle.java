@@ -0,0 +1,402 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ValkeyLifecycle.java  0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.PubSubMessage;
+
+import glide.api.models.configuration.BaseSubscriptionConfiguration;
+
+import java.time.Duration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import java.util.function.Supplier;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.context.SmartLifecycle;
+
+import org.springframework.stereotype.Component;
+
+/// The Valkey lifecycle class. It coordinates the
+/// shutdown of the application's Valkey work.
+///
+/// Commands submitted through it, operations run
+/// through it and pub/sub messages handled by its
+/// callbacks are counted while in flight. When the
+/// context closes it stops accepting new commands,
+/// waits up to
+/// `valkey.shutdown.drainSeconds` for the count
+/// to reach zero, and then closes the subscriber
+/// clients registered with it. The shared client
+/// is closed afterwards, when its bean is
+/// destroyed.
+///
+/// A command submitted or an operation run while
+/// an operation is running on the same thread is
+/// accepted even after the stop, so an operation
+/// that was accepted is not cut off half way.
+///
+/// Keep the drain time below Spring's
+/// `spring.lifecycle.timeout-per-shutdown-phase`.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class ValkeyLifecycle implements SmartLifecycle {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The number of commands and handlers in flight.
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /// The lock waited on while draining.
+    private final Object drained = new Object();
+
+    /// The number of operations running on each thread.
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    /// The subscriber clients to close, most recent first.
+    private final Deque<GlideClient> subscribers = new ArrayDeque<>();
+
+    /// True while new commands are accepted.
+    private volatile boolean running;
+
+    /// The longest time in seconds to wait for work in flight.
+    @Value("${valkey.shutdown.drainSeconds:20}")
+    private long drainSeconds;
+
+    /// The default constructor.
+    public ValkeyLifecycle() {
+        super();
+    }
+
+    /// Start accepting commands.
+    @Override
+    public void start() {
+        this.running = true;
+    }
+
+    /// Stop accepting commands, drain the work in
+    /// flight and close the subscriber clients.
+    @Override
+    public void stop() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        this.running = false;
+
+        this.logger.info("Draining {} Valkey operations in flight", this.inFlight.get());
+
+        if (this.awaitIdle(Duration.ofSeconds(this.drainSeconds))) {
+            this.logger.info("Valkey operations drained");
+        } else {
+            this.logger.warn("{} Valkey operations still in flight after {} seconds",
+                    this.inFlight.get(),
+                    this.drainSeconds);
+        }
+
+        synchronized (this.subscribers) {
+            while (!this.subscribers.isEmpty()) {
+                final GlideClient subscriber = this.subscribers.pop();
+
+                try {
+                    subscriber.close();
+                } catch (final ExecutionException e) {
+                    this.logger.warn("Unable to close a subscriber: {}", e.getMessage(), e);
+                }
+            }
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Tell if commands are accepted.
+    ///
+    /// @return boolean
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /// Send a command and count it until it completes.
+    ///
+    /// @param  <T>     The type of result
+    /// @param  command java.util.function.Supplier<java.util.concurrent.CompletableFuture<T>>
+    /// @return         java.util.concurrent.CompletableFuture<T>
+    /// @throws         java.util.concurrent.RejectedExecutionException When shutting down
+    public <T> CompletableFuture<T> submit(final Supplier<CompletableFuture<T>> command) {
+        this.enter();
+
+        final CompletableFuture<T> future;
+
+        try {
+            future = this.inOperation(command);
+        } catch (final RuntimeException e) {
+            this.done();
+            throw e;
+        }
+
+        future.whenComplete((result, throwable) -> this.done());
+
+        return future;
+    }
+
+    /// Run a blocking operation and count it while
+    /// it runs. The commands it sends on this thread
+    /// are accepted until it returns.
+    ///
+    /// @param  <T>         The type of result
+    /// @param  operation   java.util.function.Supplier<T>
+    /// @return             T
+    /// @throws             java.util.concurrent.RejectedExecutionException When shutting down
+    public <T> T call(final Supplier<T> operation) {
+        this.enter();
+
+        try {
+            return this.inOperation(operation);
+        } finally {
+            this.done();
+        }
+    }
+
+    /// Run a blocking operation that returns nothing
+    /// and count it while it runs.
+    ///
+    /// @param  operation   java.lang.Runnable
+    /// @throws             java.util.concurrent.RejectedExecutionException When shutting down
+    public void run(final Runnable operation) {
+        this.call(() -> {
+            operation.run();
+
+            return null;
+        });
+    }
+
+    /// Wrap a pub/sub callback so that messages
+    /// being handled are drained at shutdown.
+    ///
+    /// @param  callback    glide.api.models.configuration.BaseSubscriptionConfiguration.MessageCallback
+    /// @return             net.jmp.spring.boot.valkey.ValkeyLifecycle.TrackedCallback
+    public TrackedCallback track(final BaseSubscriptionConfiguration.MessageCallback callback) {
+        return new TrackedCallback(callback);
+    }
+
+    /// Register a subscriber client to be closed
+    /// once the work in flight has drained.
+    ///
+    /// @param  subscriber  glide.api.GlideClient
+    /// @return             glide.api.GlideClient   The subscriber
+    public GlideClient register(final GlideClient subscriber) {
+        synchronized (this.subscribers) {
+            this.subscribers.push(subscriber);
+        }
+
+        return subscriber;
+    }
+
+    /// Unregister a subscriber client that the
+    /// caller has closed itself.
+    ///
+    /// @param  subscriber  glide.api.GlideClient
+    public void unregister(final GlideClient subscriber) {
+        synchronized (this.subscribers) {
+            this.subscribers.remove(subscriber);
+        }
+    }
+
+    /// Get the number of commands and handlers in flight.
+    ///
+    /// @return long
+    public long getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /// Wait until nothing is in flight.
+    ///
+    /// @param  timeout java.time.Duration
+    /// @return         boolean     True if nothing is in flight
+    public boolean awaitIdle(final Duration timeout) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+
+        synchronized (this.drained) {
+            try {
+                while (this.inFlight.get() > 0) {
+                    final long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0) {
+                        return false;
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(this.drained, remaining);
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /// Count up one operation, unless shutting down
+    /// and not within an operation on this thread.
+    private void enter() {
+        /* Count first and check after, so a stop that sees nothing in flight has been seen by this check */
+
+        this.inFlight.incrementAndGet();
+
+        if (!this.running && this.depth.get()[0] == 0) {
+            this.done();
+
+            throw new RejectedExecutionException("Valkey is shutting down");
+        }
+    }
+
+    /// Get a value while marking this thread as
+    /// within an operation.
+    ///
+    /// @param  <T>         The type of value
+    /// @param  supplier    java.util.function.Supplier<T>
+    /// @return             T
+    private <T> T inOperation(final Supplier<T> supplier) {
+        final int[] count = this.depth.get();
+
+        count[0]++;
+
+        try {
+            return supplier.get();
+        } finally {
+            count[0]--;
+        }
+    }
+
+    /// Count down one operation.
+    private void done() {
+        if (this.inFlight.decrementAndGet() == 0) {
+            synchronized (this.drained) {
+                this.drained.notifyAll();
+            }
+        }
+    }
+
+    /// A pub/sub callback whose messages are counted
+    /// while they are handled.
+    public final class TrackedCallback implements BaseSubscriptionConfiguration.MessageCallback {
+        /// The callback.
+        private final BaseSubscriptionConfiguration.MessageCallback callback;
+
+        /// The number of messages handled.
+        private final AtomicLong handled = new AtomicLong();
+
+        /// A constructor.
+        ///
+        /// @param  callback    glide.api.models.configuration.BaseSubscriptionConfiguration.MessageCallback
+        private TrackedCallback(final BaseSubscriptionConfiguration.MessageCallback callback) {
+            super();
+
+            this.callback = callback;
+        }
+
+        /// Handle a message.
+        ///
+        /// @param  message glide.api.models.PubSubMessage
+        /// @param  context java.lang.Object
+        @Override
+        public void accept(final PubSubMessage message, final Object context) {
+            ValkeyLifecycle.this.inFlight.incrementAndGet();
+
+            try {
+                this.callback.accept(message, context);
+            } finally {
+                this.handled.incrementAndGet();
+                ValkeyLifecycle.this.done();
+
+                synchronized (this) {
+                    this.notifyAll();
+                }
+            }
+        }
+
+        /// Get the number of messages handled.
+        ///
+        /// @return long
+        public long getHandled() {
+            return this.handled.get();
+        }
+
+        /// Wait until a number of messages have been handled.
+        ///
+        /// @param  count   long
+        /// @param  timeout java.time.Duration
+        /// @return         boolean     True if they were
+        public boolean awaitHandled(final long count, final Duration timeout) {
+            final long deadline = System.nanoTime() + timeout.toNanos();
+
+            synchronized (this) {
+                try {
+                    while (this.handled.get() < count) {
+                        final long remaining = deadline - System.nanoTime();
+
+                        if (remaining <= 0) {
+                            return false;
+                        }
+
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.jmp.spring.boot.valkey;
 
 /*
+ * (#)ValkeyService.java    0.4.0   10/19/2026
  * (#)ValkeyService.java    0.3.0   05/17/2025
  * (#)ValkeyService.java    0.2.0   05/05/2025
  * (#)ValkeyService.java    0.1.0   05/01/2025
@@ -31,10 +32,13 @@ package net.jmp.spring.boot.valkey;
  */
 
 import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.KryoException;
 
 import com.esotericsoftware.kryo.kryo5.io.Input;
 import com.esotericsoftware.kryo.kryo5.io.Output;
 
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+
 import com.google.gson.Gson;
 
 import glide.api.GlideClient;
@@ -50,22 +54,33 @@ import glide.api.models.commands.RangeOptions;
 import glide.api.models.commands.ScoreFilter;
 
 import glide.api.models.configuration.BaseSubscriptionConfiguration;
-import glide.api.models.configuration.GlideClientConfiguration;
-import glide.api.models.configuration.NodeAddress;
 import glide.api.models.configuration.StandaloneSubscriptionConfiguration;
 
 import static glide.api.models.configuration.StandaloneSubscriptionConfiguration.PubSubChannelMode.EXACT;
+import static glide.api.models.configuration.StandaloneSubscriptionConfiguration.PubSubChannelMode.PATTERN;
+
+import static glide.api.models.commands.geospatial.GeoUnit.KILOMETERS;
+import static glide.api.models.commands.geospatial.GeoUnit.MILES;
 
 import java.io.*;
 
+import java.nio.ByteBuffer;
+
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
+import java.time.Duration;
+import java.time.Instant;
+
 import java.util.*;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import java.util.function.Supplier;
 
 import static net.jmp.util.logging.LoggerUtils.*;
 
@@ -78,7 +93,7 @@ import org.springframework.stereotype.Service;
 
 /// The Valkey service class.
 ///
-/// @version    0.3.0
+/// @version    0.4.0
 /// @since      0.1.0
 ///
 /// Data types to get acquainted with:
@@ -94,21 +109,47 @@ public class ValkeyService {
     /// The logger.
     private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
-    /// The Glide client name.
-    @Value("${glide.client.name}")
-    private String glideClientName;
+    /// The Glide client factory.
+    private final GlideClientFactory glideClientFactory;
+
+    /// The script registry.
+    private final ScriptRegistry scriptRegistry;
+
+    /// The person repository.
+    private final PersonRepository personRepository;
+
+    /// The Valkey lifecycle.
+    private final ValkeyLifecycle lifecycle;
+
+    /// The subscription manager.
+    private final SubscriptionManager subscriptionManager;
+
+    /// The envelope publisher.
+    private final EnvelopePublisher envelopePublisher;
+
+    /// The pub/sub metrics.
+    private final PubSubMetrics pubSubMetrics;
 
-    /// The Glide host.
-    @Value("${glide.host}")
-    private String glideHost;
+    /// The Bloom filters.
+    private final BloomFilters bloomFilters;
 
-    /// The Glide port.
-    @Value("${glide.port}")
-    private int glidePort;
+    /// The unique counter.
+    private final UniqueCounter uniqueCounter;
 
-    /// True when using SSL with Glide.
-    @Value("${glide.useSsl}")
-    private boolean glideUseSsl;
+    /// The counter aggregator.
+    private final CounterAggregator counterAggregator;
+
+    /// The address geo index.
+    private final AddressGeoIndex addressGeoIndex;
+
+    /// The person index.
+    private final PersonIndex personIndex;
+
+    /// The autocomplete.
+    private final Autocomplete autocomplete;
+
+    /// The slow command log.
+    private final SlowCommandLog slowCommandLog;
 
     /// Flush the database at the end when true.
     @Value("${glide.flushDb}")
@@ -119,17 +160,71 @@ public class ValkeyService {
     private boolean valkeyJsonSupported;
 
     /// The GSON object.
-    private final Gson gson = new Gson();
+    private final Gson gson;
 
     /// The Kryo object.
     private final Kryo kryo = new Kryo();
 
+    /// The pool of Kryo outputs, each with its own growable buffer.
+    private final Pool<Output> kryoOutputPool = new Pool<>(true, false) {
+        @Override
+        protected Output create() {
+            return new Output(1024, -1);
+        }
+    };
+
     /// The character set to use with Kryo.
     private final Charset kryoCharset = StandardCharsets.ISO_8859_1;    // UTF-8 does not work
 
-    /// The default constructor.
-    public ValkeyService() {
+    /// The constructor.
+    ///
+    /// @param  glideClientFactory  net.jmp.spring.boot.valkey.GlideClientFactory
+    /// @param  scriptRegistry      net.jmp.spring.boot.valkey.ScriptRegistry
+    /// @param  personRepository    net.jmp.spring.boot.valkey.PersonRepository
+    /// @param  gson                com.google.gson.Gson
+    /// @param  lifecycle           net.jmp.spring.boot.valkey.ValkeyLifecycle
+    /// @param  subscriptionManager net.jmp.spring.boot.valkey.SubscriptionManager
+    /// @param  envelopePublisher   net.jmp.spring.boot.valkey.EnvelopePublisher
+    /// @param  pubSubMetrics       net.jmp.spring.boot.valkey.PubSubMetrics
+    /// @param  bloomFilters        net.jmp.spring.boot.valkey.BloomFilters
+    /// @param  uniqueCounter       net.jmp.spring.boot.valkey.UniqueCounter
+    /// @param  counterAggregator   net.jmp.spring.boot.valkey.CounterAggregator
+    /// @param  addressGeoIndex     net.jmp.spring.boot.valkey.AddressGeoIndex
+    /// @param  personIndex         net.jmp.spring.boot.valkey.PersonIndex
+    /// @param  autocomplete        net.jmp.spring.boot.valkey.Autocomplete
+    /// @param  slowCommandLog      net.jmp.spring.boot.valkey.SlowCommandLog
+    public ValkeyService(final GlideClientFactory glideClientFactory,
+                         final ScriptRegistry scriptRegistry,
+                         final PersonRepository personRepository,
+                         final Gson gson,
+                         final ValkeyLifecycle lifecycle,
+                         final SubscriptionManager subscriptionManager,
+                         final EnvelopePublisher envelopePublisher,
+                         final PubSubMetrics pubSubMetrics,
+                         final BloomFilters bloomFilters,
+                         final UniqueCounter uniqueCounter,
+                         final CounterAggregator counterAggregator,
+                         final AddressGeoIndex addressGeoIndex,
+                         final PersonIndex personIndex,
+                         final Autocomplete autocomplete,
+                         final SlowCommandLog slowCommandLog) {
         super();
+
+        this.glideClientFactory = glideClientFactory;
+        this.scriptRegistry = scriptRegistry;
+        this.personRepository = personRepository;
+        this.gson = gson;
+        this.lifecycle = lifecycle;
+        this.subscriptionManager = subscriptionManager;
+        this.envelopePublisher = envelopePublisher;
+        this.pubSubMetrics = pubSubMetrics;
+        this.bloomFilters = bloomFilters;
+        this.uniqueCounter = uniqueCounter;
+        this.counterAggregator = counterAggregator;
+        this.addressGeoIndex = addressGeoIndex;
+        this.personIndex = personIndex;
+        this.autocomplete = autocomplete;
+        this.slowCommandLog = slowCommandLog;
     }
 
     /// The demo method.
@@ -140,6 +235,11 @@ public class ValkeyService {
 
         this.nonPubSub();
         this.pubSub(new PubSubCallback());  // The callback class is defined here so it does not go out of scope
+        this.subscriptions();
+        this.counters();
+        this.geo();
+        this.personQueries();
+        this.autocomplete();
 
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
@@ -154,7 +254,7 @@ public class ValkeyService {
             this.logger.trace(entry());
         }
 
-        try (final GlideClient glideClient = this.connect(null)) {
+        try (final GlideClient glideClient = this.glideClientFactory.connect(null)) {
             final CompletableFuture<Void> clientName = glideClient.clientGetName()
                     .thenAccept(name -> this.logger.info("CLIENT-NAME: {}", name));
 
@@ -172,7 +272,7 @@ public class ValkeyService {
                 this.logger.error("Glide execution waiting on futures: {}", e.getMessage(), e);
             }
 
-            completedFutures.thenRun(() -> {
+            final CompletableFuture<Void> commands = this.lifecycle.submit(() -> completedFutures.thenRun(() -> {
                 this.echoAndPing(glideClient);
                 this.getAndSet(glideClient);
                 this.getAndDelete(glideClient);
@@ -187,7 +287,13 @@ public class ValkeyService {
 
                 this.objects(glideClient);
                 this.cleanup(glideClient);
-            });
+            }));
+
+            try {
+                commands.join();    // Before the client is closed
+            } catch (final CompletionException e) {
+                this.logger.error("Glide execution running commands: {}", e.getMessage(), e);
+            }
         } catch (final ExecutionException e) {
             this.logger.error("Glide execution execution: {}", e.getMessage(), e);
         }
@@ -207,22 +313,40 @@ public class ValkeyService {
         }
 
         final String notificationsChannelName = "notifications";
-        final String newsChannelName = "news";
+        final String newsChannelName = "news.sports";
+        final String newsPattern = "news.*";
+
+        /* The server delivers once per subscription; the router hands each delivery to its subscription's handlers */
+
+        final ChannelRouter router = new ChannelRouter();
+
+        router.register(notificationsChannelName, callback::accept);
+        router.registerPattern(newsPattern, callback::accept);
+        router.registerPattern(newsPattern, (message, context) ->
+                this.logger.info("Received news on {}: {}", message.getChannel(), message.getMessage()));
+
+        final ValkeyLifecycle.TrackedCallback trackedCallback = this.lifecycle.track(router);
 
         final StandaloneSubscriptionConfiguration pubSubConfig = StandaloneSubscriptionConfiguration.builder()
                 .subscription(EXACT, gs(notificationsChannelName))
-                .subscription(EXACT, gs(newsChannelName))
-                .callback(callback, "my-context")   // The context is optional
+                .subscription(PATTERN, gs(newsPattern))
+                .callback(trackedCallback, "my-context")   // The context is optional
                 .build();
 
-        try (final GlideClient glideClient = this.connect(pubSubConfig)) {
+        try (final GlideClient glideClient = this.glideClientFactory.connect(pubSubConfig)) {
             glideClient.publish(gs("You are notified"), gs(notificationsChannelName))
                     .thenAccept(num -> this.logger.info("PUBLISH(You are notified, notifications): {}", num))
                     .join();
 
             glideClient.publish(gs("Some news"), gs(newsChannelName))
-                    .thenAccept(num -> this.logger.info("PUBLISH(Some news, news): {}", num))
+                    .thenAccept(num -> this.logger.info("PUBLISH(Some news, news.sports): {}", num))
                     .join();
+
+            /* Wait for both messages to be handled before the client is closed */
+
+            if (!trackedCallback.awaitHandled(2, Duration.ofSeconds(5))) {
+                this.logger.warn("Closing the subscriber with {} of 2 messages handled", trackedCallback.getHandled());
+            }
         } catch (final ExecutionException e) {
             this.logger.error("Glide execution execution: {}", e.getMessage(), e);
         }
@@ -232,68 +356,217 @@ public class ValkeyService {
         }
     }
 
-    /// Connect to Valkey using Glide.
-    ///
-    /// @param  pubSubconfig    glide.api.models.configuration.StandaloneSubscriptionConfiguration
-    /// @return                 glide.api.GlideClient                                                   The glide.api.GlideClient
-    /// @throws                 java.lang.RuntimeException  When the Glide client cannot be created
-    private GlideClient connect(final StandaloneSubscriptionConfiguration pubSubconfig) {
+    /// Demonstrate subscriptions added and removed
+    /// on the subscription manager's long-lived
+    /// subscriber.
+    private void subscriptions() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        final CountDownLatch received = new CountDownLatch(4);
+        final ChannelHandler alerts = (message, context) -> {
+            this.logger.info("Received alert on {}: {}", message.getChannel(), message.getMessage());
+            received.countDown();
+        };
+
+        /* Both handlers share the one PSUBSCRIBE */
+
+        this.subscriptionManager.psubscribe("alerts.*", alerts).join();
+        this.subscriptionManager.psubscribe("alerts.*", (message, context) -> received.countDown()).join();
+
+        /* Each message is an enveloped batch of persons in JSON, decoded from the message bytes */
+
+        final ChannelHandler persons = this.pubSubMetrics.instrument("persons",
+                new TypedChannelHandler<>(PayloadCodec.json(this.gson, Person.class),
+                        true,
+                        payload -> {
+                            this.logger.info("Received person: {}", payload.get().getFirstName());
+                            received.countDown();
+                        }));
+
+        this.subscriptionManager.subscribe("persons", persons).join();
+
+        try (final GlideClient glideClient = this.glideClientFactory.connect(null)) {
+            glideClient.publish(gs("Disk is full"), gs("alerts.disk")).join();
+
+            final List<byte[]> batch = new ArrayList<>();
+
+            for (final String firstName : List.of("Ada", "Grace")) {
+                final Person person = new Person();
+
+                person.setFirstName(firstName);
+                person.setLastName("Person");
+
+                batch.add(this.gson.toJson(person).getBytes(StandardCharsets.UTF_8));
+            }
+
+            this.envelopePublisher.publish("persons", TypedChannelHandler.frame(batch)).join();
+
+            if (!received.await(5, TimeUnit.SECONDS)) {
+                this.logger.warn("{} alerts were not received", received.getCount());
+            }
+        } catch (final ExecutionException e) {
+            this.logger.error("Glide execution execution: {}", e.getMessage(), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.subscriptionManager.punsubscribe("alerts.*", alerts).join();
+        this.subscriptionManager.unsubscribe("persons", persons).join();
+
+        this.logger.info("Subscribed channels: {} and patterns: {}",
+                this.subscriptionManager.getChannels(),
+                this.subscriptionManager.getPatterns());
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Demonstrate counters aggregated before they
+    /// are sent.
+    private void counters() {
         if (this.logger.isTraceEnabled()) {
-            this.logger.trace(entryWith(pubSubconfig));
-        }
-
-        GlideClientConfiguration config = null;
-
-        if (pubSubconfig == null) {
-            config =
-                    GlideClientConfiguration.builder()
-                            .address(NodeAddress.builder()
-                                    .host(this.glideHost)
-                                    .port(this.glidePort)
-                                    .build()
-                            )
-                            .clientName(this.glideClientName)
-                            .useTLS(this.glideUseSsl)
-                            .build();
-        } else {
-            config =
-                    GlideClientConfiguration.builder()
-                            .address(NodeAddress.builder()
-                                    .host(this.glideHost)
-                                    .port(this.glidePort)
-                                    .build()
-                            )
-                            .clientName(this.glideClientName)
-                            .useTLS(this.glideUseSsl)
-                            .subscriptionConfiguration(pubSubconfig)
-                            .build();
-        }
-
-        GlideClient glideClient = null;
+            this.logger.trace(entry());
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            this.counterAggregator.increment("page-views");
+            this.counterAggregator.add("tenant-ops", "tenant-" + (i % 4), 1);
+        }
 
         try {
-            glideClient = GlideClient.createClient(config).exceptionally(throwable -> {
-                this.logger.error("Glide client creation incurred an exception: {}", throwable.getMessage(), throwable);
-                return null;
-            }).get();
-        } catch (final ExecutionException | InterruptedException e) {
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-                this.logger.error("Glide client creation was interrupted: {}", e.getMessage(), e);
-            } else {
-                this.logger.error("Glide client creation incurred an execution exception: {}", e.getMessage(), e);
+            this.counterAggregator.flush().join();
+
+            this.counterAggregator.get("page-views")
+                    .thenAccept(num -> this.logger.info("GET(page-views): {}", num))
+                    .join();
+
+            this.logger.info("Sent {} increments in {} commands",
+                    this.counterAggregator.getIncrements(),
+                    this.counterAggregator.getCommands());
+        } catch (final CompletionException e) {
+            this.logger.error("Glide exception flushing counters: {}", e.getMessage(), e);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Demonstrate geo queries over the addresses
+    /// of persons.
+    private void geo() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        try {
+            this.personRepository.save("geo", this.newPerson());
+
+            /* Downtown Baltimore, one match per page */
+
+            AddressGeoIndex.Page page = this.addressGeoIndex.radius(-76.6122, 39.2904, 25, MILES, 0, 1).join();
+
+            this.logger.info("GEOSEARCH(BYRADIUS 25 mi): {}", page);
+
+            while (page.hasNext()) {
+                final int next = page.getOffset() + page.getMatches().size();
+
+                page = this.addressGeoIndex.radius(-76.6122, 39.2904, 25, MILES, next, 1).join();
+
+                this.logger.info("GEOSEARCH(BYRADIUS 25 mi): {}", page);
             }
+
+            this.logger.info("GEOSEARCH(BYBOX 20 x 10 km): {}",
+                    this.addressGeoIndex.box(-76.6122, 39.2904, 20, 10, KILOMETERS, 0, 10).join());
+            this.logger.info("GEOSEARCH(FROMMEMBER geo:1 BYRADIUS 20 km): {}",
+                    this.addressGeoIndex.near("geo", 1, 20, KILOMETERS, 0, 10).join());
+
+            this.personRepository.delete("geo");
+        } catch (final CompletionException e) {
+            this.logger.error("Glide exception querying addresses: {}", e.getMessage(), e);
         }
 
-        if (glideClient == null) {
-            throw new RuntimeException("Unable to create Glide client");
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
         }
+    }
 
+    /// Demonstrate queries over the secondary indexes
+    /// of persons.
+    private void personQueries() {
         if (this.logger.isTraceEnabled()) {
-            this.logger.trace(exitWith(glideClient));
+            this.logger.trace(entry());
+        }
+
+        final Person younger = this.newPerson();
+
+        younger.setFirstName("Jane");
+        younger.setAge(35);
+
+        try {
+            this.personRepository.save("query-1", this.newPerson());
+            this.personRepository.save("query-2", younger);
+
+            final PersonIndex.Query parkers = new PersonIndex.Query()
+                    .equal("lastName", "Parker")
+                    .equal("state", "MD", "VA");
+
+            this.logger.info("Persons named Parker in MD or VA: {}", this.personIndex.find(parkers).join());
+            this.logger.info("Count of them: {}", this.personIndex.count(parkers).join());
+            this.logger.info("Of them aged 30 to 40: {}",
+                    this.personIndex.find(parkers.between("age", 30, 40)).join());
+
+            this.personRepository.delete("query-1");
+            this.personRepository.delete("query-2");
+        } catch (final CompletionException e) {
+            this.logger.error("Glide exception querying persons: {}", e.getMessage(), e);
         }
 
-        return glideClient;
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Demonstrate completing the prefixes of names.
+    /// The persons saved by the other demonstrations
+    /// have already added theirs.
+    private void autocomplete() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        for (final String name : List.of("Abby", "Ace", "Bella", "Buddy", this.newAnimal().getName())) {
+            this.autocomplete.add("animal:name", name);
+        }
+
+        try {
+            this.autocomplete.flush().join();
+
+            this.logger.info("Completions of a: {}", this.autocomplete.complete("animal:name", "a", 10).join());
+
+            this.autocomplete.select("animal:name", "Ace").join();
+
+            this.logger.info("Ranked completions of a: {}",
+                    this.autocomplete.completeRanked("animal:name", "a", 10).join());
+            this.logger.info("Completions of ja: {}",
+                    this.autocomplete.complete(PersonRepository.FIRST_NAMES, "ja", 10).join());
+            this.logger.info("Completions of PAR: {}",
+                    this.autocomplete.complete(PersonRepository.LAST_NAMES, "PAR", 10).join());
+            this.logger.info("Completions of PAR again: {}",
+                    this.autocomplete.complete(PersonRepository.LAST_NAMES, "PAR", 10).join());
+            this.logger.info("Autocomplete cache hits {} and misses {}",
+                    this.autocomplete.getCacheHits(),
+                    this.autocomplete.getCacheMisses());
+        } catch (final CompletionException e) {
+            this.logger.error("Glide exception completing names: {}", e.getMessage(), e);
+        }
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
     }
 
     /// Cleanup the database.
@@ -306,12 +579,12 @@ public class ValkeyService {
 
         try {
             if (this.glideFlushDb) {
-                client.flushall()
+                this.timed("FLUSHALL", null, () -> client.flushall())
                         .thenAccept(str -> this.logger.info("FLUSH-ALL: {}", str))
                         .join();
             }
 
-            client.dbsize()
+            this.timed("DBSIZE", null, () -> client.dbsize())
                     .thenAccept(size -> this.logger.info("DB-SIZE: {}", size))
                     .join();
         } catch (final CompletionException e) {
@@ -331,10 +604,10 @@ public class ValkeyService {
             this.logger.trace(entryWith(client));
         }
 
-        final CompletableFuture<Void> ping = client.ping(gs("PING"))
+        final CompletableFuture<Void> ping = this.timed("PING", null, () -> client.ping(gs("PING")))
                 .thenAccept(str -> this.logger.info("PING: {}", str));
 
-        final CompletableFuture<Void> echo = client.echo(gs("Back at you"))
+        final CompletableFuture<Void> echo = this.timed("ECHO", null, () -> client.echo(gs("Back at you")))
                 .thenAccept(str -> this.logger.info("ECHO(Back at you): {}", str));
 
         try {
@@ -358,43 +631,46 @@ public class ValkeyService {
 
         final GlideString apples = gs("apples");
         final GlideString oranges = gs("oranges");
+        final BloomFilter keys = this.bloomFilters.filter("keys", 10_000, 0.01);
 
         try {
-            client.set(apples, oranges)
+            this.timed("SET", apples, () -> client.set(apples, oranges))
                     .thenAccept(str -> this.logger.info("SET(apples, oranges): {}", str))
                     .join();
 
-            client.get(apples)
+            keys.addAll(List.of(apples.getBytes(), oranges.getBytes())).join();
+
+            this.timed("GET", apples, () -> client.get(apples))
                     .thenAccept(str -> this.logger.info("GET(apples): {}", str))
                     .join();
 
-            client.get(oranges)
+            this.timed("GET", oranges, () -> client.get(oranges))
                     .thenAccept(str -> this.logger.info("GET(oranges): {}", str))
                     .join();
 
-            client.append(apples, gs(" and raisins"))
+            this.timed("APPEND", apples, () -> client.append(apples, gs(" and raisins")))
                     .thenAccept(num -> this.logger.info("APPEND(apples, and raisins): {}", num))
                     .join();
 
-            client.get(apples)
+            this.timed("GET", apples, () -> client.get(apples))
                     .thenAccept(str -> this.logger.info("GET(apples): {}", str))
                     .join();
 
-            client.copy(apples, oranges)
-                    .thenAccept(bool -> this.logger.info("COPY(apples, oranges): {}", bool))
+            this.scriptRegistry.invoke(client, ServerScript.COPY_AND_GET, new GlideString[] { apples, oranges }, new GlideString[0])
+                    .thenAccept(result -> this.logger.info("COPY-AND-GET(apples, oranges): {}", Arrays.toString((Object[]) result)))
                     .join();
 
-            client.get(oranges)
-                    .thenAccept(str -> this.logger.info("GET(oranges): {}", str))
-                    .join();
+            /* A key the filter has never seen cannot exist, so EXISTS is skipped */
 
-            client.exists(new GlideString[] { oranges })
-                    .thenAccept(num -> this.logger.info("EXISTS(oranges): {}", num))
-                    .join();
+            if (keys.mightContain(gs("lemons").getBytes()).join()) {
+                this.timed("EXISTS", gs("lemons"), () -> client.exists(new GlideString[] { gs("lemons") }))
+                        .thenAccept(num -> this.logger.info("EXISTS(lemons): {}", num))
+                        .join();
+            } else {
+                this.logger.info("BLOOM(lemons): not present");
+            }
 
-            client.exists(new GlideString[] { gs("lemons") })
-                    .thenAccept(num -> this.logger.info("EXISTS(lemons): {}", num))
-                    .join();
+            keys.delete().join();
         } catch (final CompletionException e) {
             this.logger.error("Glide exception handling keys: {}", e.getMessage(), e);
         }
@@ -416,23 +692,23 @@ public class ValkeyService {
         final GlideString myName = gs("my-name");
 
         try {
-            client.set(name, gs("Jonathan"))
+            this.timed("SET", name, () -> client.set(name, gs("Jonathan")))
                     .thenAccept(str -> this.logger.info("SET(name, Jonathan): {}", str))
                     .join();
 
-            client.get(name)
+            this.timed("GET", name, () -> client.get(name))
                     .thenAccept(str -> this.logger.info("GET(name): {}", str))
                     .join();
 
-            client.rename(name, myName)
+            this.timed("RENAME", name, () -> client.rename(name, myName))
                     .thenAccept(str -> this.logger.info("RENAME(name, my-name): {}", str))
                     .join();
 
-            client.getdel(myName)
+            this.timed("GETDEL", myName, () -> client.getdel(myName))
                     .thenAccept(str -> this.logger.info("GETDEL(my-name): {}", str))
                     .join();
 
-            client.get(myName)
+            this.timed("GET", myName, () -> client.get(myName))
                     .thenAccept(str -> this.logger.info("GET(my-name): {}", str))
                     .join();
         } catch (final CompletionException e) {
@@ -452,65 +728,63 @@ public class ValkeyService {
             this.logger.trace(entryWith(client));
         }
 
+        final GlideString myHash = KeyTemplate.intern("my-hash");
+        final GlideString firstName = KeyTemplate.intern("firstName");
+        final GlideString lastName = KeyTemplate.intern("lastName");
+
         final Map<GlideString, GlideString> map = Map.of(
-                gs("firstName"), gs("Jonathan"),
-                gs("lastName"), gs("Parker")
+                firstName, gs("Jonathan"),
+                lastName, gs("Parker")
         );
 
-        final GlideString myHash = gs("my-hash");
-
         try {
-            client.hset(myHash, map)
+            this.timed("HSET", myHash, () -> client.hset(myHash, map))
                     .thenAccept(num -> this.logger.info("HSET(my-hash, map): {}", num))
                     .join();
 
-            final CompletableFuture<GlideString[]> futureKeys = client.hkeys(myHash);
+            final CompletableFuture<GlideString[]> futureKeys = this.timed("HKEYS", myHash, () -> client.hkeys(myHash));
             final GlideString[] keys = futureKeys.join();
-            final GlideString lastName = gs("lastName");
 
             if (this.logger.isInfoEnabled()) {
                 this.logger.info("HKEYS(my-hash): {}", Arrays.toString(keys));      // Returns [firstName, lastName]
             }
 
-            client.hlen(myHash)
+            this.timed("HLEN", myHash, () -> client.hlen(myHash))
                     .thenAccept(num -> this.logger.info("HLEN(my-hash): {}", num))
                     .join();
 
-            client.hget(myHash, gs("firstName"))
+            this.timed("HGET", myHash, () -> client.hget(myHash, firstName))
                     .thenAccept(str -> this.logger.info("HGET(my-hash, firstName): {}", str))
                     .join();
 
-            client.hget(myHash, lastName)
+            this.timed("HGET", myHash, () -> client.hget(myHash, lastName))
                     .thenAccept(str -> this.logger.info("HGET(my-hash, lastName): {}", str))
                     .join();
 
-            client.hexists(myHash, lastName)
+            this.timed("HEXISTS", myHash, () -> client.hexists(myHash, lastName))
                     .thenAccept(bool -> this.logger.info("HEXISTS(my-hash, lastName): {}", bool))
                     .join();
 
-            client.hdel(myHash, new GlideString[]{ lastName })
+            this.timed("HDEL", myHash, () -> client.hdel(myHash, new GlideString[]{ lastName }))
                     .thenAccept(num -> this.logger.info("HDEL(my-hash, lastName): {}", num))
                     .join();
 
-            client.hget(myHash, lastName)
+            this.timed("HGET", myHash, () -> client.hget(myHash, lastName))
                     .thenAccept(str -> this.logger.info("HGET(my-hash, lastName): {}", str))
                     .join();
 
-            final CompletableFuture<Map<GlideString, GlideString>> futureGetAll = client.hgetall(myHash);
+            final CompletableFuture<Map<GlideString, GlideString>> futureGetAll = this.timed("HGETALL", myHash, () -> client.hgetall(myHash));
 
-            Map<GlideString, GlideString> returnedMap = futureGetAll.join();
+            final Map<GlideString, GlideString> returnedMap = futureGetAll.join();
 
             this.logger.info("HGETALL(my-hash): {}", returnedMap);
 
-            returnedMap.put(gs("spouse"), gs("Dena"));
-
-            client.hset(myHash, returnedMap)
-                    .thenAccept(num -> this.logger.info("HSET(my-hash, returnedMap): {}", num))
+            this.scriptRegistry.invoke(client,
+                            ServerScript.HASH_MERGE,
+                            new GlideString[] { myHash },
+                            new GlideString[] { KeyTemplate.intern("spouse"), gs("Dena") })
+                    .thenAccept(result -> this.logger.info("HASH-MERGE(my-hash, spouse, Dena): {}", Arrays.toString((Object[]) result)))
                     .join();
-
-            returnedMap = client.hgetall(myHash).join();
-
-            this.logger.info("HGETALL(my-hash): {}", returnedMap);
         } catch (final CompletionException e) {
             this.logger.error("Glide exception handling a hash: {}", e.getMessage(), e);
         }
@@ -534,64 +808,59 @@ public class ValkeyService {
         final GlideString[] myArray = new GlideString[] { gs("First"), gs("Second"), gs("Third") };
 
         try {
-            client.lpush(myList, myArray)
+            this.timed("LPUSH", myList, () -> client.lpush(myList, myArray))
                     .thenAccept(num -> this.logger.info("LPUSH: {}", num))
                     .join();
 
-            client.lset(myList, 0, gs("First element"))
+            this.timed("LSET", myList, () -> client.lset(myList, 0, gs("First element")))
                     .thenAccept(str -> this.logger.info("LSET: {}", str))
                     .join();
 
-            client.lset(myList, 1, gs("Second element"))
+            this.timed("LSET", myList, () -> client.lset(myList, 1, gs("Second element")))
                     .thenAccept(str -> this.logger.info("LSET: {}", str))
                     .join();
 
-            client.lset(myList, 2, thirdElement)
+            this.timed("LSET", myList, () -> client.lset(myList, 2, thirdElement))
                     .thenAccept(str -> this.logger.info("LSET: {}", str))
                     .join();
 
-            client.llen(myList)
+            this.timed("LLEN", myList, () -> client.llen(myList))
                     .thenAccept(num -> this.logger.info("LLEN(my-list): {}", num))
                     .join();
 
-            client.lindex(myList, 1)
+            this.timed("LINDEX", myList, () -> client.lindex(myList, 1))
                     .thenAccept(str -> this.logger.info("LINDEX(my-list, 1): {}", str))
                     .join();
 
-            client.lpos(myList, thirdElement)
+            this.timed("LPOS", myList, () -> client.lpos(myList, thirdElement))
                     .thenAccept(num -> this.logger.info("LPOS(my-list, Third element): {}", num))
                     .join();
 
-            client.linsert(myList,
+            this.timed("LINSERT", myList, () -> client.linsert(myList,
                             LInsertOptions.InsertPosition.AFTER,
                             thirdElement,
                             gs("Fourth element")
-                    )
+                    ))
                     .thenAccept(num -> this.logger.info("LINSERT(my-list, AFTER, Third element, Fourth element): {}", num))
                     .join();
 
-            final GlideString[] rangedItems = client.lrange(myList, 0, 2).join();
+            final GlideString[] rangedItems = this.timed("LRANGE", myList, () -> client.lrange(myList, 0, 2)).join();
 
             if (this.logger.isInfoEnabled()) {
                 this.logger.info("LRANGE(my-list, 0, 2): {}", Arrays.toString(rangedItems));   // Returns [First element, Second element, Third element]
             }
 
-            client.lpop(myList)
+            this.timed("LPOP", myList, () -> client.lpop(myList))
                     .thenAccept(str -> this.logger.info("LPOP(my-list): {}", str))
                     .join();
 
-            client.lrem(myList, 1, gs("Second element"))
-                    .thenAccept(num -> this.logger.info("LREM(my-list, Second element): {}", num))
+            this.scriptRegistry.invoke(client,
+                            ServerScript.LIST_REMOVE_AND_RANGE,
+                            new GlideString[] { myList },
+                            new GlideString[] { gs("1"), gs("Second element") })
+                    .thenAccept(result -> this.logger.info("LIST-REMOVE-AND-RANGE(my-list, 1, Second element): {}",
+                            Arrays.toString((Object[]) result)))   // Returns [Third element, Fourth element]
                     .join();
-
-            final List<String> list = new ArrayList<>();
-            final long itemCount = client.llen(myList).join();
-
-            for (int i = 0; i < itemCount; i++) {
-                list.add(client.lindex(myList, i).join().getString());
-            }
-
-            this.logger.info("list: {}", list);   // Returns [Third element, Fourth element]
         } catch (final CompletionException e) {
             this.logger.error("Glide exception handling a list: {}", e.getMessage(), e);
         }
@@ -614,25 +883,37 @@ public class ValkeyService {
         final GlideString[] myArray = new GlideString[] { gs("Jonathan"), gs("Dena"), aimee };
 
         try {
-            client.sadd(mySet, myArray)
+            this.timed("SADD", mySet, () -> client.sadd(mySet, myArray))
                     .thenAccept(num -> this.logger.info("SADD: {}", num))
                     .join();
 
-            client.scard(mySet)
+            this.timed("SCARD", mySet, () -> client.scard(mySet))
                     .thenAccept(num -> this.logger.info("SCARD(my-set): {}", num))
                     .join();
 
-            client.sismember(mySet, aimee)
+            this.timed("SISMEMBER", mySet, () -> client.sismember(mySet, aimee))
                     .thenAccept(bool -> this.logger.info("SISMEMBER(my-set, aimee): {}", bool))
                     .join();
 
-            client.srem(mySet, new GlideString[] { aimee })
+            this.timed("SREM", mySet, () -> client.srem(mySet, new GlideString[] { aimee }))
                     .thenAccept(num -> this.logger.info("SREM(my-set, aimee): {}", num))
                     .join();
 
-            client.smembers(mySet)
+            this.timed("SMEMBERS", mySet, () -> client.smembers(mySet))
                     .join()
                     .forEach(str -> this.logger.info("SMEMBERS(my-set): {}", str.getString()));
+
+            /* The same count without keeping the members */
+
+            final Instant now = Instant.now();
+
+            for (final GlideString member : myArray) {
+                this.uniqueCounter.add("my-set", now, member.getString());
+            }
+
+            this.uniqueCounter.count("my-set", now, now)
+                    .thenAccept(num -> this.logger.info("PFCOUNT(my-set): {}", num))
+                    .join();
         } catch (final CompletionException e) {
             this.logger.error("Glide exception handling a set: {}", e.getMessage(), e);
         }
@@ -664,41 +945,41 @@ public class ValkeyService {
         );
 
         try {
-            client.zadd(mySortedSet, map)
+            this.timed("ZADD", mySortedSet, () -> client.zadd(mySortedSet, map))
                     .thenAccept(num -> this.logger.info("ZADD: {}", num))
                     .join();
 
-            client.zcard(mySortedSet)
+            this.timed("ZCARD", mySortedSet, () -> client.zcard(mySortedSet))
                     .thenAccept(num -> this.logger.info("ZCARD(my-sorted-set): {}", num))
                     .join();
 
-            client.zscore(mySortedSet, gs("CCC"))
+            this.timed("ZSCORE", mySortedSet, () -> client.zscore(mySortedSet, gs("CCC")))
                     .thenAccept(str -> this.logger.info("ZSCORE(my-sorted-set, CCC): {}", str))
                     .join();
 
-            client.zrank(mySortedSet, gs("CCC"))
+            this.timed("ZRANK", mySortedSet, () -> client.zrank(mySortedSet, gs("CCC")))
                     .thenAccept(num -> this.logger.info("ZRANK(my-sorted-set, CCC): {}", num))
                     .join();
 
-            client.zcount(mySortedSet,
+            this.timed("ZCOUNT", mySortedSet, () -> client.zcount(mySortedSet,
                         new RangeOptions.ScoreBoundary(1.0, true),
                         new RangeOptions.ScoreBoundary(3.0, true)
-                    )
+                    ))
                     .thenAccept(num -> this.logger.info("ZCOUNT(my-sorted-set, 1.0, 3.0): {}", num))
                     .join();
 
-            final Object[] elements = client.zmpop(new GlideString[] { mySortedSet }, ScoreFilter.MIN)
+            final Object[] elements = this.timed("ZMPOP", mySortedSet, () -> client.zmpop(new GlideString[] { mySortedSet }, ScoreFilter.MIN))
                     .join();
 
             if (this.logger.isInfoEnabled()) {
                 this.logger.info("ZMPOP(my-sorted-set, MIN): {}", Arrays.toString(elements));
             }
 
-            client.zrem(mySortedSet, new GlideString[] { ccc })
+            this.timed("ZREM", mySortedSet, () -> client.zrem(mySortedSet, new GlideString[] { ccc }))
                     .thenAccept(num -> this.logger.info("ZREM(my-sorted-set, CCC): {}", num))
                     .join();
 
-            final GlideString[] range = client.zrange(mySortedSet, new RangeOptions.RangeByIndex(0, 26)).join();
+            final GlideString[] range = this.timed("ZRANGE", mySortedSet, () -> client.zrange(mySortedSet, new RangeOptions.RangeByIndex(0, 26))).join();
 
             if (this.logger.isInfoEnabled()) {
                 this.logger.info("ZRANGE(my-sorted-set, 0, 26): {}", Arrays.toString(range));
@@ -727,6 +1008,20 @@ public class ValkeyService {
                 .thenAccept(num -> this.logger.info("SET(my-json-key, $, my-json-value): {}", num))
                 .join();
 
+        try {
+            this.personRepository.save("json", this.newPerson());
+
+            this.logger.info("JSON.GET(person:json, $.addresses[0].city): {}",
+                    this.personRepository.read("json", "$.addresses[0].city", String.class).orElse(null));
+
+            this.personRepository.write("json", "$.age", 64);
+
+            this.logger.info("JSON.MGET(person:json, $.age): {}",
+                    this.personRepository.readAll(List.of("json"), "$.age", Integer.class));
+        } catch (final CompletionException e) {
+            this.logger.error("Glide exception handling a JSON document: {}", e.getMessage(), e);
+        }
+
         if (this.logger.isTraceEnabled()) {
             this.logger.trace(exit());
         }
@@ -767,11 +1062,11 @@ public class ValkeyService {
         final GlideString jsonPerson = gs("json-person");
 
         try {
-            client.set(jsonPerson, gs(json))
+            this.timed("SET", jsonPerson, () -> client.set(jsonPerson, gs(json)))
                     .thenAccept(num -> this.logger.info("SET(json-person, {}): {}", json, num))
                     .join();
 
-            client.strlen(jsonPerson)
+            this.timed("STRLEN", jsonPerson, () -> client.strlen(jsonPerson))
                     .thenAccept(num -> this.logger.info("STRLEN(json-person): {}", num))
                     .join();
         } catch (final CompletionException e) {
@@ -801,15 +1096,15 @@ public class ValkeyService {
             Person deserializedPerson = null;
 
             try {
-                client.set(base64Person, gs(serializedPerson))
+                this.timed("SET", base64Person, () -> client.set(base64Person, gs(serializedPerson)))
                         .thenAccept(num -> this.logger.info("SET(base64-person, {}): {}", serializedPerson, num))
                         .join();
 
-                client.strlen(base64Person)
+                this.timed("STRLEN", base64Person, () -> client.strlen(base64Person))
                         .thenAccept(num -> this.logger.info("STRLEN(base64-person): {}", num))
                         .join();
 
-                final String deserializedPersonString = client.get(base64Person).join().getString();
+                final String deserializedPersonString = this.timed("GET", base64Person, () -> client.get(base64Person)).join().getString();
 
                 deserializedPerson = this.base64Deserialize(deserializedPersonString, Person.class);  // Java deserialization from Base64
             } catch (final CompletionException e) {
@@ -839,14 +1134,19 @@ public class ValkeyService {
 
         String string = null;
 
-        try (final ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
-            try (final ObjectOutputStream objectStream = new ObjectOutputStream(byteStream)) {
-                objectStream.writeObject(clazz.cast(object));
+        final SerializationBuffer buffer = SerializationBuffer.obtain();
 
-                string =  Base64.getEncoder().encodeToString(byteStream.toByteArray());
+        try {
+            try (final ObjectOutputStream objectStream = new ObjectOutputStream(buffer)) {
+                objectStream.writeObject(clazz.cast(object));
             }
+
+            string = new String(Base64.getEncoder().encode(ByteBuffer.wrap(buffer.getBuffer(), 0, buffer.size())).array(),
+                    StandardCharsets.ISO_8859_1);
         } catch (final IOException ioe) {
             this.logger.error("Error serializing object to Base64: {}", ioe.getMessage(), ioe);
+        } finally {
+            buffer.release();
         }
 
         if (this.logger.isTraceEnabled()) {
@@ -897,18 +1197,18 @@ public class ValkeyService {
             this.logger.trace(entryWith(client));
         }
 
-        this.kryo.register(Animal.class, new AnimalSerializer());
+        DomainSerializers.register(this.kryo);
 
         final String kryoAnimal = "kryo-animal";
         final Animal animal = this.newAnimal();
         final String string = this.kryoSerialize(animal, Animal.class);
 
         if (string != null) {
-            client.set(kryoAnimal, string)  // A serialized GlideString does not work
+            this.timed("SET", kryoAnimal, () -> client.set(kryoAnimal, string))  // A serialized GlideString does not work
                     .thenAccept(num -> this.logger.info("SET(kryo-animal, {}): {}", string, num))
                     .join();
 
-            final String deserializedAnimalString = client.get(kryoAnimal).join();
+            final String deserializedAnimalString = this.timed("GET", kryoAnimal, () -> client.get(kryoAnimal)).join();
             final Animal deserializedAnimal = this.kryoDeserialize(deserializedAnimalString, Animal.class);
 
             if (deserializedAnimal != null) {
@@ -934,14 +1234,19 @@ public class ValkeyService {
 
         String string = null;
 
-        try (final ByteArrayOutputStream byteStream = new ByteArrayOutputStream()) {
-            try (final Output output = new Output(byteStream)) {
-                this.kryo.writeClassAndObject(output, clazz.cast(object));
-            }
+        /* A pooled output writes into its own buffer; wrapping a stream would allocate a new one every call */
+
+        final Output output = this.kryoOutputPool.obtain();
 
-            string = byteStream.toString(this.kryoCharset); // UTF-8 does not work
-        } catch (final IOException e) {
+        try {
+            output.reset();
+            this.kryo.writeClassAndObject(output, clazz.cast(object));
+
+            string = new String(output.getBuffer(), 0, output.position(), this.kryoCharset); // UTF-8 does not work
+        } catch (final KryoException e) {
             this.logger.error("Error serializing object to Kryo5: {}", e.getMessage(), e);
+        } finally {
+            this.kryoOutputPool.free(output);
         }
 
         if (this.logger.isTraceEnabled()) {
@@ -1016,6 +1321,21 @@ public class ValkeyService {
         return person;
     }
 
+    /// Send a command and log it if it is slow.
+    ///
+    /// @param  <T>     The type of result
+    /// @param  command java.lang.String
+    /// @param  key     java.lang.Object    The key, or null for none
+    /// @param  send    java.util.function.Supplier<java.util.concurrent.CompletableFuture<T>>
+    /// @return         java.util.concurrent.CompletableFuture<T>
+    private <T> CompletableFuture<T> timed(final String command,
+                                           final Object key,
+                                           final Supplier<CompletableFuture<T>> send) {
+        final long startNanos = System.nanoTime();
+
+        return this.slowCommandLog.time(this.logger, command, key, startNanos, send.get());
+    }
+
     /// Create a new animal.
     ///
     /// @return net.jmp.spring.boot.valkey.Animal
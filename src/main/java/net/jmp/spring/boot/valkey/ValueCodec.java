@@ -0,0 +1,94 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ValueCodec.java     0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.Arrays;
+
+/// The value codec interface. A codec turns
+/// an object into the bytes that are stored
+/// in Valkey and back again.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public interface ValueCodec {
+    /// Encode an object into bytes.
+    ///
+    /// @param  object  java.lang.Object
+    /// @return         byte[]
+    /// @throws         net.jmp.spring.boot.valkey.CodecException   When the object cannot be encoded
+    byte[] encode(Object object);
+
+    /// Decode bytes into an object.
+    ///
+    /// @param  bytes   byte[]
+    /// @return         java.lang.Object
+    /// @throws         net.jmp.spring.boot.valkey.CodecException   When the bytes cannot be decoded
+    Object decode(byte[] bytes);
+
+    /// Decode a range of bytes into an object. This
+    /// implementation copies the range; codecs that
+    /// can read in place override it.
+    ///
+    /// @param  bytes   byte[]
+    /// @param  offset  int
+    /// @param  length  int
+    /// @return         java.lang.Object
+    /// @throws         net.jmp.spring.boot.valkey.CodecException   When the bytes cannot be decoded
+    default Object decode(final byte[] bytes, final int offset, final int length) {
+        if (offset == 0 && length == bytes.length) {
+            return this.decode(bytes);
+        }
+
+        return this.decode(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
+    /// Decode bytes into an object of the given class.
+    ///
+    /// @param  <T>     The type of object to decode to
+    /// @param  bytes   byte[]
+    /// @param  clazz   java.lang.Class<T>
+    /// @return         T
+    /// @throws         net.jmp.spring.boot.valkey.CodecException   When the bytes cannot be decoded
+    default <T> T decode(final byte[] bytes, final Class<T> clazz) {
+        return clazz.cast(this.decode(bytes));
+    }
+
+    /// Create a value codec by name.
+    ///
+    /// @param  name    java.lang.String    Either kryo or java
+    /// @return         net.jmp.spring.boot.valkey.ValueCodec
+    /// @throws         java.lang.IllegalArgumentException  When the codec name is not known
+    static ValueCodec forName(final String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "kryo" -> new KryoValueCodec();
+            case "java" -> new JavaValueCodec();
+            default -> throw new IllegalArgumentException("Unknown value codec: " + name);
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)VersionedSerializer.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.KryoException;
+import com.esotericsoftware.kryo.kryo5.Serializer;
+
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/// The versioned serializer class. Every value
+/// starts with a schema version byte and the
+/// varint length of the fields that follow, so:
+///
+/// - a reader of a newer version reads the fields
+///   an older writer wrote and defaults the rest;
+/// - a reader of an older version reads the fields
+///   it knows and skips the ones added since.
+///
+/// A new version may only add fields at the end.
+/// Its reader reads them only when the version
+/// of the value is high enough.
+///
+/// The fields are written into a scratch output
+/// first to learn their length. There is one
+/// scratch output per nesting depth, kept in the
+/// Kryo instance's context, so nested values must
+/// be written through the Kryo instance rather
+/// than by calling their serializer directly.
+///
+/// @param  <T> The type of value
+/// @version    0.4.0
+/// @since      0.4.0
+public abstract class VersionedSerializer<T> extends Serializer<T> {
+    /// The context key of the scratch outputs.
+    private static final String SCRATCH_KEY = VersionedSerializer.class.getName() + ".scratch";
+
+    /// The initial size of a scratch output.
+    private static final int SCRATCH_SIZE = 256;
+
+    /// The version written.
+    private final int version;
+
+    /// A constructor.
+    ///
+    /// @param  version int     The version written, between 1 and 255
+    protected VersionedSerializer(final int version) {
+        super();
+
+        if (version < 1 || version > 255) {
+            throw new IllegalArgumentException("version must be between 1 and 255: " + version);
+        }
+
+        this.version = version;
+    }
+
+    /// Get the version written.
+    ///
+    /// @return int
+    public int getVersion() {
+        return this.version;
+    }
+
+    /// Write a value.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  output  com.esotericsoftware.kryo.kryo5.io.Output
+    /// @param  object  T
+    @Override
+    public final void write(final Kryo kryo, final Output output, final T object) {
+        final Output fields = scratch(kryo);
+
+        this.writeFields(kryo, fields, object);
+
+        output.writeByte(this.version);
+        output.writeVarInt(fields.position(), true);
+        output.writeBytes(fields.getBuffer(), 0, fields.position());
+    }
+
+    /// Read a value.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  input   com.esotericsoftware.kryo.kryo5.io.Input
+    /// @param  type    java.lang.Class<? extends T>
+    /// @return         T
+    @Override
+    public final T read(final Kryo kryo, final Input input, final Class<? extends T> type) {
+        final int valueVersion = input.readByte() & 0xff;
+        final int length = input.readVarInt(true);
+        final long end = input.total() + length;
+
+        final T object = this.readFields(kryo, input, valueVersion);
+        final long unread = end - input.total();
+
+        if (unread < 0) {
+            throw new KryoException("Read past the end of a version " + valueVersion + " " + type.getSimpleName());
+        }
+
+        input.skip(unread);     // Fields added by a newer version
+
+        return object;
+    }
+
+    /// Write the fields of a value.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  output  com.esotericsoftware.kryo.kryo5.io.Output
+    /// @param  object  T
+    protected abstract void writeFields(Kryo kryo, Output output, T object);
+
+    /// Read the fields of a value.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @param  input   com.esotericsoftware.kryo.kryo5.io.Input
+    /// @param  version int     The version the value was written with
+    /// @return         T
+    protected abstract T readFields(Kryo kryo, Input input, int version);
+
+    /// Get the scratch output of the current depth.
+    ///
+    /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+    /// @return         com.esotericsoftware.kryo.kryo5.io.Output
+    @SuppressWarnings("unchecked")
+    private static Output scratch(final Kryo kryo) {
+        List<Output> outputs = (List<Output>) kryo.getContext().get(SCRATCH_KEY);
+
+        if (outputs == null) {
+            outputs = new ArrayList<>();
+            kryo.getContext().put(SCRATCH_KEY, outputs);
+        }
+
+        while (outputs.size() <= kryo.getDepth()) {
+            outputs.add(new Output(SCRATCH_SIZE, -1));
+        }
+
+        final Output output = outputs.get(kryo.getDepth());
+
+        output.reset();
+
+        return output;
+    }
+}
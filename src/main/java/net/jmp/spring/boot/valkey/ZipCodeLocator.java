@@ -0,0 +1,152 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ZipCodeLocator.java  0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.commands.geospatial.GeospatialData;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static net.jmp.util.logging.LoggerUtils.*;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import org.springframework.core.io.Resource;
+
+import org.springframework.stereotype.Component;
+
+/// The zip code locator class. It resolves the
+/// coordinates of an address from its zip code
+/// through a local table, so no geocoding service
+/// is called.
+///
+/// The table is a CSV resource, named by
+/// `valkey.geo.zipCodes`, of zip, latitude and
+/// longitude lines. Lines that start with `#` are
+/// comments. An address is placed at the center of
+/// its zip code.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+@Component
+public class ZipCodeLocator {
+    /// The logger.
+    private final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
+
+    /// The coordinates of each zip code.
+    private final Map<String, GeospatialData> coordinates = new HashMap<>();
+
+    /// The table of zip codes.
+    @Value("${valkey.geo.zipCodes:classpath:geo/zip-codes.csv}")
+    private Resource zipCodes;
+
+    /// The default constructor.
+    public ZipCodeLocator() {
+        super();
+    }
+
+    /// Load the table.
+    @PostConstruct
+    public void load() {
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(entry());
+        }
+
+        try (final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(this.zipCodes.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                final String[] fields = line.split(",");
+
+                if (fields.length != 3) {
+                    this.logger.warn("Ignoring zip code line: {}", line);
+
+                    continue;
+                }
+
+                /* GeospatialData takes the longitude first */
+
+                this.coordinates.put(fields[0].strip(),
+                        new GeospatialData(Double.parseDouble(fields[2].strip()),
+                                Double.parseDouble(fields[1].strip())));
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Error reading " + this.zipCodes, e);
+        }
+
+        this.logger.info("Loaded the coordinates of {} zip codes", this.coordinates.size());
+
+        if (this.logger.isTraceEnabled()) {
+            this.logger.trace(exit());
+        }
+    }
+
+    /// Locate an address.
+    ///
+    /// @param  address net.jmp.spring.boot.valkey.Address
+    /// @return         java.util.Optional<glide.api.models.commands.geospatial.GeospatialData>
+    public Optional<GeospatialData> locate(final Address address) {
+        if (address == null || address.getZipCode() == null) {
+            return Optional.empty();
+        }
+
+        return this.locate(address.getZipCode());
+    }
+
+    /// Locate a zip code. Only the first five digits
+    /// of a ZIP+4 code are used.
+    ///
+    /// @param  zipCode java.lang.String
+    /// @return         java.util.Optional<glide.api.models.commands.geospatial.GeospatialData>
+    public Optional<GeospatialData> locate(final String zipCode) {
+        final String zip = zipCode.strip();
+
+        return Optional.ofNullable(this.coordinates.get(zip.length() > 5 ? zip.substring(0, 5) : zip));
+    }
+}
@@ -0,0 +1,119 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ZipfianGenerator.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/// The Zipfian generator class. It returns numbers
+/// in [0, items) where low numbers are far more
+/// popular than high ones, the way a few hot keys
+/// get most of the traffic. This is the algorithm
+/// from Gray et al., "Quickly Generating Billion-Record
+/// Synthetic Databases", as used by YCSB.
+///
+/// It is thread-safe; the only state after
+/// construction is read-only.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+public final class ZipfianGenerator {
+    /// The default skew.
+    public static final double DEFAULT_THETA = 0.99;
+
+    /// The number of items.
+    private final long items;
+
+    /// The skew.
+    private final double theta;
+
+    /// The zeta of the number of items.
+    private final double zetan;
+
+    /// The alpha constant.
+    private final double alpha;
+
+    /// The eta constant.
+    private final double eta;
+
+    /// A constructor. Construction takes time
+    /// proportional to the number of items.
+    ///
+    /// @param  items   long
+    /// @param  theta   double  The skew, between 0 and 1 exclusive
+    public ZipfianGenerator(final long items, final double theta) {
+        super();
+
+        if (items < 1) {
+            throw new IllegalArgumentException("items must be positive: " + items);
+        }
+
+        if (theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("theta must be between 0 and 1: " + theta);
+        }
+
+        this.items = items;
+        this.theta = theta;
+        this.zetan = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / this.zetan);
+    }
+
+    /// Get the next number.
+    ///
+    /// @return long
+    public long next() {
+        final double u = ThreadLocalRandom.current().nextDouble();
+        final double uz = u * this.zetan;
+
+        if (uz < 1.0) {
+            return 0;
+        }
+
+        if (uz < 1.0 + Math.pow(0.5, this.theta)) {
+            return Math.min(1, this.items - 1);
+        }
+
+        return Math.min(this.items - 1, (long) (this.items * Math.pow(this.eta * u - this.eta + 1, this.alpha)));
+    }
+
+    /// Compute the zeta function.
+    ///
+    /// @param  n       long
+    /// @param  theta   double
+    /// @return         double
+    private static double zeta(final long n, final double theta) {
+        double sum = 0;
+
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,200 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)AutocompleteTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+
+import glide.api.models.configuration.GlideClientConfiguration;
+import glide.api.models.configuration.NodeAddress;
+
+import static glide.api.models.GlideString.gs;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the autocomplete members, range
+/// bounds and ranking. The bounds are checked the
+/// way the server compares members in a `BYLEX`
+/// range: byte by byte, unsigned. The test of
+/// counted terms runs against a server on
+/// localhost:6379 and is skipped without one.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class AutocompleteTest {
+    /// A term keeps its case after the separator and
+    /// is read back as it was added.
+    @Test
+    void makesMembers() {
+        assertThat(Autocomplete.member("  McDonald ").getString()).isEqualTo("mcdonald\0McDonald");
+        assertThat(Autocomplete.term(Autocomplete.member(" Zoë "))).isEqualTo("Zoë");
+        assertThat(Autocomplete.term(gs("plain"))).isEqualTo("plain");
+    }
+
+    /// The bounds are the inclusive prefix and the
+    /// exclusive prefix followed by 0xFF.
+    @Test
+    void boundsPrefix() {
+        final GlideString[] bounds = Autocomplete.bounds(" SMI ");
+
+        assertThat(bounds[0].getBytes()).containsExactly('[', 's', 'm', 'i');
+        assertThat(bounds[1].getBytes()).containsExactly('(', 's', 'm', 'i', (byte) 0xFF);
+    }
+
+    /// Every term that starts with the prefix is in
+    /// range, whatever its case, and no other is.
+    @Test
+    void rangesOverPrefix() {
+        final GlideString[] bounds = Autocomplete.bounds("Smi");
+
+        assertThat(inRange("Smith", bounds)).isTrue();
+        assertThat(inRange("smith", bounds)).isTrue();
+        assertThat(inRange("SMITHERS", bounds)).isTrue();
+        assertThat(inRange("Smi", bounds)).isTrue();
+        assertThat(inRange("Sm", bounds)).isFalse();
+        assertThat(inRange("Sma", bounds)).isFalse();
+        assertThat(inRange("Smj", bounds)).isFalse();
+        assertThat(inRange("Smyth", bounds)).isFalse();
+    }
+
+    /// A prefix of characters beyond ASCII is bounded
+    /// by its UTF-8 bytes.
+    @Test
+    void rangesOverUnicodePrefix() {
+        final GlideString[] bounds = Autocomplete.bounds("Zoë");
+
+        assertThat(inRange("Zoë", bounds)).isTrue();
+        assertThat(inRange("Zoëlla", bounds)).isTrue();
+        assertThat(inRange("Zoe", bounds)).isFalse();
+        assertThat(inRange("Zoo", bounds)).isFalse();
+        assertThat(inRange("Zoé", bounds)).isFalse();
+    }
+
+    /// An empty prefix covers every term.
+    @Test
+    void rangesOverEverything() {
+        final GlideString[] bounds = Autocomplete.bounds("");
+
+        assertThat(inRange("a", bounds)).isTrue();
+        assertThat(inRange("Ωmega", bounds)).isTrue();
+        assertThat(inRange("\uFFFF", bounds)).isTrue();
+    }
+
+    /// Terms are ranked by weight, those never chosen
+    /// last, and ties keep their lexical order.
+    @Test
+    void ranksByWeight() {
+        final GlideString[] members = {
+                Autocomplete.member("Adams"),
+                Autocomplete.member("Baker"),
+                Autocomplete.member("Clark"),
+                Autocomplete.member("Davis")
+        };
+        final Double[] weights = { null, 2.0, 5.0, 2.0 };
+
+        assertThat(Autocomplete.rank(members, weights, 10)).containsExactly("Clark", "Baker", "Davis", "Adams");
+        assertThat(Autocomplete.rank(members, weights, 2)).containsExactly("Clark", "Baker");
+        assertThat(Autocomplete.rank(new GlideString[0], new Double[0], 2)).isEmpty();
+    }
+
+    /// A counted term stays while any owner has it
+    /// and leaves, with its weight, with the last.
+    ///
+    /// @throws Exception   When the server cannot be used
+    @Test
+    void countsTerms() throws Exception {
+        GlideClient client = null;
+
+        try {
+            client = GlideClient.createClient(GlideClientConfiguration.builder()
+                            .address(NodeAddress.builder().host("localhost").port(6379).build())
+                            .build())
+                    .get(5, TimeUnit.SECONDS);
+        } catch (final Exception e) {
+            assumeTrue(false, "No server on localhost:6379");
+        }
+
+        final ValkeyLifecycle lifecycle = new ValkeyLifecycle();
+        final ScriptRegistry scriptRegistry = new ScriptRegistry(client, new SlowCommandLog());
+        final Autocomplete autocomplete = new Autocomplete(client, scriptRegistry, lifecycle);
+        final String index = "test:" + UUID.randomUUID();
+
+        lifecycle.start();
+
+        try {
+            autocomplete.reference(index, "Smith");
+            autocomplete.reference(index, "Smith");
+            autocomplete.reference(index, "Smyth");
+            autocomplete.release(index, "Smyth");
+            autocomplete.flush().get();
+
+            assertThat(autocomplete.complete(index, "sm", 10).get()).containsExactly("Smith");
+
+            autocomplete.select(index, "Smith").get();
+            autocomplete.release(index, "Smith");
+            autocomplete.flush().get();
+
+            assertThat(autocomplete.complete(index, "sm", 10).get()).containsExactly("Smith");
+
+            autocomplete.release(index, "Smith");
+            autocomplete.flush().get();
+
+            assertThat(autocomplete.complete(index, "sm", 10).get()).isEmpty();
+            assertThat(client.exists(new String[] { "complete:" + index, "complete:" + index + ":counts", "complete:" + index + ":weights" }).get())
+                    .isZero();
+        } finally {
+            client.close();
+        }
+    }
+
+    /// Tell if the member of a term is within lexical
+    /// bounds as the server compares them.
+    ///
+    /// @param  term    java.lang.String
+    /// @param  bounds  glide.api.models.GlideString[]
+    /// @return         boolean
+    private static boolean inRange(final String term, final GlideString[] bounds) {
+        final byte[] member = Autocomplete.member(term).getBytes();
+        final byte[] start = bounds[0].getBytes();
+        final byte[] end = bounds[1].getBytes();
+
+        return Arrays.compareUnsigned(member, Arrays.copyOfRange(start, 1, start.length)) >= 0
+                && Arrays.compareUnsigned(member, Arrays.copyOfRange(end, 1, end.length)) < 0;
+    }
+}
@@ -0,0 +1,248 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)BloomFilterTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.configuration.GlideClientConfiguration;
+import glide.api.models.configuration.NodeAddress;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the Bloom filter's sizing and
+/// hashing. They need no server: the bit offsets
+/// of items are set in a local bit set. The test
+/// of the local copy runs against a server on
+/// localhost:6379 and is skipped without one.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class BloomFilterTest {
+    /// The seed of the first hash.
+    private static final long SEED_1 = 0x9747b28cL;
+
+    /// The seed of the second hash.
+    private static final long SEED_2 = 0x5bd1e995L;
+
+    /// The bits and hashes follow from the expected
+    /// items and rate, and the bits are split over
+    /// segments of at most the segment size.
+    @Test
+    void sizesFromItemsAndRate() {
+        final BloomFilter filter = filter(1_000, 0.01, 4_096);
+
+        assertThat(filter.getBits()).isEqualTo(9_586);
+        assertThat(filter.getHashes()).isEqualTo(7);
+        assertThat(filter.getSegments()).isEqualTo(3);
+        assertThat(filter(1_000, 0.01, 1L << 32).getSegments()).isEqualTo(1);
+        assertThat(filter(1_000_000, 0.001, 1L << 27).getHashes()).isEqualTo(10);
+    }
+
+    /// Sizes and rates out of range are rejected.
+    @Test
+    void rejectsInvalidSizes() {
+        assertThatThrownBy(() -> filter(0, 0.01, 1_024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter(10, 0.0, 1_024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter(10, 1.0, 1_024)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter(10, 0.01, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> filter(10, 0.01, (1L << 32) + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /// The hash is MurmurHash64A; the expected values
+    /// come from the reference C implementation and
+    /// cover empty input, tails and whole words.
+    @Test
+    void hashesLikeMurmurHash64A() {
+        assertThat(BloomFilter.hash(bytes(""), SEED_1)).isEqualTo(0x8397626cd6895052L);
+        assertThat(BloomFilter.hash(bytes("a"), SEED_1)).isEqualTo(0xe96b6245652273aeL);
+        assertThat(BloomFilter.hash(bytes("hello"), SEED_1)).isEqualTo(0x3ab0500e3b0ff825L);
+        assertThat(BloomFilter.hash(bytes("12345678"), SEED_1)).isEqualTo(0xcebdc66ee4a7e9a0L);
+        assertThat(BloomFilter.hash(bytes("The quick brown fox jumps over the lazy dog"), SEED_1))
+                .isEqualTo(0x029a7747a564bd84L);
+        assertThat(BloomFilter.hash(bytes("hello"), SEED_2)).isEqualTo(0x513400d0da39fd55L);
+    }
+
+    /// Every offset is within the filter, and an item
+    /// has the same offsets every time.
+    @Test
+    void placesOffsetsWithinFilter() {
+        final BloomFilter filter = filter(500, 0.05, 1_024);
+        final List<byte[]> items = items("item-", 1_000);
+        final long[][] offsets = filter.offsets(items);
+
+        assertThat(offsets).hasNumberOfRows(items.size());
+        assertThat(filter.offsets(items)).isDeepEqualTo(offsets);
+
+        for (final long[] itemOffsets : offsets) {
+            assertThat(itemOffsets).hasSize(filter.getHashes());
+
+            for (final long offset : itemOffsets) {
+                assertThat(offset).isBetween(0L, filter.getBits() - 1);
+            }
+        }
+    }
+
+    /// With the expected number of items added, the
+    /// false positive rate is close to the configured
+    /// one and there are no false negatives.
+    @Test
+    void keepsFalsePositiveRate() {
+        final BloomFilter filter = filter(10_000, 0.01, 1L << 20);
+        final List<byte[]> added = items("added-", 10_000);
+        final BitSet bits = new BitSet((int) filter.getBits());
+
+        for (final long[] itemOffsets : filter.offsets(added)) {
+            for (final long offset : itemOffsets) {
+                bits.set((int) offset);
+            }
+        }
+
+        int falsePositives = 0;
+
+        for (final long[] itemOffsets : filter.offsets(items("other-", 100_000))) {
+            if (allSet(bits, itemOffsets)) {
+                falsePositives++;
+            }
+        }
+
+        for (final long[] itemOffsets : filter.offsets(added)) {
+            assertThat(allSet(bits, itemOffsets)).isTrue();
+        }
+
+        assertThat(falsePositives / 100_000.0).isBetween(0.005, 0.02);
+    }
+
+    /// Items added while the local copy is refreshed
+    /// are never missing from it.
+    ///
+    /// @throws Exception   When the server cannot be used
+    @Test
+    void keepsAddsDuringRefresh() throws Exception {
+        GlideClient client = null;
+
+        try {
+            client = GlideClient.createClient(GlideClientConfiguration.builder()
+                            .address(NodeAddress.builder().host("localhost").port(6379).build())
+                            .build())
+                    .get(5, TimeUnit.SECONDS);
+        } catch (final Exception e) {
+            assumeTrue(false, "No server on localhost:6379");
+        }
+
+        final ValkeyLifecycle lifecycle = new ValkeyLifecycle();
+
+        lifecycle.start();
+
+        final BloomFilter filter = new BloomFilter(client, lifecycle, "test-" + UUID.randomUUID(), 10_000, 0.01, 1L << 20, true);
+        final List<byte[]> added = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                final List<byte[]> batch = items("item-" + i + "-", 5);
+                final CompletableFuture<Void> refresh = filter.refreshMirror();
+                final CompletableFuture<boolean[]> add = filter.addAll(batch);
+
+                added.addAll(batch);
+                refresh.get();
+
+                for (final boolean present : filter.mightContainAll(added).get()) {
+                    assertThat(present).isTrue();
+                }
+
+                add.get();
+            }
+        } finally {
+            filter.delete().get();
+            client.close();
+        }
+    }
+
+    /// Create a filter that is never sent a command.
+    ///
+    /// @param  expectedItems       long
+    /// @param  falsePositiveRate   double
+    /// @param  segmentBits         long
+    /// @return                     net.jmp.spring.boot.valkey.BloomFilter
+    private static BloomFilter filter(final long expectedItems, final double falsePositiveRate, final long segmentBits) {
+        return new BloomFilter(null, null, "test", expectedItems, falsePositiveRate, segmentBits, false);
+    }
+
+    /// Create numbered items.
+    ///
+    /// @param  prefix  java.lang.String
+    /// @param  count   int
+    /// @return         java.util.List<byte[]>
+    private static List<byte[]> items(final String prefix, final int count) {
+        final List<byte[]> items = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            items.add(bytes(prefix + i));
+        }
+
+        return items;
+    }
+
+    /// Return true if all the offsets are set.
+    ///
+    /// @param  bits    java.util.BitSet
+    /// @param  offsets long[]
+    /// @return         boolean
+    private static boolean allSet(final BitSet bits, final long[] offsets) {
+        for (final long offset : offsets) {
+            if (!bits.get((int) offset)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /// Encode text.
+    ///
+    /// @param  text    java.lang.String
+    /// @return         byte[]
+    private static byte[] bytes(final String text) {
+        return text.getBytes(UTF_8);
+    }
+}
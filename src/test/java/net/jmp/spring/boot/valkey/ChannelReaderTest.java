@@ -0,0 +1,195 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ChannelReaderTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.ReadableByteChannel;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the channel reader. The input is
+/// handed over a few bytes at a time, so lines and
+/// records straddle the reads and the buffer.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class ChannelReaderTest {
+    /// Lines split across reads are joined, blank
+    /// lines are skipped, and a last line needs no
+    /// newline.
+    ///
+    /// @throws java.io.IOException When reading fails
+    @Test
+    void readsLinesAcrossReads() throws IOException {
+        final ChannelReader reader = reader("first\n\n  \nsecond line\nlast", 3, 16);
+
+        assertThat(new String(reader.readLine(), UTF_8)).isEqualTo("first");
+        assertThat(new String(reader.readLine(), UTF_8)).isEqualTo("second line");
+        assertThat(new String(reader.readLine(), UTF_8)).isEqualTo("last");
+        assertThat(reader.readLine()).isNull();
+        assertThat(reader.hasMore()).isFalse();
+        assertThat(reader.getBytesRead()).isEqualTo(26);
+    }
+
+    /// A line that cannot fit in the buffer fails.
+    @Test
+    void rejectsLineLongerThanBuffer() {
+        final ChannelReader reader = reader("a line that is too long\n", 5, 8);
+
+        assertThatThrownBy(reader::readLine)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("exceeds the buffer size");
+    }
+
+    /// Primitives and byte runs are framed across
+    /// reads, and a run larger than the buffer is
+    /// read straight from the channel.
+    ///
+    /// @throws java.io.IOException When reading fails
+    @Test
+    void readsRecordsAcrossReads() throws IOException {
+        final byte[] large = "0123456789abcdefghij".getBytes(UTF_8);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (final DataOutputStream data = new DataOutputStream(bytes)) {
+            data.write("header\n".getBytes(UTF_8));
+            data.writeInt(3);
+            data.write("abc".getBytes(UTF_8));
+            data.writeLong(-42L);
+            data.writeInt(large.length);
+            data.write(large);
+        }
+
+        final ChannelReader reader = reader(bytes.toByteArray(), 3, 12);
+
+        assertThat(new String(reader.readLine(), UTF_8)).isEqualTo("header");
+        assertThat(reader.readBytes(reader.readInt())).isEqualTo("abc".getBytes(UTF_8));
+        assertThat(reader.readLong()).isEqualTo(-42L);
+        assertThat(reader.readBytes(reader.readInt())).isEqualTo(large);
+        assertThat(reader.hasMore()).isFalse();
+        assertThat(reader.getBytesRead()).isEqualTo(bytes.size());
+    }
+
+    /// A record cut short by the end of the input fails.
+    ///
+    /// @throws java.io.IOException When reading the first record fails
+    @Test
+    void rejectsTruncatedRecords() throws IOException {
+        final ChannelReader reader = reader(new byte[] { 0, 0, 0, 9, 1, 2 }, 2, 16);
+        final int length = reader.readInt();
+
+        assertThatThrownBy(() -> reader.readBytes(length))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("bytes short");
+        assertThatThrownBy(() -> reader.readBytes(-1))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Negative length");
+    }
+
+    /// Create a reader of text.
+    ///
+    /// @param  text        java.lang.String
+    /// @param  chunkSize   int     The most bytes handed over by one read
+    /// @param  bufferSize  int
+    /// @return             net.jmp.spring.boot.valkey.ChannelReader
+    private static ChannelReader reader(final String text, final int chunkSize, final int bufferSize) {
+        return reader(text.getBytes(UTF_8), chunkSize, bufferSize);
+    }
+
+    /// Create a reader of bytes.
+    ///
+    /// @param  bytes       byte[]
+    /// @param  chunkSize   int     The most bytes handed over by one read
+    /// @param  bufferSize  int
+    /// @return             net.jmp.spring.boot.valkey.ChannelReader
+    private static ChannelReader reader(final byte[] bytes, final int chunkSize, final int bufferSize) {
+        return new ChannelReader(new ChunkedChannel(bytes, chunkSize), bufferSize);
+    }
+
+    /// A channel that hands over its bytes a few at a time.
+    private static final class ChunkedChannel implements ReadableByteChannel {
+        /// The bytes.
+        private final ByteBuffer bytes;
+
+        /// The most bytes handed over by one read.
+        private final int chunkSize;
+
+        /// The constructor.
+        ///
+        /// @param  bytes       byte[]
+        /// @param  chunkSize   int
+        private ChunkedChannel(final byte[] bytes, final int chunkSize) {
+            super();
+
+            this.bytes = ByteBuffer.wrap(bytes);
+            this.chunkSize = chunkSize;
+        }
+
+        /// Read up to a chunk into a buffer.
+        ///
+        /// @param  destination java.nio.ByteBuffer
+        /// @return             int     The bytes read or -1 at the end
+        @Override
+        public int read(final ByteBuffer destination) {
+            if (!this.bytes.hasRemaining()) {
+                return -1;
+            }
+
+            final int count = Math.min(this.chunkSize, Math.min(destination.remaining(), this.bytes.remaining()));
+
+            destination.put(this.bytes.slice(this.bytes.position(), count));
+            this.bytes.position(this.bytes.position() + count);
+
+            return count;
+        }
+
+        /// Return true; the channel is never closed.
+        ///
+        /// @return boolean
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        /// Close the channel.
+        @Override
+        public void close() {
+        }
+    }
+}
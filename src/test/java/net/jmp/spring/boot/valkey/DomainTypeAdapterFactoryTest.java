@@ -0,0 +1,136 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)DomainTypeAdapterFactoryTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the domain type adapters. They
+/// round-trip the domain model through the
+/// streaming adapters and check that documents
+/// match those of Gson's reflective adapters.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class DomainTypeAdapterFactoryTest {
+    /// The Gson with the streaming adapters.
+    private final Gson streaming = new GsonBuilder()
+            .registerTypeAdapterFactory(new DomainTypeAdapterFactory())
+            .create();
+
+    /// The Gson with the reflective adapters.
+    private final Gson reflective = new Gson();
+
+    /// A person survives a round trip.
+    @Test
+    void roundTripsPerson() {
+        final Person person = person();
+
+        assertThat(this.streaming.fromJson(this.streaming.toJson(person), Person.class)).isEqualTo(person);
+    }
+
+    /// Null members, addresses and lists survive a round trip.
+    @Test
+    void roundTripsNulls() {
+        final Person person = new Person();
+        final List<Address> addresses = new ArrayList<>();
+
+        addresses.add(null);
+        addresses.add(new Address());
+        person.setAge(7);
+        person.setAddresses(addresses);
+
+        assertThat(this.streaming.fromJson(this.streaming.toJson(person), Person.class)).isEqualTo(person);
+        assertThat(this.streaming.toJson(null, Person.class)).isEqualTo("null");
+        assertThat(this.streaming.fromJson("null", Person.class)).isNull();
+    }
+
+    /// The documents are the same as the reflective
+    /// adapters', and each side reads the other's.
+    @Test
+    void matchesReflectiveAdapters() {
+        final Person person = person();
+        final String streamed = this.streaming.toJson(person);
+        final String reflected = this.reflective.toJson(person);
+
+        assertThat(JsonParser.parseString(streamed)).isEqualTo(JsonParser.parseString(reflected));
+        assertThat(this.streaming.fromJson(reflected, Person.class)).isEqualTo(person);
+        assertThat(this.reflective.fromJson(streamed, Person.class)).isEqualTo(person);
+    }
+
+    /// Members that are not part of the model are skipped.
+    @Test
+    void skipsUnknownMembers() {
+        final Person person = this.streaming.fromJson("""
+                {"firstName":"Ada","extra":{"nested":[1,2]},"age":36,
+                 "addresses":[{"city":"London","unknown":true}]}
+                """, Person.class);
+
+        assertThat(person.getFirstName()).isEqualTo("Ada");
+        assertThat(person.getAge()).isEqualTo(36);
+        assertThat(person.getAddresses()).singleElement().extracting(Address::getCity).isEqualTo("London");
+    }
+
+    /// Create a person with every member set.
+    ///
+    /// @return net.jmp.spring.boot.valkey.Person
+    private static Person person() {
+        final Address home = new Address();
+
+        home.setStreetName("12 Main Street");
+        home.setCity("Springfield");
+        home.setState("IL");
+        home.setZipCode("62701");
+
+        final Address work = new Address();
+
+        work.setStreetName("1 \"Quoted\" Plaza\n");
+        work.setCity("Chicago");
+        work.setState("IL");
+        work.setZipCode("60601");
+
+        final Person person = new Person();
+
+        person.setFirstName("Jonathan");
+        person.setLastName("Parker");
+        person.setAge(52);
+        person.setAddresses(new ArrayList<>(List.of(home, work)));
+        person.setPhoneNumbers(new ArrayList<>(List.of("555-0100", "555-0199")));
+
+        return person;
+    }
+}
@@ -0,0 +1,64 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)KeyTemplateTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import static glide.api.models.GlideString.gs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the key template.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class KeyTemplateTest {
+    /// The template under test.
+    private final KeyTemplate template = KeyTemplate.of("bench", "s");
+
+    /// Every suffix type builds the same key as its
+    /// string form.
+    @Test
+    void buildsKeys() {
+        assertThat(this.template.key(42L)).isEqualTo(gs("bench:s:42"));
+        assertThat(this.template.key(-7L)).isEqualTo(gs("bench:s:-7"));
+        assertThat(this.template.key((Object) 42)).isEqualTo(gs("bench:s:42"));
+        assertThat(this.template.key("café")).isEqualTo(gs("bench:s:café"));
+        assertThat(this.template.key((Object) "x".getBytes())).isEqualTo(gs("bench:s:x"));
+    }
+
+    /// A null suffix is rejected with the prefix named.
+    @Test
+    void rejectsNullSuffix() {
+        assertThatThrownBy(() -> this.template.key((Object) null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bench:s:");
+    }
+}
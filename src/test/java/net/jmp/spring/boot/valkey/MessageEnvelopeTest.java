@@ -0,0 +1,103 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)MessageEnvelopeTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.PubSubMessage;
+
+import static glide.api.models.GlideString.gs;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the message envelope.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class MessageEnvelopeTest {
+    /// A wrapped payload reads back its header and payload.
+    @Test
+    void wrapsAndReads() {
+        final byte[] payload = "hello".getBytes(UTF_8);
+        final long before = MessageEnvelope.nowMicros();
+        final byte[] bytes = MessageEnvelope.wrap(-7L, 42L, payload);
+        final long after = MessageEnvelope.nowMicros();
+
+        final MessageEnvelope envelope = MessageEnvelope.read(bytes);
+
+        assertThat(bytes).hasSize(MessageEnvelope.HEADER_LENGTH + payload.length);
+        assertThat(envelope).isNotNull();
+        assertThat(envelope.getPublisherId()).isEqualTo(-7L);
+        assertThat(envelope.getSequence()).isEqualTo(42L);
+        assertThat(envelope.getPublishedMicros()).isBetween(before, after);
+        assertThat(MessageEnvelope.payloadOffset(bytes)).isEqualTo(MessageEnvelope.HEADER_LENGTH);
+    }
+
+    /// An empty payload can be wrapped.
+    @Test
+    void wrapsEmptyPayload() {
+        final byte[] bytes = MessageEnvelope.wrap(1L, 1L, new byte[0]);
+
+        assertThat(MessageEnvelope.isEnveloped(bytes)).isTrue();
+        assertThat(MessageEnvelope.payload(new PubSubMessage(gs(bytes), gs("channel"))).getBytes()).isEmpty();
+    }
+
+    /// Messages that are too short or lack the magic
+    /// bytes or version have no envelope.
+    @Test
+    void ignoresPlainMessages() {
+        final byte[] enveloped = MessageEnvelope.wrap(1L, 2L, new byte[0]);
+        final byte[] otherVersion = enveloped.clone();
+        final byte[] otherMagic = enveloped.clone();
+
+        otherVersion[2] = 2;
+        otherMagic[0] = 'X';
+
+        for (final byte[] bytes : new byte[][] { new byte[0], "VE".getBytes(UTF_8), otherVersion, otherMagic }) {
+            assertThat(MessageEnvelope.isEnveloped(bytes)).isFalse();
+            assertThat(MessageEnvelope.read(bytes)).isNull();
+            assertThat(MessageEnvelope.payloadOffset(bytes)).isZero();
+        }
+    }
+
+    /// The payload of a message is stripped of its
+    /// envelope, and a plain message is returned as is.
+    @Test
+    void stripsPayload() {
+        final PubSubMessage enveloped = new PubSubMessage(
+                gs(MessageEnvelope.wrap(1L, 2L, "body".getBytes(UTF_8))),
+                gs("channel"));
+        final PubSubMessage plain = new PubSubMessage(gs("body"), gs("channel"));
+
+        assertThat(MessageEnvelope.payload(enveloped).getString()).isEqualTo("body");
+        assertThat(MessageEnvelope.payload(plain)).isSameAs(plain.getMessage());
+    }
+}
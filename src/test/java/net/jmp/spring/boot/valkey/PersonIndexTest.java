@@ -0,0 +1,314 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PersonIndexTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.GlideString;
+
+import glide.api.models.configuration.GlideClientConfiguration;
+import glide.api.models.configuration.NodeAddress;
+
+import static glide.api.models.GlideString.gs;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/// The tests of the person index queries. Each
+/// branch of the query plan is run against a
+/// server on localhost:6379; the tests that need
+/// one are skipped when there is none.
+///
+/// The persons are named and aged so that no other
+/// data matches: the `Smith` family is aged 1000 to
+/// 1009, so a range of two ages is smaller than
+/// the family and drives the intersection, and the
+/// `Jones` family is aged 1000 to 1002.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class PersonIndexTest {
+    /// The suffix that keeps the names of this run apart.
+    private static final String RUN = UUID.randomUUID().toString().substring(0, 8);
+
+    /// The last name of the larger family.
+    private static final String SMITH = "Smith-" + RUN;
+
+    /// The last name of the smaller family.
+    private static final String JONES = "Jones-" + RUN;
+
+    /// The state of the even aged persons.
+    private static final String STATE = "S-" + RUN;
+
+    /// The Glide client, or null without a server.
+    private static GlideClient client;
+
+    /// The person index.
+    private static PersonIndex index;
+
+    /// The IDs of the persons saved.
+    private static final List<String> ids = new ArrayList<>();
+
+    /// Connect and save the persons.
+    ///
+    /// @throws Exception   When a person cannot be saved
+    @BeforeAll
+    static void saveAll() throws Exception {
+        try {
+            client = GlideClient.createClient(GlideClientConfiguration.builder()
+                            .address(NodeAddress.builder().host("localhost").port(6379).build())
+                            .build())
+                    .get(5, TimeUnit.SECONDS);
+        } catch (final Exception e) {
+            client = null;
+
+            return;
+        }
+
+        final ScriptRegistry scriptRegistry = new ScriptRegistry(client, new SlowCommandLog());
+        final ValkeyLifecycle lifecycle = new ValkeyLifecycle();
+
+        lifecycle.start();
+
+        index = new PersonIndex(client, scriptRegistry, lifecycle);
+
+        for (int i = 0; i < 10; i++) {
+            save(SMITH, 1_000 + i, i % 2 == 0 ? STATE : null);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            save(JONES, 1_000 + i, null);
+        }
+    }
+
+    /// Delete the persons and disconnect.
+    ///
+    /// @throws Exception   When a person cannot be deleted
+    @AfterAll
+    static void deleteAll() throws Exception {
+        if (client == null) {
+            return;
+        }
+
+        for (final String id : ids) {
+            index.delete(key(id), id, false).get();
+        }
+
+        client.close();
+    }
+
+    /// Skip the test without a server.
+    @BeforeEach
+    void requireServer() {
+        assumeTrue(client != null, "No server on localhost:6379");
+    }
+
+    /// A query of one equality field reads its set.
+    ///
+    /// @throws Exception   When the query fails
+    @Test
+    void findsByEquality() throws Exception {
+        assertThat(index.find(new PersonIndex.Query().equal("lastName", SMITH)).get()).hasSize(10);
+        assertThat(index.find(new PersonIndex.Query().equal("lastName", SMITH.toUpperCase())).get()).hasSize(10);
+        assertThat(index.find(new PersonIndex.Query().equal("lastName", SMITH).equal("state", STATE)).get())
+                .containsExactlyInAnyOrderElementsOf(idsOf(SMITH, 0, 2, 4, 6, 8));
+    }
+
+    /// The values of one field are united.
+    ///
+    /// @throws Exception   When the query fails
+    @Test
+    void findsByAnyValue() throws Exception {
+        assertThat(index.find(new PersonIndex.Query().equal("lastName", SMITH, JONES)).get()).hasSize(13);
+    }
+
+    /// A range smaller than the equality sets is
+    /// stored and intersected with them.
+    ///
+    /// @throws Exception   When the query fails
+    @Test
+    void findsByDrivingRange() throws Exception {
+        assertThat(index.find(new PersonIndex.Query().equal("lastName", SMITH).between("age", 1_000, 1_001)).get())
+                .containsExactlyInAnyOrderElementsOf(idsOf(SMITH, 0, 1));
+        assertThat(index.find(new PersonIndex.Query()
+                        .equal("lastName", SMITH, JONES)
+                        .equal("state", STATE)
+                        .between("age", 1_002, 1_003)).get())
+                .containsExactlyInAnyOrderElementsOf(idsOf(SMITH, 2));
+    }
+
+    /// Equality sets smaller than the range are read
+    /// and filtered by score.
+    ///
+    /// @throws Exception   When the query fails
+    @Test
+    void findsByFilteredSets() throws Exception {
+        assertThat(index.find(new PersonIndex.Query().equal("lastName", JONES).between("age", 1_001, 1_009)).get())
+                .containsExactlyInAnyOrderElementsOf(idsOf(JONES, 1, 2));
+    }
+
+    /// A query of ranges only reads the smallest
+    /// range and filters it by the others.
+    ///
+    /// @throws Exception   When the query fails
+    @Test
+    void findsByRanges() throws Exception {
+        assertThat(index.find(new PersonIndex.Query().between("age", 1_008, 1_009).between("age", 1_009, 1_020)).get())
+                .containsExactlyInAnyOrderElementsOf(idsOf(SMITH, 9));
+        assertThat(index.find(new PersonIndex.Query().equal("lastName", SMITH).between("age", 2_000, 2_001)).get())
+                .isEmpty();
+    }
+
+    /// Queries are counted with and without ranges.
+    ///
+    /// @throws Exception   When the query fails
+    @Test
+    void counts() throws Exception {
+        assertThat(index.count(new PersonIndex.Query().equal("lastName", SMITH, JONES)).get()).isEqualTo(13L);
+        assertThat(index.count(new PersonIndex.Query().equal("lastName", SMITH).equal("state", STATE)).get())
+                .isEqualTo(5L);
+        assertThat(index.count(new PersonIndex.Query().equal("lastName", SMITH).between("age", 1_000, 1_001)).get())
+                .isEqualTo(2L);
+    }
+
+    /// The temporary keys of a query are deleted.
+    ///
+    /// @throws Exception   When the query fails
+    @Test
+    void deletesTemporaryKeys() throws Exception {
+        index.find(new PersonIndex.Query().equal("lastName", SMITH, JONES).between("age", 1_000, 1_000)).get();
+
+        Object[] keys = null;
+
+        for (int i = 0; i < 50; i++) {
+            keys = (Object[]) client.customCommand(new String[] { "KEYS", "index:person:tmp:*" }).get();
+
+            if (keys.length == 0) {
+                break;
+            }
+
+            Thread.sleep(10);
+        }
+
+        assertThat(keys).isEmpty();
+    }
+
+    /// Saving and deleting return the person replaced.
+    ///
+    /// @throws Exception   When the person cannot be written
+    @Test
+    void returnsPrevious() throws Exception {
+        final String id = "Brown-" + RUN;
+        final Person person = new Person();
+
+        person.setLastName("Brown-" + RUN);
+        person.setAge(1_000);
+
+        assertThat(index.save(key(id), id, null, gs("first"), person).get()).isNull();
+        assertThat(index.save(key(id), id, null, gs("second"), person).get()).isEqualTo(gs("first"));
+        assertThat(index.delete(key(id), id, false).get()).isEqualTo(gs("second"));
+        assertThat(index.delete(key(id), id, false).get()).isNull();
+    }
+
+    /// A query is immutable and needs a condition.
+    @Test
+    void buildsQueries() {
+        final PersonIndex.Query query = new PersonIndex.Query().equal("lastName", SMITH);
+
+        query.between("age", 1_000, 1_001);
+
+        assertThat(query).hasToString("Query{equalities={lastName=[" + SMITH + "]}, ranges=[]}");
+        assertThatThrownBy(() -> index.find(new PersonIndex.Query())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> query.equal("age", "1")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> query.between("lastName", 0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /// Save a person.
+    ///
+    /// @param  lastName    java.lang.String
+    /// @param  age         int
+    /// @param  state       java.lang.String    The state of the address, or null for none
+    /// @throws             Exception           When the person cannot be saved
+    private static void save(final String lastName, final int age, final String state) throws Exception {
+        final String id = lastName + ":" + age;
+        final Person person = new Person();
+
+        person.setLastName(lastName);
+        person.setAge(age);
+
+        if (state != null) {
+            final Address address = new Address();
+
+            address.setState(state);
+            person.setAddresses(List.of(address));
+        }
+
+        index.save(key(id), id, null, gs(id), person).get();
+        ids.add(id);
+    }
+
+    /// Get the key of a person.
+    ///
+    /// @param  id  java.lang.String
+    /// @return     glide.api.models.GlideString
+    private static GlideString key(final String id) {
+        return gs("test:person:" + id);
+    }
+
+    /// Get the IDs of persons of a family by their
+    /// age past 1000.
+    ///
+    /// @param  lastName    java.lang.String
+    /// @param  ages        int[]
+    /// @return             java.util.Set<java.lang.String>
+    private static Set<String> idsOf(final String lastName, final int... ages) {
+        final Set<String> found = new HashSet<>();
+
+        for (final int age : ages) {
+            found.add(lastName + ":" + (1_000 + age));
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,139 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)PubSubMetricsTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.models.PubSubMessage;
+
+import static glide.api.models.GlideString.gs;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the pub/sub metrics.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class PubSubMetricsTest {
+    /// The meter registry.
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    /// The metrics.
+    private final PubSubMetrics metrics = new PubSubMetrics(this.registry);
+
+    /// Gaps count as lost and late arrivals as
+    /// reordered; a late message was first counted
+    /// as lost. Every message reaches the handler.
+    @Test
+    void countsGapsAndLateArrivals() {
+        final List<PubSubMessage> handled = new ArrayList<>();
+        final ChannelHandler handler = this.metrics.instrument("test", (message, context) -> handled.add(message));
+
+        for (final long sequence : new long[] { 1, 2, 5, 3, 6 }) {
+            handler.handle(message("orders", 9L, sequence), null);
+        }
+
+        assertThat(handled).hasSize(5);
+        assertThat(this.count("valkey.pubsub.lost")).isEqualTo(2.0);
+        assertThat(this.count("valkey.pubsub.reordered")).isEqualTo(1.0);
+        assertThat(this.registry.get("valkey.pubsub.latency").timer().count()).isEqualTo(5);
+    }
+
+    /// Each publisher on each channel has its own
+    /// sequence, and a restarted publisher, which has
+    /// a new id, starts a new one.
+    @Test
+    void tracksSequencesPerSource() {
+        final ChannelHandler handler = this.metrics.instrument("test", (message, context) -> { });
+
+        handler.handle(message("orders", 1L, 1), null);
+        handler.handle(message("orders", 2L, 1), null);
+        handler.handle(message("audit", 1L, 1), null);
+        handler.handle(message("orders", 1L, 2), null);
+        handler.handle(message("orders", 3L, 1), null);
+        handler.handle(message("orders", 3L, 2), null);
+
+        assertThat(this.count("valkey.pubsub.lost")).isZero();
+        assertThat(this.count("valkey.pubsub.reordered")).isZero();
+    }
+
+    /// A late first message is reordered, not a
+    /// restart, so the messages after it are in order.
+    @Test
+    void keepsSequenceAfterLateFirst() {
+        final ChannelHandler handler = this.metrics.instrument("test", (message, context) -> { });
+
+        handler.handle(message("orders", 1L, 2), null);
+        handler.handle(message("orders", 1L, 1), null);
+        handler.handle(message("orders", 1L, 3), null);
+        handler.handle(message("orders", 1L, 4), null);
+
+        assertThat(this.count("valkey.pubsub.lost")).isZero();
+        assertThat(this.count("valkey.pubsub.reordered")).isEqualTo(1.0);
+    }
+
+    /// Plain messages are handled and timed but not
+    /// measured for latency or sequence.
+    @Test
+    void passesPlainMessages() {
+        final List<PubSubMessage> handled = new ArrayList<>();
+        final ChannelHandler handler = this.metrics.instrument("test", (message, context) -> handled.add(message));
+
+        handler.handle(new PubSubMessage(gs("plain"), gs("orders")), null);
+
+        assertThat(handled).hasSize(1);
+        assertThat(this.registry.get("valkey.pubsub.handler").timer().count()).isEqualTo(1);
+        assertThat(this.registry.get("valkey.pubsub.latency").timer().count()).isZero();
+    }
+
+    /// Get the count of a counter.
+    ///
+    /// @param  name    java.lang.String
+    /// @return         double
+    private double count(final String name) {
+        return this.registry.get(name).counter().count();
+    }
+
+    /// Create an enveloped message.
+    ///
+    /// @param  channel     java.lang.String
+    /// @param  publisherId long
+    /// @param  sequence    long
+    /// @return             glide.api.models.PubSubMessage
+    private static PubSubMessage message(final String channel, final long publisherId, final long sequence) {
+        return new PubSubMessage(gs(MessageEnvelope.wrap(publisherId, sequence, new byte[0])), gs(channel));
+    }
+}
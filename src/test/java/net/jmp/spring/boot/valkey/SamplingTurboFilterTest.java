@@ -0,0 +1,115 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)SamplingTurboFilterTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+import ch.qos.logback.core.spi.FilterReply;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the sampling turbo filter.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class SamplingTurboFilterTest {
+    /// The loggers.
+    private final LoggerContext context = new LoggerContext();
+
+    /// Slow commands pass from any logger, including
+    /// ones the filter does not sample.
+    @Test
+    void acceptsSlowCommandsFromAnyLogger() {
+        final SamplingTurboFilter filter = this.filter(1_000);
+
+        assertThat(this.decide(filter, "net.jmp.spring.boot.valkey.ValkeyService", true)).isEqualTo(FilterReply.ACCEPT);
+        assertThat(this.decide(filter, "net.jmp.spring.boot.valkey.CacheAsideLoader", true)).isEqualTo(FilterReply.ACCEPT);
+        assertThat(this.decide(filter, "net.jmp.spring.boot.valkey.ScriptRegistry", true)).isEqualTo(FilterReply.ACCEPT);
+    }
+
+    /// Other events of loggers that are not sampled
+    /// are left to their levels.
+    @Test
+    void ignoresOtherLoggers() {
+        final SamplingTurboFilter filter = this.filter(1_000);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(this.decide(filter, "net.jmp.spring.boot.valkey.CacheAsideLoader", false))
+                    .isEqualTo(FilterReply.NEUTRAL);
+            assertThat(this.decide(filter, "net.jmp.spring.boot.valkey.ValkeyServiceX", false))
+                    .isEqualTo(FilterReply.NEUTRAL);
+        }
+    }
+
+    /// The sampled logger keeps one event in the rate.
+    @Test
+    void samplesLogger() {
+        final SamplingTurboFilter filter = this.filter(4);
+        int kept = 0;
+
+        for (int i = 0; i < 100; i++) {
+            if (this.decide(filter, "net.jmp.spring.boot.valkey.ValkeyService", false) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertThat(kept).isEqualTo(25);
+    }
+
+    /// Create a started filter of the service logger.
+    ///
+    /// @param  sampleRate  int
+    /// @return             net.jmp.spring.boot.valkey.SamplingTurboFilter
+    private SamplingTurboFilter filter(final int sampleRate) {
+        final SamplingTurboFilter filter = new SamplingTurboFilter();
+
+        filter.setContext(this.context);
+        filter.setLoggerName("net.jmp.spring.boot.valkey.ValkeyService");
+        filter.setSampleRate(sampleRate);
+        filter.start();
+
+        return filter;
+    }
+
+    /// Decide on an info event.
+    ///
+    /// @param  filter  net.jmp.spring.boot.valkey.SamplingTurboFilter
+    /// @param  name    java.lang.String    The name of the logger
+    /// @param  slow    boolean             True for a slow command event
+    /// @return         ch.qos.logback.core.spi.FilterReply
+    private FilterReply decide(final SamplingTurboFilter filter, final String name, final boolean slow) {
+        final Logger logger = this.context.getLogger(name);
+
+        return filter.decide(slow ? SlowCommandLog.SLOW_COMMAND : null, logger, Level.INFO, "Event {}", new Object[] { 1 }, null);
+    }
+}
@@ -0,0 +1,106 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)SubscriptionManagerTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import glide.api.GlideClient;
+
+import glide.api.models.configuration.StandaloneSubscriptionConfiguration;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the subscription manager when a
+/// subscription cannot be sent.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class SubscriptionManagerTest {
+    /// A failed subscription keeps its handler and is
+    /// sent again by the next subscription of the name.
+    @Test
+    void resendsFailedSubscription() {
+        final FailingFactory factory = new FailingFactory();
+        final SubscriptionManager manager = new SubscriptionManager(factory, new ValkeyLifecycle());
+        final ChannelHandler handler = (message, context) -> { };
+
+        final CompletableFuture<Void> first = manager.subscribe("orders", handler);
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(manager.getChannels()).containsExactly("orders");
+        assertThat(factory.connects).isEqualTo(1);
+
+        assertThat(manager.subscribe("orders", (message, context) -> { })).isCompletedExceptionally();
+        assertThat(factory.connects).isEqualTo(2);
+
+        assertThat(manager.psubscribe("orders.*", handler)).isCompletedExceptionally();
+        assertThat(manager.getPatterns()).containsExactly("orders.*");
+        assertThat(factory.connects).isEqualTo(3);
+    }
+
+    /// A failed subscription whose handlers have all
+    /// left is not sent again.
+    @Test
+    void forgetsReleasedSubscription() {
+        final FailingFactory factory = new FailingFactory();
+        final SubscriptionManager manager = new SubscriptionManager(factory, new ValkeyLifecycle());
+        final ChannelHandler handler = (message, context) -> { };
+
+        manager.subscribe("orders", handler);
+        manager.unsubscribe("orders", handler);
+
+        assertThat(manager.getChannels()).isEmpty();
+
+        final int connects = factory.connects;
+
+        manager.subscribe("orders", handler);
+
+        assertThat(factory.connects).isEqualTo(connects + 1);
+        assertThat(manager.getChannels()).containsExactly("orders");
+    }
+
+    /// A factory that cannot connect.
+    private static final class FailingFactory extends GlideClientFactory {
+        /// The number of connections tried.
+        private int connects;
+
+        /// Fail to connect.
+        ///
+        /// @param  pubSubConfig    glide.api.models.configuration.StandaloneSubscriptionConfiguration
+        /// @return                 glide.api.GlideClient
+        @Override
+        public GlideClient connect(final StandaloneSubscriptionConfiguration pubSubConfig) {
+            this.connects++;
+
+            throw new RuntimeException("Unable to create Glide client");
+        }
+    }
+}
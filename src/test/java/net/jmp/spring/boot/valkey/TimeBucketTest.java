@@ -0,0 +1,100 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)TimeBucketTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the time bucket labels.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class TimeBucketTest {
+    /// An instant in the middle of a minute.
+    private static final Instant INSTANT = Instant.parse("2026-10-19T13:45:30.500Z");
+
+    /// A label is the start of the bucket in UTC.
+    @Test
+    void labelsBucketStart() {
+        assertThat(TimeBucket.MINUTE.label(INSTANT)).isEqualTo("202610191345");
+        assertThat(TimeBucket.HOUR.label(INSTANT)).isEqualTo("2026101913");
+        assertThat(TimeBucket.DAY.label(INSTANT)).isEqualTo("20261019");
+    }
+
+    /// The labels of different buckets differ in
+    /// length, so their keys never collide.
+    @Test
+    void labelsDifferInLength() {
+        assertThat(TimeBucket.MINUTE.label(INSTANT))
+                .hasSize(12)
+                .isNotEqualTo(TimeBucket.HOUR.label(INSTANT))
+                .isNotEqualTo(TimeBucket.DAY.label(INSTANT));
+        assertThat(TimeBucket.HOUR.label(INSTANT)).hasSize(10);
+        assertThat(TimeBucket.DAY.label(INSTANT)).hasSize(8);
+    }
+
+    /// The range includes the buckets that hold both
+    /// ends, even when neither is on a boundary.
+    @Test
+    void labelsRangeInclusive() {
+        assertThat(TimeBucket.MINUTE.labels(INSTANT, INSTANT.plusSeconds(95)))
+                .containsExactly("202610191345", "202610191346", "202610191347");
+        assertThat(TimeBucket.HOUR.labels(INSTANT, Instant.parse("2026-10-19T15:00:00Z")))
+                .containsExactly("2026101913", "2026101914", "2026101915");
+        assertThat(TimeBucket.DAY.labels(INSTANT, Instant.parse("2026-10-21T00:00:00Z")))
+                .containsExactly("20261019", "20261020", "20261021");
+    }
+
+    /// A range within one bucket has its one label,
+    /// and a range that ends before it starts has none.
+    @Test
+    void labelsShortRanges() {
+        assertThat(TimeBucket.HOUR.labels(INSTANT, INSTANT)).containsExactly("2026101913");
+        assertThat(TimeBucket.MINUTE.labels(INSTANT, INSTANT.minusSeconds(120))).isEmpty();
+    }
+
+    /// The range crosses the end of a month and a year.
+    @Test
+    void labelsAcrossYearEnd() {
+        assertThat(TimeBucket.DAY.labels(Instant.parse("2026-12-31T23:59:59Z"), Instant.parse("2027-01-01T00:00:00Z")))
+                .containsExactly("20261231", "20270101");
+    }
+
+    /// The durations match the buckets.
+    @Test
+    void hasDurations() {
+        assertThat(TimeBucket.MINUTE.getDuration()).isEqualTo(Duration.ofMinutes(1));
+        assertThat(TimeBucket.HOUR.getDuration()).isEqualTo(Duration.ofHours(1));
+        assertThat(TimeBucket.DAY.getDuration()).isEqualTo(Duration.ofDays(1));
+    }
+}
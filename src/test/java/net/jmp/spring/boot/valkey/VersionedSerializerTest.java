@@ -0,0 +1,187 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)VersionedSerializerTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the versioned serializer. A point
+/// gains a third field in version 2; values are
+/// written by one version and read by the other.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class VersionedSerializerTest {
+    /// The registration identifier of the point.
+    private static final int POINT_ID = 100;
+
+    /// A reader of version 1 reads the fields it
+    /// knows and skips the one added since, and the
+    /// value that follows is still read.
+    @Test
+    void olderReaderSkipsNewerFields() {
+        final byte[] bytes = write(2, new Point(1, 2, 3), "after");
+        final Input input = new Input(bytes);
+        final Kryo kryo = kryo(1);
+
+        assertThat(kryo.readClassAndObject(input)).isEqualTo(new Point(1, 2, 0));
+        assertThat(kryo.readClassAndObject(input)).isEqualTo("after");
+    }
+
+    /// A reader of version 2 defaults the field an
+    /// older writer did not write.
+    @Test
+    void newerReaderDefaultsMissingFields() {
+        final byte[] bytes = write(1, new Point(1, 2, 3), "after");
+        final Input input = new Input(bytes);
+        final Kryo kryo = kryo(2);
+
+        assertThat(kryo.readClassAndObject(input)).isEqualTo(new Point(1, 2, -1));
+        assertThat(kryo.readClassAndObject(input)).isEqualTo("after");
+    }
+
+    /// Nested versioned values, written through the
+    /// Kryo instance, survive a round trip.
+    @Test
+    void roundTripsNestedValues() {
+        final KryoValueCodec codec = new KryoValueCodec();
+        final Address address = new Address();
+
+        address.setCity("Springfield");
+        address.setZipCode("62701");
+
+        final Person person = new Person();
+
+        person.setFirstName("Jonathan");
+        person.setAge(52);
+        person.setAddresses(new ArrayList<>(List.of(address, address)));
+        person.setPhoneNumbers(new ArrayList<>(List.of("555-0100")));
+
+        assertThat(codec.decode(codec.encode(person), Person.class)).isEqualTo(person);
+    }
+
+    /// The version must fit in a byte and not be zero.
+    @Test
+    void rejectsInvalidVersions() {
+        assertThatThrownBy(() -> new PointSerializer(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PointSerializer(256)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /// Write a point and a string with a version of
+    /// the point serializer.
+    ///
+    /// @param  version int
+    /// @param  point   net.jmp.spring.boot.valkey.VersionedSerializerTest.Point
+    /// @param  after   java.lang.String
+    /// @return         byte[]
+    private static byte[] write(final int version, final Point point, final String after) {
+        final Kryo kryo = kryo(version);
+
+        try (final Output output = new Output(64, -1)) {
+            kryo.writeClassAndObject(output, point);
+            kryo.writeClassAndObject(output, after);
+
+            return output.toBytes();
+        }
+    }
+
+    /// Create a Kryo instance with a version of the
+    /// point serializer.
+    ///
+    /// @param  version int
+    /// @return         com.esotericsoftware.kryo.kryo5.Kryo
+    private static Kryo kryo(final int version) {
+        final Kryo kryo = new Kryo();
+
+        kryo.register(Point.class, new PointSerializer(version), POINT_ID);
+
+        return kryo;
+    }
+
+    /// A point; version 2 added z.
+    ///
+    /// @param  x   int
+    /// @param  y   int
+    /// @param  z   int     Zero when read by version 1 and -1 when not written
+    private record Point(int x, int y, int z) {
+    }
+
+    /// The serializer of points.
+    private static final class PointSerializer extends VersionedSerializer<Point> {
+        /// A constructor.
+        ///
+        /// @param  version int
+        private PointSerializer(final int version) {
+            super(version);
+        }
+
+        /// Write the fields of a point.
+        ///
+        /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+        /// @param  output  com.esotericsoftware.kryo.kryo5.io.Output
+        /// @param  point   net.jmp.spring.boot.valkey.VersionedSerializerTest.Point
+        @Override
+        protected void writeFields(final Kryo kryo, final Output output, final Point point) {
+            output.writeVarInt(point.x(), false);
+            output.writeVarInt(point.y(), false);
+
+            if (this.getVersion() >= 2) {
+                output.writeVarInt(point.z(), false);
+            }
+        }
+
+        /// Read the fields of a point.
+        ///
+        /// @param  kryo    com.esotericsoftware.kryo.kryo5.Kryo
+        /// @param  input   com.esotericsoftware.kryo.kryo5.io.Input
+        /// @param  version int
+        /// @return         net.jmp.spring.boot.valkey.VersionedSerializerTest.Point
+        @Override
+        protected Point readFields(final Kryo kryo, final Input input, final int version) {
+            final int x = input.readVarInt(false);
+            final int y = input.readVarInt(false);
+
+            if (this.getVersion() < 2) {
+                return new Point(x, y, 0);
+            }
+
+            return new Point(x, y, version >= 2 ? input.readVarInt(false) : -1);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package net.jmp.spring.boot.valkey;
+
+/*
+ * (#)ZipfianGeneratorTest.java 0.4.0   10/19/2026
+ *
+ * @author   Jonathan Parker
+ *
+ * MIT License
+ *
+ * Copyright (c) 2025 Jonathan M. Parker
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/// The tests of the Zipfian generator. The checks
+/// of the skew are loose enough that a random run
+/// does not fail them.
+///
+/// @version    0.4.0
+/// @since      0.4.0
+final class ZipfianGeneratorTest {
+    /// The number of samples drawn.
+    private static final int SAMPLES = 100_000;
+
+    /// Every number is within the items.
+    @Test
+    void staysWithinItems() {
+        final ZipfianGenerator generator = new ZipfianGenerator(50, ZipfianGenerator.DEFAULT_THETA);
+
+        for (int i = 0; i < SAMPLES; i++) {
+            assertThat(generator.next()).isBetween(0L, 49L);
+        }
+    }
+
+    /// A single item is always chosen.
+    @Test
+    void choosesTheOnlyItem() {
+        final ZipfianGenerator generator = new ZipfianGenerator(1, 0.5);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(generator.next()).isZero();
+        }
+    }
+
+    /// Low numbers are far more popular than high
+    /// ones: the first item is the most popular and
+    /// the first tenth of the items gets over half of
+    /// the samples.
+    @Test
+    void favorsLowNumbers() {
+        final ZipfianGenerator generator = new ZipfianGenerator(1_000, ZipfianGenerator.DEFAULT_THETA);
+        final int[] counts = new int[1_000];
+
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[(int) generator.next()]++;
+        }
+
+        int firstTenth = 0;
+
+        for (int i = 0; i < 100; i++) {
+            firstTenth += counts[i];
+        }
+
+        for (int i = 1; i < counts.length; i++) {
+            assertThat(counts[0]).isGreaterThan(counts[i]);
+        }
+
+        assertThat(counts[0]).isGreaterThan(SAMPLES / 10);
+        assertThat(firstTenth).isGreaterThan(SAMPLES / 2);
+    }
+
+    /// The skew and the number of items are checked.
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> new ZipfianGenerator(0, 0.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfianGenerator(10, 0.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfianGenerator(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}